@@ -27,10 +27,7 @@ package com.github.zardozz.fixedheadertablelayoutsample;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
-import android.annotation.SuppressLint;
-import android.content.Context;
 import android.content.res.Configuration;
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.view.Gravity;
 import android.view.View;
@@ -39,19 +36,19 @@ import android.widget.TextView;
 
 import com.github.zardozz.FixedHeaderTableLayout.*;
 
-import java.lang.ref.SoftReference;
 import java.util.Locale;
 import java.util.Random;
 
 public class MainExampleActivity extends AppCompatActivity {
 
+    // View types of the cells
+    private static final int DATA_CELL = 0;
+    private static final int HEADER_CELL = 1;
+    private static final int CORNER_CELL = 2;
+
     private FixedHeaderTableLayout fixedHeaderTableLayout;
     private ProgressBar pgsBar;
-
-    FixedHeaderSubTableLayout mainTable;
-    FixedHeaderSubTableLayout columnHeaderTable;
-    FixedHeaderSubTableLayout rowHeaderTable;
-    FixedHeaderSubTableLayout cornerTable;
+    private FixedHeaderTableBuilder.BuildTask buildTask;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -61,11 +58,26 @@ public class MainExampleActivity extends AppCompatActivity {
         fixedHeaderTableLayout = findViewById(R.id.FixedHeaderTableLayout);
         pgsBar = findViewById(R.id.pBar);
 
-        // Really this should be done in the background as generating such a big layout takes time
-        GenerateTables generateTables = new GenerateTables(this);
-        generateTables.execute();
-
+        // Generating such a big layout takes time so the cells are measured in the background
+        // and only the visible cells are created as Views
+        pgsBar.setVisibility(View.VISIBLE);
+        fixedHeaderTableLayout.setMinScale(0.1f);
+        buildTask = createTable()
+                .setOnBuiltListener(table -> {
+                    pgsBar.setVisibility(View.GONE);
+                    // Borders between the headers and the rest of the table
+                    table.getColumnHeaderTable().setBackgroundResource(R.drawable.bottom_border);
+                    table.getRowHeaderTable().setBackgroundResource(R.drawable.right_border);
+                    table.getCornerTable().setBackgroundResource(R.drawable.corner_border);
+                })
+                .build(fixedHeaderTableLayout, (parent, viewType) -> createCellView(viewType));
+    }
 
+    @Override
+    protected void onDestroy() {
+        // Don't keep measuring for a table that has gone
+        buildTask.cancel();
+        super.onDestroy();
     }
 
     @Override
@@ -82,52 +94,6 @@ public class MainExampleActivity extends AppCompatActivity {
         }
     }
 
-    @SuppressLint("StaticFieldLeak")
-    private class GenerateTables extends AsyncTask<Void, Integer, Void> {
-
-        private final SoftReference<MainExampleActivity> activityReference;
-        private final Context mContext;
-
-        // only retain a soft reference to the activity
-        GenerateTables(MainExampleActivity context) {
-            mContext = context;
-            activityReference = new SoftReference<>(context);
-        }
-
-        @Override
-        protected void onPreExecute() {
-            super.onPreExecute();
-
-            // get a reference to the activity if it is still there
-            MainExampleActivity activity = activityReference.get();
-            if (activity == null || activity.isFinishing()) return;
-
-            activity.pgsBar.setVisibility(View.VISIBLE);
-        }
-
-        @Override
-        protected Void doInBackground(Void... params) {
-            createTable(mContext);
-            return null;
-        }
-
-
-        @Override
-        protected void onPostExecute(Void param) {
-
-            // get a reference to the activity if it is still there
-            MainExampleActivity activity = activityReference.get();
-            if (activity == null || activity.isFinishing()) return;
-
-            // Setup FixHeader Table
-            fixedHeaderTableLayout.addViews(mainTable, columnHeaderTable, rowHeaderTable, cornerTable);
-
-            activity.pgsBar.setVisibility(View.GONE);
-        }
-
-    }
-
-
     private static final String ALLOWED_CHARACTERS ="qwertyuiopasdfghjklzxcvbnm";
 
     private static String getRandomString(int maxLength)
@@ -140,124 +106,47 @@ public class MainExampleActivity extends AppCompatActivity {
         return sb.toString();
     }
 
-    private void createTable(Context mContext){
-        // Create our 4 Sub Tables
-        mainTable = new FixedHeaderSubTableLayout(mContext);
-        // 25 x 5 in size
+    private TextView createCellView(int viewType) {
         float textSize = 20.0f;
-        for (int i = 1; i <=25; i++) {
-            FixedHeaderTableRow tableRowData = new FixedHeaderTableRow(mContext);
-            // Add some data
-            for (int j = 1; j <= 25; j++) {
-                // Add a Textview
-                TextView textView = new TextView(mContext);
-                textView.setGravity(Gravity.CENTER);
-                textView.setText(String.format(Locale.ROOT,"C%d:R%d:%s", j, i, getRandomString(j)));
-                textView.setBackgroundResource(R.drawable.list_border);
-                textView.setPadding(5 ,5,5,5);
-                textView.setTextSize(textSize * 1.5f);
-                textView.setTextColor(getResources().getColor(R.color.colorText));
-                textView.setOnClickListener(v -> {
-                    if (v.isSelected()){
-                        v.setSelected(false);
-                        v.setBackgroundResource(R.drawable.list_border);
-                    } else {
-                        v.setSelected(true);
-                        v.setBackgroundResource(R.drawable.selected_border);
-                    }
-                });
-                tableRowData.addView(textView);
+        TextView textView = new TextView(this);
+        textView.setGravity(Gravity.CENTER);
+        textView.setBackgroundResource(R.drawable.list_border);
+        textView.setPadding(5 ,5,5,5);
+        textView.setTextSize(viewType == HEADER_CELL ? textSize : textSize * 1.5f);
+        textView.setTextColor(getResources().getColor(R.color.colorText));
+        textView.setOnClickListener(v -> {
+            if (v.isSelected()){
+                v.setSelected(false);
+                v.setBackgroundResource(R.drawable.list_border);
+            } else {
+                v.setSelected(true);
+                v.setBackgroundResource(R.drawable.selected_border);
             }
-            mainTable.addView(tableRowData);
-        }
+        });
+        return textView;
+    }
 
-        columnHeaderTable = new FixedHeaderSubTableLayout(mContext);
-        // 2 x 5 in size
+    private FixedHeaderTableBuilder createTable(){
+        // 2 fixed header rows and 1 fixed header column around 25 x 25 cells of data
+        FixedHeaderTableBuilder builder = new FixedHeaderTableBuilder(2, 1);
         for (int i = 1; i <= 2; i++) {
-            FixedHeaderTableRow tableRowData = new FixedHeaderTableRow(mContext);
-            // Add some data
+            CharSequence[] cells = new CharSequence[26];
+            cells[0] = String.format(Locale.ROOT,"A%d:%d",i , 1);
             for (int j = 1; j <= 25; j++) {
-                // Add a Textview
-                TextView textView = new TextView(mContext);
-                textView.setGravity(Gravity.CENTER);
-                textView.setText(String.format(Locale.ROOT,"C%d:%d", i, j));
-                textView.setBackgroundResource(R.drawable.list_border);
-                textView.setPadding(5 ,5,5,5);
-                textView.setTextSize(textSize);
-                textView.setTextColor(getResources().getColor(R.color.colorText));
-                textView.setOnClickListener(v -> {
-                    if (v.isSelected()){
-                        v.setSelected(false);
-                        v.setBackgroundResource(R.drawable.list_border);
-                    } else {
-                        v.setSelected(true);
-                        v.setBackgroundResource(R.drawable.selected_border);
-                    }
-                });
-                tableRowData.addView(textView);
+                cells[j] = String.format(Locale.ROOT,"C%d:%d", i, j);
             }
-            columnHeaderTable.addView(tableRowData);
+            builder.addRow(HEADER_CELL, cells);
+            builder.setCell(i - 1, 0, cells[0], CORNER_CELL);
         }
-        columnHeaderTable.setBackgroundResource(R.drawable.bottom_border);
-
-        rowHeaderTable = new FixedHeaderSubTableLayout(mContext);
-        // 25 x 1 in size
-        for (int i = 1; i <= 25; i++) {
-            FixedHeaderTableRow tableRowData = new FixedHeaderTableRow(mContext);
-            // Add some data
-            for (int j = 1; j <= 1; j++) {
-                // Add a Textview
-                TextView textView = new TextView(mContext);
-                textView.setGravity(Gravity.CENTER);
-                textView.setText(String.format(Locale.ROOT,"R%d", i));
-                textView.setBackgroundResource(R.drawable.list_border);
-                textView.setPadding(5 ,5,5,5);
-                textView.setTextSize(textSize);
-                textView.setTextColor(getResources().getColor(R.color.colorText));
-                textView.setOnClickListener(v -> {
-                    if (v.isSelected()){
-                        v.setSelected(false);
-                        v.setBackgroundResource(R.drawable.list_border);
-                    } else {
-                        v.setSelected(true);
-                        v.setBackgroundResource(R.drawable.selected_border);
-                    }
-                });
-                tableRowData.addView(textView);
-            }
-            rowHeaderTable.addView(tableRowData);
-        }
-        rowHeaderTable.setBackgroundResource(R.drawable.right_border);
-
-        cornerTable = new FixedHeaderSubTableLayout(mContext);
-        // 2 x 1 in size
-        for (int i = 1; i <= 2; i++) {
-            FixedHeaderTableRow tableRowData = new FixedHeaderTableRow(mContext);
-            // Add some data
-            for (int j = 1; j <= 1; j++) {
-                // Add a Textview
-                TextView textView = new TextView(mContext);
-                textView.setGravity(Gravity.CENTER);
-                textView.setText(String.format(Locale.ROOT,"A%d:%d",i , j));
-                textView.setBackgroundResource(R.drawable.list_border);
-                textView.setPadding(5 ,5,5,5);
-                textView.setTextSize(textSize * 1.5f);
-                textView.setTextColor(getResources().getColor(R.color.colorText));
-                textView.setOnClickListener(v -> {
-                    if (v.isSelected()){
-                        v.setSelected(false);
-                        v.setBackgroundResource(R.drawable.list_border);
-                    } else {
-                        v.setSelected(true);
-                        v.setBackgroundResource(R.drawable.selected_border);
-                    }
-                });
-                tableRowData.addView(textView);
+        for (int i = 1; i <=25; i++) {
+            CharSequence[] cells = new CharSequence[26];
+            cells[0] = String.format(Locale.ROOT,"R%d", i);
+            for (int j = 1; j <= 25; j++) {
+                cells[j] = String.format(Locale.ROOT,"C%d:R%d:%s", j, i, getRandomString(j));
             }
-            cornerTable.addView(tableRowData);
+            builder.addRow(DATA_CELL, cells);
+            builder.setCell(i + 1, 0, cells[0], HEADER_CELL);
         }
-        cornerTable.setBackgroundResource(R.drawable.corner_border);
-
-        fixedHeaderTableLayout.setMinScale(0.1f);
+        return builder;
     }
-}
\ No newline at end of file
+}
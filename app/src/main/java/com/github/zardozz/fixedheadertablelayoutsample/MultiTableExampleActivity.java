@@ -35,10 +35,9 @@ import android.widget.TextView;
 
 import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderSubTableLayout;
 import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderTableRow;
+import com.github.zardozz.FixedHeaderTableLayout.TableMetrics;
 import com.github.zardozz.FixedHeaderTableLayout.Utils;
 
-import java.util.ArrayList;
-
 public class MultiTableExampleActivity extends AppCompatActivity {
 
     @Override
@@ -90,29 +89,26 @@ public class MultiTableExampleActivity extends AppCompatActivity {
         person3Table.measure(measureSpec, measureSpec);
 
         // As we have direct access to get and set the column sizes between the tables
-        // including spanning the second column of the header row.
+        // including the header cell spanning the second and third columns.
         // We'll leave the row heights as natural as they don't need aligning
 
         // This is normally done by the FixedHeaderTableLayout class that does the panning and
         // scrolling, but as we are not using that we have to do it ourselves
-        ArrayList<Integer> maxColumnWidth = new ArrayList<>();
-        maxColumnWidth = Utils.calculateMaxColumnWidth(maxColumnWidth, person1Table);
-        maxColumnWidth = Utils.calculateMaxColumnWidth(maxColumnWidth, person2Table);
-        maxColumnWidth = Utils.calculateMaxColumnWidth(maxColumnWidth, person3Table);
-
-        // Now the header spanning
-        ArrayList<Integer> maxHeaderColumnWidth = new ArrayList<>();
-        // Hack going to assume the headers are short than the actual columns to simplify the logic
-        // So we only have to expand the header columns
-        maxHeaderColumnWidth.add(maxColumnWidth.get(0));
-        // Only have 2 columns in header so it's width needs to be second column + third width
-        maxHeaderColumnWidth.add(maxColumnWidth.get(1)+maxColumnWidth.get(2));
+        // No rows in the TableMetrics as the row heights are not aligned
+        TableMetrics maxColumnWidth = new TableMetrics();
+        maxColumnWidth.reset(Utils.getMaxColumnCount(person1Table), 0);
+        Utils.calculateMaxColumnWidth(maxColumnWidth, 0, person1Table);
+        Utils.calculateMaxColumnWidth(maxColumnWidth, 0, person2Table);
+        Utils.calculateMaxColumnWidth(maxColumnWidth, 0, person3Table);
+        Utils.calculateMaxColumnWidth(maxColumnWidth, 0, headerTable);
+        // Now widen the columns under the spanning header cell if it is wider than them
+        Utils.calculateSpannedCellSizes(maxColumnWidth, 0, 0, headerTable);
 
         // Now set all the tables to the new widths
-        Utils.setMaxColumnWidth(maxColumnWidth, person1Table);
-        Utils.setMaxColumnWidth(maxColumnWidth, person2Table);
-        Utils.setMaxColumnWidth(maxColumnWidth, person3Table);
-        Utils.setMaxColumnWidth(maxHeaderColumnWidth, headerTable);
+        Utils.setTableMetrics(maxColumnWidth, 0, 0, person1Table);
+        Utils.setTableMetrics(maxColumnWidth, 0, 0, person2Table);
+        Utils.setTableMetrics(maxColumnWidth, 0, 0, person3Table);
+        Utils.setTableMetrics(maxColumnWidth, 0, 0, headerTable);
 
         // Remeasure Tables using the new set of aligned widths (MeasureSpec does not matter)
         headerTable.measure(measureSpec, measureSpec);
@@ -151,8 +147,8 @@ public class MultiTableExampleActivity extends AppCompatActivity {
     private FixedHeaderSubTableLayout createHeaderTable(){
         FixedHeaderSubTableLayout headerTable = new FixedHeaderSubTableLayout(getApplicationContext());
 
-        // Header is only 2 columns as we will stretch the second column
-        // over the second and third of the modularTables
+        // Header is only 2 cells as the second cell spans
+        // the second and third columns of the modularTables
         FixedHeaderTableRow tableHeaderRow = new FixedHeaderTableRow(getApplicationContext());
         TextView textViewHeader1 = new TextView(getApplicationContext());
         textViewHeader1.setText("Name");
@@ -166,7 +162,7 @@ public class MultiTableExampleActivity extends AppCompatActivity {
         textViewHeader2.setBackgroundResource(R.drawable.list_border);
         textViewHeader2.setTypeface(textViewHeader2.getTypeface(), Typeface.BOLD);
         textViewHeader2.setPadding(5 ,5,5,5);
-        tableHeaderRow.addView(textViewHeader2);
+        tableHeaderRow.addView(textViewHeader2, new FixedHeaderTableRow.LayoutParams(2, 1));
 
         headerTable.addView(tableHeaderRow);
 
@@ -176,7 +172,7 @@ public class MultiTableExampleActivity extends AppCompatActivity {
     private FixedHeaderSubTableLayout createModularTable(Person data){
         FixedHeaderSubTableLayout modularTable = new FixedHeaderSubTableLayout(getApplicationContext());
 
-        // The Sub table has 2 rows of 3 columns
+        // The Sub table has 2 rows of 3 columns with the name spanning both rows
         FixedHeaderTableRow tableRow1 = new FixedHeaderTableRow(getApplicationContext());
         FixedHeaderTableRow tableRow2 = new FixedHeaderTableRow(getApplicationContext());
 
@@ -185,7 +181,7 @@ public class MultiTableExampleActivity extends AppCompatActivity {
         textViewName.setText(data.Name);
         textViewName.setBackgroundResource(R.drawable.list_border);
         textViewName.setPadding(5 ,5,5,5);
-        tableRow1.addView(textViewName);
+        tableRow1.addView(textViewName, new FixedHeaderTableRow.LayoutParams(1, 2));
         TextView textViewContactType1 = new TextView(getApplicationContext());
         textViewContactType1.setText(data.ContactType1);
         textViewContactType1.setBackgroundResource(R.drawable.list_border);
@@ -199,10 +195,7 @@ public class MultiTableExampleActivity extends AppCompatActivity {
         textViewContactType2.setPadding(5 ,5,5,5);
         tableRow1.addView(textViewContactType2);
 
-        // Add 3 cells to second row
-        TextView textViewBlank = new TextView(getApplicationContext());
-        textViewBlank.setBackgroundResource(R.drawable.list_border);
-        tableRow2.addView(textViewBlank);
+        // Add 2 cells to second row, the first column is covered by the name
         TextView textViewContactDetails1 = new TextView(getApplicationContext());
         textViewContactDetails1.setText(data.ContactDetails1);
         textViewContactDetails1.setBackgroundResource(R.drawable.list_border);
@@ -0,0 +1,109 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+// In the library's package to reach the package private classes
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+/**
+ * Time working out the column widths of 10^5 and 10^6 cells split in to 1 to 8 chunks
+ * to show how the parallel reduction scales with the number of threads
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class ColumnWidthReducerBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void cells100000Chunks1() {
+        benchmarkReduce(316, 1);
+    }
+
+    @Test
+    public void cells100000Chunks2() {
+        benchmarkReduce(316, 2);
+    }
+
+    @Test
+    public void cells100000Chunks4() {
+        benchmarkReduce(316, 4);
+    }
+
+    @Test
+    public void cells100000Chunks8() {
+        benchmarkReduce(316, 8);
+    }
+
+    @Test
+    public void cells1000000Chunks1() {
+        benchmarkReduce(1000, 1);
+    }
+
+    @Test
+    public void cells1000000Chunks2() {
+        benchmarkReduce(1000, 2);
+    }
+
+    @Test
+    public void cells1000000Chunks4() {
+        benchmarkReduce(1000, 4);
+    }
+
+    @Test
+    public void cells1000000Chunks8() {
+        benchmarkReduce(1000, 8);
+    }
+
+    /**
+     * @param side the number of rows and columns
+     * @param chunkCount the number of chunks to split the rows in to
+     */
+    private void benchmarkReduce(int side, int chunkCount) {
+        Random random = new Random(42);
+        CellSizeStore cellSizes = new CellSizeStore();
+        cellSizes.reset(side, side);
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                cellSizes.set(row, column, random.nextInt(1000), random.nextInt(200));
+            }
+        }
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            ColumnWidthReducer.getMaxColumnWidths(cellSizes, CellTextMeasurer.getDefaultExecutor(), chunkCount);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.benchmark;
+
+import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderSubTableLayout;
+import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderTableLayout;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Time adding the Sub Tables and the first layout at 10^2 to 10^5 cells
+ * Creating the cell Views is not timed
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class AddViewsBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    @UiThreadTest
+    public void addViews100() {
+        benchmarkAddViews(10, false);
+    }
+
+    @Test
+    @UiThreadTest
+    public void addViews1000() {
+        benchmarkAddViews(32, false);
+    }
+
+    @Test
+    @UiThreadTest
+    public void addViews10000() {
+        benchmarkAddViews(100, false);
+    }
+
+    @Test
+    @UiThreadTest
+    public void addViews100000() {
+        benchmarkAddViews(316, false);
+    }
+
+    @Test
+    @UiThreadTest
+    public void addViewsAndLayout100() {
+        benchmarkAddViews(10, true);
+    }
+
+    @Test
+    @UiThreadTest
+    public void addViewsAndLayout1000() {
+        benchmarkAddViews(32, true);
+    }
+
+    @Test
+    @UiThreadTest
+    public void addViewsAndLayout10000() {
+        benchmarkAddViews(100, true);
+    }
+
+    @Test
+    @UiThreadTest
+    public void addViewsAndLayout100000() {
+        benchmarkAddViews(316, true);
+    }
+
+    /**
+     * @param side the number of rows and columns including the headers
+     * @param layout true to also time the first measure and layout of the table
+     */
+    private void benchmarkAddViews(int side, boolean layout) {
+        Context context = ApplicationProvider.getApplicationContext();
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            FixedHeaderTableLayout tableLayout = new FixedHeaderTableLayout(context);
+            FixedHeaderSubTableLayout[] subTables = BenchmarkTables.createSubTables(context, side);
+            state.resumeTiming();
+
+            tableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+            if (layout) {
+                BenchmarkTables.layout(tableLayout);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.benchmark;
+
+import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderSubTableLayout;
+import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderTableLayout;
+import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderTableRow;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.TextView;
+
+import java.util.Locale;
+
+/**
+ * Builds the tables used by the benchmarks
+ */
+public class BenchmarkTables {
+
+    // A typical phone screen size
+    public static final int SCREEN_WIDTH = 1080;
+    public static final int SCREEN_HEIGHT = 1920;
+
+    /**
+     * Create the 4 Sub Tables of a square table with a single fixed header row and column
+     * @param context the context
+     * @param side the number of rows and columns including the headers
+     * @return the main, column header, row header and corner tables
+     */
+    public static FixedHeaderSubTableLayout[] createSubTables(Context context, int side) {
+        FixedHeaderSubTableLayout[] subTableLayouts = new FixedHeaderSubTableLayout[4];
+        subTableLayouts[0] = createTable(context, "D", side - 1, side - 1);
+        subTableLayouts[1] = createTable(context, "B", side - 1, 1);
+        subTableLayouts[2] = createTable(context, "C", 1, side - 1);
+        subTableLayouts[3] = createTable(context, "A", 1, 1);
+        return subTableLayouts;
+    }
+
+    /**
+     * Create a Sub Table of TextViews
+     * @param context the context
+     * @param prefix the text before the cell position
+     * @param columns the number of columns
+     * @param rows the number of rows
+     * @return the table
+     */
+    public static FixedHeaderSubTableLayout createTable(Context context, String prefix, int columns, int rows) {
+        FixedHeaderSubTableLayout table = new FixedHeaderSubTableLayout(context);
+        for (int i = 1; i <= rows; i++) {
+            FixedHeaderTableRow tableRowData = new FixedHeaderTableRow(context);
+            for (int j = 1; j <= columns; j++) {
+                TextView textView = new TextView(context);
+                textView.setGravity(Gravity.CENTER);
+                textView.setText(String.format(Locale.ROOT, "%s%d:%d", prefix, j, i));
+                textView.setPadding(5, 5, 5, 5);
+                tableRowData.addView(textView);
+            }
+            table.addView(tableRowData);
+        }
+        return table;
+    }
+
+    /**
+     * Create a table and lay it out at the screen size
+     * @param context the context
+     * @param side the number of rows and columns including the headers
+     * @return the laid out table
+     */
+    public static FixedHeaderTableLayout createLaidOutTable(Context context, int side) {
+        FixedHeaderTableLayout tableLayout = new FixedHeaderTableLayout(context);
+        FixedHeaderSubTableLayout[] subTables = createSubTables(context, side);
+        tableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+        layout(tableLayout);
+        return tableLayout;
+    }
+
+    /**
+     * Measure and layout a table at the screen size without attaching it to a window
+     * @param tableLayout the table
+     */
+    public static void layout(FixedHeaderTableLayout tableLayout) {
+        tableLayout.measure(View.MeasureSpec.makeMeasureSpec(SCREEN_WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SCREEN_HEIGHT, View.MeasureSpec.EXACTLY));
+        tableLayout.layout(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+    }
+}
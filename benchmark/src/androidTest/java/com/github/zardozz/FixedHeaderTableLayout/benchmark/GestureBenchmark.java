@@ -0,0 +1,143 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.benchmark;
+
+import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderTableLayout;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Time the per event cost of panning, scaling and passing touches to the cells on a 50 x 50 table
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class GestureBenchmark {
+
+    private static final int SIDE = 50;
+    // Number of move events in one drag back and forth
+    private static final int MOVE_COUNT = 200;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private FixedHeaderTableLayout tableLayout;
+    private MotionEvent down;
+    private MotionEvent[] moves;
+    private MotionEvent up;
+
+    @Before
+    public void setUp() {
+        tableLayout = BenchmarkTables.createLaidOutTable(ApplicationProvider.getApplicationContext(), SIDE);
+
+        // Create all the events first as creating them allocates
+        long downTime = SystemClock.uptimeMillis();
+        float startX = BenchmarkTables.SCREEN_WIDTH / 2f;
+        float startY = BenchmarkTables.SCREEN_HEIGHT / 2f;
+        down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, startX, startY, 0);
+        moves = new MotionEvent[MOVE_COUNT];
+        for (int i = 0; i < MOVE_COUNT; i++) {
+            // Drag up and left then back again so the table keeps panning
+            float offset = (i < MOVE_COUNT / 2 ? i : MOVE_COUNT - i) * 3;
+            moves[i] = MotionEvent.obtain(downTime, downTime + i + 1, MotionEvent.ACTION_MOVE, startX - offset, startY - offset, 0);
+        }
+        up = MotionEvent.obtain(downTime, downTime + MOVE_COUNT + 1, MotionEvent.ACTION_UP, startX, startY, 0);
+    }
+
+    @After
+    public void tearDown() {
+        down.recycle();
+        for (MotionEvent move : moves) {
+            move.recycle();
+        }
+        up.recycle();
+    }
+
+    @Test
+    @UiThreadTest
+    public void calculatePanScalePan() {
+        final BenchmarkState state = benchmarkRule.getState();
+        float distance = 10f;
+        while (state.keepRunning()) {
+            tableLayout.calculatePanScale(distance, distance, 0, 0, 1f);
+            distance = -distance;
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void calculatePanScaleScale() {
+        final BenchmarkState state = benchmarkRule.getState();
+        float centerX = BenchmarkTables.SCREEN_WIDTH / 2f;
+        float centerY = BenchmarkTables.SCREEN_HEIGHT / 2f;
+        float scaleFactor = 0.9f;
+        while (state.keepRunning()) {
+            tableLayout.calculatePanScale(0, 0, centerX, centerY, scaleFactor);
+            scaleFactor = 1f / scaleFactor;
+        }
+    }
+
+    /**
+     * A drag move event, this pans the table and cancels the touch sent to the cells
+     */
+    @Test
+    @UiThreadTest
+    public void dragMoveEvent() {
+        tableLayout.dispatchTouchEvent(down);
+        final BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            tableLayout.dispatchTouchEvent(moves[i]);
+            i = (i + 1) % MOVE_COUNT;
+        }
+        tableLayout.dispatchTouchEvent(up);
+    }
+
+    /**
+     * A down and up pair, each is mapped to the pan and scale with mapMotionEvent and sent to the cells
+     */
+    @Test
+    @UiThreadTest
+    public void tapEvents() {
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            tableLayout.dispatchTouchEvent(down);
+            tableLayout.dispatchTouchEvent(up);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.benchmark;
+
+import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderSubTableLayout;
+import com.github.zardozz.FixedHeaderTableLayout.FixedHeaderTableRow;
+import com.github.zardozz.FixedHeaderTableLayout.TableMetrics;
+import com.github.zardozz.FixedHeaderTableLayout.Utils;
+
+import android.view.View;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+/**
+ * Time the measuring of rows and the aligning of the column widths on a 100 x 100 table
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class MeasureBenchmark {
+
+    private static final int SIDE = 100;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+    private FixedHeaderSubTableLayout table;
+    private TableMetrics tableMetrics;
+
+    @Before
+    public void setUp() {
+        table = BenchmarkTables.createTable(ApplicationProvider.getApplicationContext(), "D", SIDE, SIDE);
+        // preMeasure all the rows
+        table.measure(unspecified, unspecified);
+        tableMetrics = new TableMetrics();
+        tableMetrics.reset(SIDE, SIDE);
+        Utils.calculateMaxColumnWidth(tableMetrics, 0, table);
+        Utils.calculateMaxRowHeight(tableMetrics, 0, table);
+    }
+
+    @Test
+    @UiThreadTest
+    public void calculateMaxColumnWidth() {
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Utils.calculateMaxColumnWidth(tableMetrics, 0, table);
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    @SuppressWarnings("deprecation")
+    public void calculateMaxColumnWidthArrayList() {
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Utils.calculateMaxColumnWidth(new ArrayList<>(), table);
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    @SuppressWarnings("deprecation")
+    public void setMaxColumnWidth() {
+        ArrayList<Integer> columnWidths = Utils.calculateMaxColumnWidth(new ArrayList<>(), table);
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Utils.setMaxColumnWidth(columnWidths, table);
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void rowPreMeasure() {
+        FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(0);
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            tableRow.requestPreMeasure();
+            tableRow.measure(unspecified, unspecified);
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void rowFixedMeasure() {
+        FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(0);
+        tableRow.setTableMetrics(tableMetrics, 0);
+        tableRow.setMaxChildHeight(tableMetrics.getRowHeight(0));
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            tableRow.forceLayout();
+            tableRow.measure(unspecified, unspecified);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2021 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.PositionAssertions.isCompletelyAbove;
+import static androidx.test.espresso.assertion.PositionAssertions.isCompletelyLeftOf;
+import static androidx.test.espresso.assertion.ViewAssertions.doesNotExist;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class AdapterTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    static class CountingAdapter extends FixedHeaderTableAdapter {
+        private final int rowCount;
+        private final int columnCount;
+        int createdViews = 0;
+
+        CountingAdapter(int rowCount, int columnCount) {
+            this.rowCount = rowCount;
+            this.columnCount = columnCount;
+        }
+
+        @Override
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnCount;
+        }
+
+        @Override
+        public View createCellView(ViewGroup parent, int viewType) {
+            createdViews++;
+            TextView textView = new TextView(parent.getContext());
+            textView.setGravity(Gravity.CENTER);
+            textView.setPadding(5 ,5,5,5);
+            return textView;
+        }
+
+        @Override
+        public void bindCell(int row, int column, View view) {
+            ((TextView) view).setText(String.format(Locale.ROOT,"R%d:C%d", row, column));
+        }
+    }
+
+    @Test
+    public void testAdapterOnlyCreatesVisibleCells(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        CountingAdapter adapter = new CountingAdapter(1000, 40);
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+                fixedHeaderTableLayout.setAdapter(adapter);
+                activity.setContentView(fixedHeaderTableLayout);
+            });
+
+        // Check a cell of each Sub Table is displayed
+        onView(withText("R0:C0")).check(matches(isDisplayed()));
+        onView(withText("R0:C1")).check(matches(isDisplayed()));
+        onView(withText("R1:C0")).check(matches(isDisplayed()));
+        onView(withText("R1:C1")).check(matches(isDisplayed()));
+
+        // Check Locations
+        onView(withText("R0:C0")).check(isCompletelyLeftOf(withText("R0:C1")));
+        onView(withText("R0:C0")).check(isCompletelyAbove(withText("R1:C0")));
+        onView(withText("R0:C1")).check(isCompletelyAbove(withText("R1:C1")));
+        onView(withText("R1:C0")).check(isCompletelyLeftOf(withText("R1:C1")));
+
+        // Cells far outside the viewport are not created
+        onView(withText("R999:C39")).check(doesNotExist());
+        activityScenario.onActivity(
+            activity -> assertTrue(adapter.createdViews < 1000 * 40 / 10));
+    }
+
+    @Test
+    public void testSampledColumnGrowsWhenWideCellScrollsIntoView(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        int[] boundCells = new int[1];
+        CountingAdapter adapter = new CountingAdapter(1000, 5) {
+            @Override
+            public void bindCell(int row, int column, View view) {
+                boundCells[0]++;
+                if (row == 900 && column == 1) {
+                    ((TextView) view).setText("A much wider cell than the rest");
+                } else {
+                    super.bindCell(row, column, view);
+                }
+            }
+        };
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        int[] sampledWidth = new int[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                fixedHeaderTableLayout[0].setColumnWidthSampling(ColumnWidthSampling.FIRST_ROWS, 10);
+                fixedHeaderTableLayout[0].setAdapter(adapter);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        onView(withText("R1:C1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                // Only the sampled and visible rows have been measured
+                assertTrue(boundCells[0] < 1000 * 5 / 10);
+                sampledWidth[0] = fixedHeaderTableLayout[0].getTableMetrics().getColumnWidth(1);
+                fixedHeaderTableLayout[0].scrollToCell(900, 1);
+            });
+
+        onView(withText("A much wider cell than the rest")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                TableMetrics tableMetrics = fixedHeaderTableLayout[0].getTableMetrics();
+                assertTrue(tableMetrics.getColumnWidth(1) > sampledWidth[0]);
+                // The wide cell's row is the height of its cells not the estimate
+                assertEquals(900, tableMetrics.getRowAt(tableMetrics.getRowOffset(900)));
+            });
+    }
+
+    @Test
+    public void testBackgroundMeasuringWithoutCellTextMeasuresViews(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        // Does not implement getCellText so the cells can't be measured in the background
+        CountingAdapter adapter = new CountingAdapter(20, 5);
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                fixedHeaderTableLayout[0].setMeasureCellsInBackground(true);
+                fixedHeaderTableLayout[0].setAdapter(adapter);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        onView(withText("R1:C1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                TextView cell = (TextView) adapter.createCellView(fixedHeaderTableLayout[0], 0);
+                adapter.bindCell(1, 1, cell);
+                int measureSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+                cell.measure(measureSpec, measureSpec);
+                // Measured as empty text the column would only be as wide as the padding
+                assertTrue(fixedHeaderTableLayout[0].getTableMetrics().getColumnWidth(1) >= cell.getMeasuredWidth());
+            });
+    }
+}
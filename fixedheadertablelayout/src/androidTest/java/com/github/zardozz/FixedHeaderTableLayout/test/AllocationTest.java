@@ -0,0 +1,167 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2021 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class AllocationTest {
+
+    private static final int EVENT_COUNT = 1000;
+    // Moves to get past the touch slop and set up the scrollbars before counting
+    private static final int WARM_UP_COUNT = 20;
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDragDoesNotAllocate(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(25,25), new Point(25,1), new Point(1,25), new Point(1,1));
+                fixedHeaderTableLayout[0].addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableLayout tableLayout = fixedHeaderTableLayout[0];
+                long downTime = SystemClock.uptimeMillis();
+                float startX = tableLayout.getWidth() / 2f;
+                float startY = tableLayout.getHeight() / 2f;
+
+                // Create all the events first as creating them allocates
+                MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, startX, startY, 0);
+                MotionEvent[] moves = new MotionEvent[WARM_UP_COUNT + EVENT_COUNT];
+                for (int i = 0; i < moves.length; i++) {
+                    // Drag up and left then back again so the table keeps panning
+                    float offset = (i % 200 < 100 ? i % 100 : 100 - i % 100) * 3;
+                    moves[i] = MotionEvent.obtain(downTime, downTime + i + 1, MotionEvent.ACTION_MOVE, startX - offset, startY - offset, 0);
+                }
+                MotionEvent up = MotionEvent.obtain(downTime, downTime + moves.length + 1, MotionEvent.ACTION_UP, startX, startY, 0);
+
+                tableLayout.dispatchTouchEvent(down);
+                for (int i = 0; i < WARM_UP_COUNT; i++) {
+                    tableLayout.dispatchTouchEvent(moves[i]);
+                }
+
+                Debug.resetThreadAllocCount();
+                Debug.startAllocCounting();
+                for (int i = WARM_UP_COUNT; i < moves.length; i++) {
+                    tableLayout.dispatchTouchEvent(moves[i]);
+                }
+                Debug.stopAllocCounting();
+                int allocations = Debug.getThreadAllocCount();
+
+                tableLayout.dispatchTouchEvent(up);
+                down.recycle();
+                for (MotionEvent move : moves) {
+                    move.recycle();
+                }
+                up.recycle();
+
+                assertEquals("Allocations during drag events", 0, allocations);
+            });
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testFixedMeasureDoesNotAllocate(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderSubTableLayout[] mainTable = new FixedHeaderSubTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(25,25), new Point(25,1), new Point(1,25), new Point(1,1));
+                fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                activity.setContentView(fixedHeaderTableLayout);
+                mainTable[0] = subTables[0];
+            });
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableRow tableRow = (FixedHeaderTableRow) mainTable[0].getChildAt(2);
+                View cell = tableRow.getChildAt(3);
+                ViewGroup.LayoutParams layoutParams = cell.getLayoutParams();
+                assertTrue(layoutParams instanceof FixedHeaderTableRow.LayoutParams);
+                FixedHeaderTableRow.LayoutParams cellLayoutParams = (FixedHeaderTableRow.LayoutParams) layoutParams;
+                assertEquals(4, cellLayoutParams.getColumn());
+                assertEquals(cell.getMeasuredWidth(), cellLayoutParams.getFixedWidth());
+                assertEquals(cell.getMeasuredHeight(), cellLayoutParams.getFixedHeight());
+
+                int widthMeasureSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+                tableRow.forceLayout();
+                tableRow.measure(widthMeasureSpec, widthMeasureSpec);
+
+                Debug.resetThreadAllocCount();
+                Debug.startAllocCounting();
+                for (int i = 0; i < EVENT_COUNT; i++) {
+                    tableRow.forceLayout();
+                    tableRow.measure(widthMeasureSpec, widthMeasureSpec);
+                }
+                Debug.stopAllocCounting();
+                int allocations = Debug.getThreadAllocCount();
+
+                // The measure keeps the LayoutParams the cell was added with
+                assertSame(layoutParams, cell.getLayoutParams());
+                assertEquals("Allocations during row measures", 0, allocations);
+            });
+    }
+}
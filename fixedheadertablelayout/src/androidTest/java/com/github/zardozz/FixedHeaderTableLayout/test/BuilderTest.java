@@ -0,0 +1,139 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.widget.TextView;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class BuilderTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    private static FixedHeaderTableBuilder createBuilder() {
+        // Rows are added on the test thread, not the main thread
+        FixedHeaderTableBuilder builder = new FixedHeaderTableBuilder(1, 1);
+        for (int row = 0; row < 50; row++) {
+            CharSequence[] cells = new CharSequence[20];
+            for (int column = 0; column < cells.length; column++) {
+                cells[column] = String.format(Locale.ROOT, "R%d:C%d", row, column);
+            }
+            builder.addRow(row == 0 ? 1 : 0, cells);
+        }
+        return builder;
+    }
+
+    private static TextView createCellView(Context context, int viewType) {
+        TextView textView = new TextView(context);
+        textView.setGravity(Gravity.CENTER);
+        textView.setPadding(5, 5, 5, 5);
+        textView.setTextSize(viewType == 1 ? 30f : 20f);
+        return textView;
+    }
+
+    @Test
+    public void testBuildInBackground() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        CountDownLatch built = new CountDownLatch(1);
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        FixedHeaderTableBuilder builder = createBuilder();
+        assertEquals(50, builder.getRowCount());
+        assertEquals(20, builder.getColumnCount());
+        builder.setOnBuiltListener(table -> built.countDown())
+                .build(fixedHeaderTableLayout[0], (parent, viewType) -> createCellView(parent.getContext(), viewType));
+        // Changes after build are not shown
+        builder.setCell(1, 1, "Changed", 0);
+
+        assertTrue(built.await(10, TimeUnit.SECONDS));
+        onView(withText("R0:C0")).check(matches(isDisplayed()));
+        onView(withText("R1:C1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                TableMetrics tableMetrics = fixedHeaderTableLayout[0].getTableMetrics();
+                assertEquals(50, tableMetrics.getRowCount());
+                assertEquals(20, tableMetrics.getColumnCount());
+                // The header row's text is bigger
+                assertTrue(tableMetrics.getRowHeight(0) > tableMetrics.getRowHeight(1));
+            });
+    }
+
+    @Test
+    public void testCancelledBuildIsNotShown() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        FixedHeaderTableBuilder.BuildTask[] buildTask = new FixedHeaderTableBuilder.BuildTask[1];
+        CountDownLatch built = new CountDownLatch(1);
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                activity.setContentView(fixedHeaderTableLayout[0]);
+                buildTask[0] = createBuilder()
+                        .setOnBuiltListener(table -> built.countDown())
+                        .build(fixedHeaderTableLayout[0], (parent, viewType) -> createCellView(parent.getContext(), viewType));
+                buildTask[0].cancel();
+            });
+
+        assertFalse(built.await(1, TimeUnit.SECONDS));
+        activityScenario.onActivity(
+            activity -> {
+                assertTrue(buildTask[0].isCancelled());
+                assertNull(fixedHeaderTableLayout[0].getAdapter());
+            });
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class DrawnCellTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    @Test
+    public void testDrawnRow(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        FixedHeaderTableRow[] drawnRow = new FixedHeaderTableRow[1];
+        int[] clickedCell = {-1};
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(5,5), new Point(5,2), new Point(1,5), new Point(1,2));
+
+                // The third row draws its cells instead of having TextViews
+                drawnRow[0] = (FixedHeaderTableRow) subTables[0].getChildAt(2);
+                drawnRow[0].removeAllViews();
+                DrawnCellStyle style = new DrawnCellStyle(activity.getApplicationContext()).setPadding(4, 4, 4, 4);
+                CharSequence[] texts = {"D1", "D2", "A drawn cell much wider than the other cells in its column", "D4", "D5"};
+                drawnRow[0].setDrawnCells(texts, style);
+                drawnRow[0].setOnDrawnCellClickListener((row, index) -> clickedCell[0] = index);
+
+                fixedHeaderTableLayout[0].addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                TableMetrics tableMetrics = fixedHeaderTableLayout[0].getTableMetrics();
+                assertEquals(6, tableMetrics.getColumnCount());
+                assertEquals(0, drawnRow[0].getChildCount());
+                assertEquals(5, drawnRow[0].getDrawnCellCount());
+                // The wide drawn cell sets the width of its column
+                assertTrue(tableMetrics.getColumnWidth(3) > tableMetrics.getColumnWidth(2));
+                assertEquals(tableMetrics.getColumnOffset(6) - tableMetrics.getColumnOffset(1), drawnRow[0].getWidth());
+
+                // A tap in the fourth column clicks the fourth cell
+                float x = tableMetrics.getColumnOffset(4) - tableMetrics.getColumnOffset(1) + tableMetrics.getColumnWidth(4) / 2f;
+                float y = drawnRow[0].getHeight() / 2f;
+                long now = SystemClock.uptimeMillis();
+                MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, x, y, 0);
+                MotionEvent up = MotionEvent.obtain(now, now + 50, MotionEvent.ACTION_UP, x, y, 0);
+                drawnRow[0].dispatchTouchEvent(down);
+                drawnRow[0].dispatchTouchEvent(up);
+                down.recycle();
+                up.recycle();
+                assertEquals(3, clickedCell[0]);
+
+                assertFalse(drawnRow[0].isDrawnCellSelected(3));
+                drawnRow[0].setDrawnCellSelected(3, true);
+                assertTrue(drawnRow[0].isDrawnCellSelected(3));
+            });
+    }
+
+    @Test
+    public void testTextLayoutCache(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(5,5), new Point(5,2), new Point(1,5), new Point(1,2));
+
+                // Every main table row draws the same few status values
+                DrawnCellStyle style = new DrawnCellStyle(activity.getApplicationContext());
+                for (int row = 0; row < subTables[0].getChildCount(); row++) {
+                    FixedHeaderTableRow tableRow = (FixedHeaderTableRow) subTables[0].getChildAt(row);
+                    tableRow.removeAllViews();
+                    tableRow.setDrawnCells(new CharSequence[]{"OK", "FAIL", "OK", "OK", "FAIL"}, style);
+                }
+
+                fixedHeaderTableLayout[0].addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                // Each value is laid out once for each width it is measured or drawn at
+                assertTrue(fixedHeaderTableLayout[0].getTextLayoutCacheMissCount() > 0);
+                assertTrue(fixedHeaderTableLayout[0].getTextLayoutCacheHitCount() > fixedHeaderTableLayout[0].getTextLayoutCacheMissCount());
+                assertEquals(0, fixedHeaderTableLayout[0].getTextLayoutCacheEvictionCount());
+
+                // Shrinking the cache evicts the least recently used Layouts
+                fixedHeaderTableLayout[0].setTextLayoutCacheSize(0);
+                assertTrue(fixedHeaderTableLayout[0].getTextLayoutCacheEvictionCount() > 0);
+            });
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.content.Context;
+import android.graphics.Point;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class FlingTest {
+
+    /**
+     * Makes the pan visible through the scrollbar position
+     */
+    public static class ScrollOffsetTableLayout extends FixedHeaderTableLayout {
+        public ScrollOffsetTableLayout(Context context) {
+            super(context);
+        }
+
+        int getScrollOffsetX() {
+            return computeHorizontalScrollOffset();
+        }
+
+        int getScrollOffsetY() {
+            return computeVerticalScrollOffset();
+        }
+
+        int getMaxScrollOffsetX() {
+            return computeHorizontalScrollRange() - getWidth();
+        }
+
+        int getMaxScrollOffsetY() {
+            return computeVerticalScrollRange() - getHeight();
+        }
+    }
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    // Released when the gesture layers are removed at the end of the whole gesture, fling included
+    private final CountDownLatch gestureEnded = new CountDownLatch(1);
+    private final CountDownLatch[] frameDrawn = new CountDownLatch[] {new CountDownLatch(1)};
+
+    private ScrollOffsetTableLayout createTable(TestActivity activity) {
+        ScrollOffsetTableLayout fixedHeaderTableLayout = new ScrollOffsetTableLayout(activity.getApplicationContext());
+        fixedHeaderTableLayout.setGestureLayers(true);
+        fixedHeaderTableLayout.setTableMetricsListener(new TableMetricsListener() {
+            @Override
+            public void onFrameDrawn(long drawNanos, long tableMeasures, long cellMeasures, long reusedCellViews) {
+                frameDrawn[0].countDown();
+            }
+
+            @Override
+            public void onGestureLayersChanged(long layerBytes, boolean mainTableTiled) {
+                if (layerBytes == 0) {
+                    gestureEnded.countDown();
+                }
+            }
+        });
+        FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(15,100), new Point(15,2), new Point(1,100), new Point(1,2));
+        fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+        activity.setContentView(fixedHeaderTableLayout);
+        return fixedHeaderTableLayout;
+    }
+
+    /**
+     * A fast drag to the left that is released while still moving
+     */
+    private static void flingLeft(FixedHeaderTableLayout tableLayout) {
+        long downTime = SystemClock.uptimeMillis();
+        float x = tableLayout.getWidth() * 0.9f;
+        float y = tableLayout.getHeight() / 2f;
+        MotionEvent event = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        tableLayout.dispatchTouchEvent(event);
+        event.recycle();
+        for (int i = 1; i <= 4; i++) {
+            event = MotionEvent.obtain(downTime, downTime + i * 5, MotionEvent.ACTION_MOVE, x - i * 100, y, 0);
+            tableLayout.dispatchTouchEvent(event);
+            event.recycle();
+        }
+        event = MotionEvent.obtain(downTime, downTime + 25, MotionEvent.ACTION_UP, x - 500, y, 0);
+        tableLayout.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    @Test
+    public void testFlingStopsAtEdge() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        ScrollOffsetTableLayout[] fixedHeaderTableLayout = new ScrollOffsetTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity));
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                // The end of the gesture is only reported when the layers are used
+                assumeTrue(fixedHeaderTableLayout[0].isHardwareAccelerated());
+                flingLeft(fixedHeaderTableLayout[0]);
+            });
+
+        assertTrue(gestureEnded.await(10, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                ScrollOffsetTableLayout tableLayout = fixedHeaderTableLayout[0];
+                // The fling kept going past the drag until it reached the right edge of the table
+                assertTrue(tableLayout.getMaxScrollOffsetX() > 0);
+                assertEquals(tableLayout.getMaxScrollOffsetX(), tableLayout.getScrollOffsetX(), 1);
+                // Only horizontal
+                assertEquals(0, tableLayout.getScrollOffsetY());
+            });
+    }
+
+    @Test
+    public void testTouchStopsFling() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        ScrollOffsetTableLayout[] fixedHeaderTableLayout = new ScrollOffsetTableLayout[1];
+        int[] stoppedOffset = new int[1];
+
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity));
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                assumeTrue(fixedHeaderTableLayout[0].isHardwareAccelerated());
+                frameDrawn[0] = new CountDownLatch(1);
+                flingLeft(fixedHeaderTableLayout[0]);
+            });
+
+        // Let the fling start
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                ScrollOffsetTableLayout tableLayout = fixedHeaderTableLayout[0];
+                long downTime = SystemClock.uptimeMillis();
+                MotionEvent event = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 10, 10, 0);
+                tableLayout.dispatchTouchEvent(event);
+                event.setAction(MotionEvent.ACTION_CANCEL);
+                tableLayout.dispatchTouchEvent(event);
+                event.recycle();
+                stoppedOffset[0] = tableLayout.getScrollOffsetX();
+                assertTrue(stoppedOffset[0] < tableLayout.getMaxScrollOffsetX());
+
+                frameDrawn[0] = new CountDownLatch(1);
+                tableLayout.invalidate();
+            });
+
+        // Stopping the fling ends the gesture
+        assertTrue(gestureEnded.await(5, TimeUnit.SECONDS));
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> assertEquals(stoppedOffset[0], fixedHeaderTableLayout[0].getScrollOffsetX()));
+    }
+}
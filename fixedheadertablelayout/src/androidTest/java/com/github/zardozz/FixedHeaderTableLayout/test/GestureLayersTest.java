@@ -0,0 +1,182 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class GestureLayersTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    private final long[] layerBytes = new long[] {-1};
+    private final boolean[] mainTableTiled = new boolean[1];
+
+    private FixedHeaderTableLayout createTable(TestActivity activity, int columnCount, int rowCount) {
+        FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+        fixedHeaderTableLayout.setGestureLayers(true);
+        fixedHeaderTableLayout.setTableMetricsListener(new TableMetricsListener() {
+            @Override
+            public void onGestureLayersChanged(long bytes, boolean tiled) {
+                layerBytes[0] = bytes;
+                mainTableTiled[0] = tiled;
+            }
+        });
+        FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(),
+                new Point(columnCount, rowCount), new Point(columnCount, 2), new Point(1, rowCount), new Point(1, 2));
+        fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+        activity.setContentView(fixedHeaderTableLayout);
+        return fixedHeaderTableLayout;
+    }
+
+    /**
+     * Drag past the touch slop and hold, the layers stay until the finger is lifted
+     */
+    private static void startDrag(FixedHeaderTableLayout tableLayout) {
+        long downTime = SystemClock.uptimeMillis();
+        float x = tableLayout.getWidth() / 2f;
+        float y = tableLayout.getHeight() / 2f;
+        MotionEvent event = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        tableLayout.dispatchTouchEvent(event);
+        event.recycle();
+        for (int i = 1; i <= 10; i++) {
+            event = MotionEvent.obtain(downTime, downTime + i, MotionEvent.ACTION_MOVE, x - i * 10, y - i * 10, 0);
+            tableLayout.dispatchTouchEvent(event);
+            event.recycle();
+        }
+    }
+
+    private static void endDrag(FixedHeaderTableLayout tableLayout) {
+        long eventTime = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(eventTime, eventTime, MotionEvent.ACTION_CANCEL, 0, 0, 0);
+        tableLayout.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    /**
+     * @return the bytes of the table's layer, 0 if it has no layer
+     */
+    private static long layerBytes(View table) {
+        if (table.getLayerType() != View.LAYER_TYPE_HARDWARE) {
+            return 0;
+        }
+        return (long) table.getWidth() * table.getHeight() * 4;
+    }
+
+    @Test
+    public void testLayersAddedForGesture() {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity, 40, 100));
+
+        // Wait for the table to be laid out and drawn
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableLayout tableLayout = fixedHeaderTableLayout[0];
+                assumeTrue(tableLayout.isHardwareAccelerated());
+                assertEquals(View.LAYER_TYPE_NONE, tableLayout.getMainTable().getLayerType());
+
+                startDrag(tableLayout);
+                // A table this size fits in layers, each the size of its sub table
+                assertFalse(mainTableTiled[0]);
+                for (View table : new View[] {tableLayout.getMainTable(), tableLayout.getColumnHeaderTable(),
+                        tableLayout.getRowHeaderTable(), tableLayout.getCornerTable()}) {
+                    assertEquals(View.LAYER_TYPE_HARDWARE, table.getLayerType());
+                }
+                long expectedBytes = layerBytes(tableLayout.getMainTable())
+                        + layerBytes(tableLayout.getColumnHeaderTable())
+                        + layerBytes(tableLayout.getRowHeaderTable())
+                        + layerBytes(tableLayout.getCornerTable());
+                assertEquals(expectedBytes, layerBytes[0]);
+
+                endDrag(tableLayout);
+                assertEquals(0, layerBytes[0]);
+                for (View table : new View[] {tableLayout.getMainTable(), tableLayout.getColumnHeaderTable(),
+                        tableLayout.getRowHeaderTable(), tableLayout.getCornerTable()}) {
+                    assertEquals(View.LAYER_TYPE_NONE, table.getLayerType());
+                }
+            });
+    }
+
+    @Test
+    public void testTooBigMainTableUsesTiles() {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+
+        // Taller than the largest bitmap the GPU can hold
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity, 2, 2000));
+
+        // Wait for the table to be laid out and drawn
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableLayout tableLayout = fixedHeaderTableLayout[0];
+                assumeTrue(tableLayout.isHardwareAccelerated());
+
+                startDrag(tableLayout);
+                assertTrue(mainTableTiled[0]);
+                assertEquals(View.LAYER_TYPE_NONE, tableLayout.getMainTable().getLayerType());
+                // Only the tables that fit are in layers
+                assertEquals(View.LAYER_TYPE_HARDWARE, tableLayout.getCornerTable().getLayerType());
+                long expectedBytes = layerBytes(tableLayout.getColumnHeaderTable())
+                        + layerBytes(tableLayout.getRowHeaderTable())
+                        + layerBytes(tableLayout.getCornerTable());
+                assertEquals(expectedBytes, layerBytes[0]);
+
+                endDrag(tableLayout);
+                assertEquals(0, layerBytes[0]);
+                assertFalse(mainTableTiled[0]);
+            });
+    }
+}
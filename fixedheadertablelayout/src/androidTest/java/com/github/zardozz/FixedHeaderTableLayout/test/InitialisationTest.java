@@ -26,6 +26,10 @@ package com.github.zardozz.FixedHeaderTableLayout.test;
 
 import com.github.zardozz.FixedHeaderTableLayout.*;
 
+import android.graphics.Point;
+import android.view.View;
+import android.view.ViewGroup;
+
 import androidx.test.core.app.ActivityScenario;
 import androidx.test.ext.junit.rules.ActivityScenarioRule;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
@@ -55,4 +59,43 @@ public class InitialisationTest {
             });
 
     }
+
+    @Test
+    public void sizeTest() {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+
+        activityScenario.onActivity(
+            activity -> {
+                activity.setContentView(R.layout.init_layout);
+                FixedHeaderTableLayout fixedHeaderTableLayout = activity.findViewById(R.id.FixedHeaderTableLayout);
+                assertEquals(40, fixedHeaderTableLayout.getRowHeight());
+                assertEquals(0, fixedHeaderTableLayout.getColumnWidth());
+                assertEquals(0, fixedHeaderTableLayout.getMinColumnWidth());
+                assertEquals(200, fixedHeaderTableLayout.getMaxColumnWidth());
+            });
+    }
+
+    @Test
+    public void declaredSizeTest() {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+                fixedHeaderTableLayout.setRowHeight(50);
+                fixedHeaderTableLayout.setColumnWidth(120);
+                fixedHeaderTableLayout.setColumnWidths(new int[]{80});
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(5,25), new Point(5,2), new Point(1,25), new Point(1,2));
+                fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+
+                TableMetrics tableMetrics = fixedHeaderTableLayout.getTableMetrics();
+                assertEquals(80, tableMetrics.getColumnWidth(0));
+                assertEquals(120, tableMetrics.getColumnWidth(3));
+                assertEquals(50, tableMetrics.getRowHeight(10));
+                // The cells are measured once to the declared size
+                View cell = ((ViewGroup) subTables[0].getChildAt(0)).getChildAt(0);
+                assertEquals(120, cell.getMeasuredWidth());
+                assertEquals(50, cell.getMeasuredHeight());
+            });
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class LoggingTest {
+
+    private static final String LOG_TAG = "FixedHeaderTableLayout";
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    /**
+     * @return the lines this app has logged with the table's tag
+     */
+    private static List<String> readTableLog() throws IOException {
+        Process process = Runtime.getRuntime().exec(new String[] {"logcat", "-d", "-v", "raw", "-s", LOG_TAG + ":V"});
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Skip the "--------- beginning of main" buffer headers
+                if (!line.isEmpty() && !line.startsWith("---------")) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void testPanScaleNotLogged() throws IOException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(40,100), new Point(40,2), new Point(1,100), new Point(1,2));
+                fixedHeaderTableLayout[0].addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        int linesBefore = readTableLog().size();
+
+        activityScenario.onActivity(
+            activity -> {
+                // Drag and pan from code, both go through the pan and scale calculation
+                FixedHeaderTableLayout tableLayout = fixedHeaderTableLayout[0];
+                long downTime = SystemClock.uptimeMillis();
+                float x = tableLayout.getWidth() / 2f;
+                float y = tableLayout.getHeight() / 2f;
+                MotionEvent event = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+                tableLayout.dispatchTouchEvent(event);
+                event.recycle();
+                for (int i = 1; i <= 20; i++) {
+                    event = MotionEvent.obtain(downTime, downTime + i * 10, MotionEvent.ACTION_MOVE, x - i * 10, y - i * 10, 0);
+                    tableLayout.dispatchTouchEvent(event);
+                    event.recycle();
+                }
+                event = MotionEvent.obtain(downTime, downTime + 300, MotionEvent.ACTION_CANCEL, 0, 0, 0);
+                tableLayout.dispatchTouchEvent(event);
+                event.recycle();
+                tableLayout.scrollToCell(50, 20);
+            });
+
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        // The pan and scale logging is compiled out
+        assertEquals(linesBefore, readTableLog().size());
+    }
+}
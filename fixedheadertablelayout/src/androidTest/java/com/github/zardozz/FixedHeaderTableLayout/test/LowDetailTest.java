@@ -0,0 +1,107 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class LowDetailTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    @Test
+    public void testLowDetailDrawing(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        int[] mainRowsDrawn = new int[1];
+        int[] mainCellsDrawn = new int[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                fixedHeaderTableLayout[0].setTableMetricsListener(new TableMetricsListener() {
+                    @Override
+                    public void onSubTableDrawn(int subTable, long drawNanos, int rowsDrawn, int cellsDrawn) {
+                        if (subTable == MAIN_TABLE) {
+                            mainRowsDrawn[0] = rowsDrawn;
+                            mainCellsDrawn[0] = cellsDrawn;
+                        }
+                    }
+                });
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(20,20), new Point(20,2), new Point(1,20), new Point(1,2));
+                fixedHeaderTableLayout[0].addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                assertTrue(mainRowsDrawn[0] > 0);
+                // The table is at scale 1 so this draws it at low detail
+                fixedHeaderTableLayout[0].setLowDetailScale(1.5f);
+            });
+
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        int[] lowDetailCellsDrawn = new int[1];
+        activityScenario.onActivity(
+            activity -> {
+                // Blocks are drawn without drawing any rows
+                assertEquals(0, mainRowsDrawn[0]);
+                assertTrue(mainCellsDrawn[0] > 0);
+                lowDetailCellsDrawn[0] = mainCellsDrawn[0];
+                fixedHeaderTableLayout[0].setSummaryScale(1.25f);
+            });
+
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                // Each summary tile covers many cells
+                assertEquals(0, mainRowsDrawn[0]);
+                assertTrue(mainCellsDrawn[0] > 0);
+                assertTrue(mainCellsDrawn[0] < lowDetailCellsDrawn[0]);
+            });
+    }
+}
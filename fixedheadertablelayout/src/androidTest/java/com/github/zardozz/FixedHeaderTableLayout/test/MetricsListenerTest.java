@@ -0,0 +1,97 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class MetricsListenerTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    @Test
+    public void testMetricsReported(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        long[] tableMeasureCount = new long[1];
+        int[] cornerCellsDrawn = new int[1];
+        boolean[] frameDrawn = new boolean[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+                fixedHeaderTableLayout.setTableMetricsListener(new TableMetricsListener() {
+                    @Override
+                    public void onTableMeasured(long preMeasureNanos, long alignNanos, long fixedMeasureNanos) {
+                        assertTrue(preMeasureNanos > 0);
+                        assertTrue(fixedMeasureNanos > 0);
+                    }
+
+                    @Override
+                    public void onSubTableDrawn(int subTable, long drawNanos, int rowsDrawn, int cellsDrawn) {
+                        if (subTable == CORNER_TABLE) {
+                            cornerCellsDrawn[0] = Math.max(cornerCellsDrawn[0], cellsDrawn);
+                        }
+                    }
+
+                    @Override
+                    public void onFrameDrawn(long drawNanos, long tableMeasures, long cellMeasures, long reusedCellViews) {
+                        frameDrawn[0] = true;
+                        tableMeasureCount[0] = tableMeasures;
+                    }
+                });
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(5,25), new Point(5,2), new Point(1,25), new Point(1,2));
+                fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                activity.setContentView(fixedHeaderTableLayout);
+            });
+
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                assertTrue(frameDrawn[0]);
+                assertEquals(1, tableMeasureCount[0]);
+                // The corner table is 1 x 2 and always fully visible
+                assertEquals(2, cornerCellsDrawn[0]);
+            });
+    }
+}
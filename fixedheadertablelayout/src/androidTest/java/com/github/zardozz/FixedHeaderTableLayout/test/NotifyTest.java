@@ -0,0 +1,256 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.content.Context;
+import android.graphics.Point;
+import android.view.Gravity;
+import android.widget.TextView;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class NotifyTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    // Rows 0 and 1 are the column headers, column 0 is the row header
+    private void createTable(FixedHeaderTableLayout[] tableHolder, FixedHeaderSubTableLayout[][] subTablesHolder){
+        rule.getScenario().onActivity(
+            activity -> {
+                FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(5,5), new Point(5,2), new Point(1,5), new Point(1,2));
+                fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                activity.setContentView(fixedHeaderTableLayout);
+                tableHolder[0] = fixedHeaderTableLayout;
+                subTablesHolder[0] = subTables;
+            });
+
+        onView(withText("D1:1")).check(matches(isDisplayed()));
+    }
+
+    private static TextView createCell(Context context, String text){
+        TextView textView = new TextView(context);
+        textView.setGravity(Gravity.CENTER);
+        textView.setText(text);
+        textView.setPadding(5 ,5,5,5);
+        textView.setTextSize(30.0f);
+        return textView;
+    }
+
+    @Test
+    public void testCellChanged(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] tableHolder = new FixedHeaderTableLayout[1];
+        FixedHeaderSubTableLayout[][] subTablesHolder = new FixedHeaderSubTableLayout[1][];
+        int[] oldSizes = new int[4];
+
+        createTable(tableHolder, subTablesHolder);
+
+        activityScenario.onActivity(
+            activity -> {
+                TableMetrics tableMetrics = tableHolder[0].getTableMetrics();
+                FixedHeaderSubTableLayout[] subTables = subTablesHolder[0];
+                oldSizes[0] = tableMetrics.getColumnWidth(1);
+                oldSizes[1] = tableMetrics.getRowHeight(2);
+                oldSizes[2] = subTables[1].getMeasuredWidth();
+                oldSizes[3] = subTables[2].getMeasuredHeight();
+
+                TextView cell = (TextView) ((FixedHeaderTableRow) subTables[0].getChildAt(0)).getChildAt(0);
+                cell.setText("D1:1 is much wider\nand higher");
+                tableHolder[0].notifyCellChanged(2, 1);
+                // The metrics change straight away
+                assertTrue(tableMetrics.getColumnWidth(1) > oldSizes[0]);
+                assertTrue(tableMetrics.getRowHeight(2) > oldSizes[1]);
+            });
+
+        onView(withText("D1:1 is much wider\nand higher")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderSubTableLayout[] subTables = subTablesHolder[0];
+                // The headers line up with the bigger cell
+                assertTrue(subTables[1].getMeasuredWidth() > oldSizes[2]);
+                assertTrue(subTables[2].getMeasuredHeight() > oldSizes[3]);
+
+                TextView cell = (TextView) ((FixedHeaderTableRow) subTables[0].getChildAt(0)).getChildAt(0);
+                cell.setText("D1:1");
+                tableHolder[0].notifyCellChanged(2, 1);
+                TableMetrics tableMetrics = tableHolder[0].getTableMetrics();
+                assertEquals(oldSizes[0], tableMetrics.getColumnWidth(1));
+                assertEquals(oldSizes[1], tableMetrics.getRowHeight(2));
+            });
+
+        onView(withText("D1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderSubTableLayout[] subTables = subTablesHolder[0];
+                assertEquals(oldSizes[2], subTables[1].getMeasuredWidth());
+                assertEquals(oldSizes[3], subTables[2].getMeasuredHeight());
+            });
+    }
+
+    @Test
+    public void testRowInsertedAndRemoved(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] tableHolder = new FixedHeaderTableLayout[1];
+        FixedHeaderSubTableLayout[][] subTablesHolder = new FixedHeaderSubTableLayout[1][];
+        int[] oldSizes = new int[3];
+
+        createTable(tableHolder, subTablesHolder);
+
+        activityScenario.onActivity(
+            activity -> {
+                Context context = activity.getApplicationContext();
+                TableMetrics tableMetrics = tableHolder[0].getTableMetrics();
+                FixedHeaderSubTableLayout[] subTables = subTablesHolder[0];
+                oldSizes[0] = tableMetrics.getColumnWidth(1);
+                oldSizes[1] = subTables[1].getMeasuredWidth();
+                oldSizes[2] = subTables[2].getMeasuredHeight();
+                assertEquals(7, tableMetrics.getRowCount());
+
+                // New first row of the main table
+                FixedHeaderTableRow mainRow = new FixedHeaderTableRow(context);
+                mainRow.addView(createCell(context, "E1:1 is much wider"));
+                for (int i = 2; i <= 5; i++) {
+                    mainRow.addView(createCell(context, "E" + i + ":1"));
+                }
+                subTables[0].addView(mainRow, 0);
+                FixedHeaderTableRow rowHeaderRow = new FixedHeaderTableRow(context);
+                rowHeaderRow.addView(createCell(context, "F1:1"));
+                subTables[2].addView(rowHeaderRow, 0);
+                tableHolder[0].notifyRowInserted(2);
+
+                assertEquals(8, tableMetrics.getRowCount());
+                assertTrue(tableMetrics.getColumnWidth(1) > oldSizes[0]);
+            });
+
+        onView(withText("E1:1 is much wider")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderSubTableLayout[] subTables = subTablesHolder[0];
+                assertTrue(subTables[1].getMeasuredWidth() > oldSizes[1]);
+                assertTrue(subTables[2].getMeasuredHeight() > oldSizes[2]);
+
+                subTables[0].removeViewAt(0);
+                subTables[2].removeViewAt(0);
+                tableHolder[0].notifyRowRemoved(2);
+
+                TableMetrics tableMetrics = tableHolder[0].getTableMetrics();
+                assertEquals(7, tableMetrics.getRowCount());
+                assertEquals(oldSizes[0], tableMetrics.getColumnWidth(1));
+            });
+
+        onView(withText("D1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderSubTableLayout[] subTables = subTablesHolder[0];
+                assertEquals(oldSizes[1], subTables[1].getMeasuredWidth());
+                assertEquals(oldSizes[2], subTables[2].getMeasuredHeight());
+            });
+    }
+
+    @Test
+    public void testColumnInsertedAndRemoved(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] tableHolder = new FixedHeaderTableLayout[1];
+        FixedHeaderSubTableLayout[][] subTablesHolder = new FixedHeaderSubTableLayout[1][];
+        int[] oldSizes = new int[3];
+
+        createTable(tableHolder, subTablesHolder);
+
+        activityScenario.onActivity(
+            activity -> {
+                Context context = activity.getApplicationContext();
+                TableMetrics tableMetrics = tableHolder[0].getTableMetrics();
+                FixedHeaderSubTableLayout[] subTables = subTablesHolder[0];
+                oldSizes[0] = tableMetrics.getRowHeight(0);
+                oldSizes[1] = subTables[1].getMeasuredWidth();
+                oldSizes[2] = subTables[3].getMeasuredHeight();
+                assertEquals(6, tableMetrics.getColumnCount());
+
+                // New first column of the main table, with a higher column header
+                ((FixedHeaderTableRow) subTables[1].getChildAt(0)).addView(createCell(context, "G1:1\nis higher"), 0);
+                ((FixedHeaderTableRow) subTables[1].getChildAt(1)).addView(createCell(context, "G2:1"), 0);
+                for (int i = 0; i < 5; i++) {
+                    ((FixedHeaderTableRow) subTables[0].getChildAt(i)).addView(createCell(context, "H" + (i + 1) + ":1"), 0);
+                }
+                tableHolder[0].notifyColumnInserted(1);
+
+                assertEquals(7, tableMetrics.getColumnCount());
+                assertTrue(tableMetrics.getRowHeight(0) > oldSizes[0]);
+            });
+
+        onView(withText("G1:1\nis higher")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderSubTableLayout[] subTables = subTablesHolder[0];
+                assertTrue(subTables[1].getMeasuredWidth() > oldSizes[1]);
+                // The corner lines up with the higher column header
+                assertTrue(subTables[3].getMeasuredHeight() > oldSizes[2]);
+
+                ((FixedHeaderTableRow) subTables[1].getChildAt(0)).removeViewAt(0);
+                ((FixedHeaderTableRow) subTables[1].getChildAt(1)).removeViewAt(0);
+                for (int i = 0; i < 5; i++) {
+                    ((FixedHeaderTableRow) subTables[0].getChildAt(i)).removeViewAt(0);
+                }
+                tableHolder[0].notifyColumnRemoved(1);
+
+                TableMetrics tableMetrics = tableHolder[0].getTableMetrics();
+                assertEquals(6, tableMetrics.getColumnCount());
+                assertEquals(oldSizes[0], tableMetrics.getRowHeight(0));
+            });
+
+        onView(withText("D1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderSubTableLayout[] subTables = subTablesHolder[0];
+                assertEquals(oldSizes[1], subTables[1].getMeasuredWidth());
+                assertEquals(oldSizes[2], subTables[3].getMeasuredHeight());
+            });
+    }
+}
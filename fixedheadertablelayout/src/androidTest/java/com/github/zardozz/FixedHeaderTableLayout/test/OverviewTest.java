@@ -0,0 +1,151 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.content.Context;
+import android.graphics.Point;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.doesNotExist;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class OverviewTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    // Table above a 200px high overview
+    private static View createLayout(Context context, FixedHeaderTableLayout table, FixedHeaderTableOverview overview){
+        overview.setTable(table);
+        LinearLayout linearLayout = new LinearLayout(context);
+        linearLayout.setOrientation(LinearLayout.VERTICAL);
+        linearLayout.addView(table, new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, 0, 1));
+        linearLayout.addView(overview, new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, 200));
+        return linearLayout;
+    }
+
+    private static void tap(View view, float x, float y){
+        long now = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, x, y, 0);
+        MotionEvent up = MotionEvent.obtain(now, now + 50, MotionEvent.ACTION_UP, x, y, 0);
+        view.dispatchTouchEvent(down);
+        view.dispatchTouchEvent(up);
+        down.recycle();
+        up.recycle();
+    }
+
+    @Test
+    public void testOverviewMovesVisibleAreaWithAdapter(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        AdapterTest.CountingAdapter adapter = new AdapterTest.CountingAdapter(1000, 5);
+        FixedHeaderTableOverview[] overview = new FixedHeaderTableOverview[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+                fixedHeaderTableLayout.setAdapter(adapter);
+                overview[0] = new FixedHeaderTableOverview(activity.getApplicationContext());
+                activity.setContentView(createLayout(activity.getApplicationContext(), fixedHeaderTableLayout, overview[0]));
+            });
+
+        onView(withText("R1:C1")).check(matches(isDisplayed()));
+
+        // The table is much taller than it is wide so the snapshot fills the overview's height,
+        // touching the bottom of it moves to the last rows
+        activityScenario.onActivity(
+            activity -> tap(overview[0], 1, overview[0].getHeight() - 1));
+
+        onView(withText("R999:C1")).check(matches(isDisplayed()));
+        onView(withText("R1:C1")).check(doesNotExist());
+    }
+
+    @Test
+    public void testOverviewMovesVisibleAreaWithAddViews(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        FixedHeaderTableOverview[] overview = new FixedHeaderTableOverview[1];
+        boolean[] lastRowClicked = new boolean[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(5,100), new Point(5,2), new Point(1,100), new Point(1,2));
+
+                // The last row reports taps on its cells
+                FixedHeaderTableRow lastRow = (FixedHeaderTableRow) subTables[0].getChildAt(99);
+                lastRow.removeAllViews();
+                lastRow.setDrawnCells(new CharSequence[]{"L1", "L2", "L3", "L4", "L5"}, new DrawnCellStyle(activity.getApplicationContext()));
+                lastRow.setOnDrawnCellClickListener((row, index) -> lastRowClicked[0] = true);
+
+                fixedHeaderTableLayout[0].addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                overview[0] = new FixedHeaderTableOverview(activity.getApplicationContext());
+                activity.setContentView(createLayout(activity.getApplicationContext(), fixedHeaderTableLayout[0], overview[0]));
+            });
+
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        float[] bottomLeftCell = new float[2];
+        activityScenario.onActivity(
+            activity -> {
+                // The first main table cell of the bottom of the visible area
+                TableMetrics tableMetrics = fixedHeaderTableLayout[0].getTableMetrics();
+                bottomLeftCell[0] = tableMetrics.getColumnWidth(0) + tableMetrics.getColumnWidth(1) / 2f;
+                bottomLeftCell[1] = fixedHeaderTableLayout[0].getHeight() - 2;
+                tap(fixedHeaderTableLayout[0], bottomLeftCell[0], bottomLeftCell[1]);
+                assertFalse(lastRowClicked[0]);
+
+                tap(overview[0], 1, overview[0].getHeight() - 1);
+            });
+
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                // The last row is now at the bottom of the visible area
+                tap(fixedHeaderTableLayout[0], bottomLeftCell[0], bottomLeftCell[1]);
+                assertTrue(lastRowClicked[0]);
+            });
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class PanScaleDrawTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    // Rows and cells each Sub Table drew and a latch released by the next frame, reset before each step
+    private final int[] rowsDrawn = new int[4];
+    private final int[] cellsDrawn = new int[4];
+    private final CountDownLatch[] frameDrawn = new CountDownLatch[1];
+
+    private FixedHeaderTableLayout createTable(TestActivity activity) {
+        FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+        fixedHeaderTableLayout.setTableMetricsListener(new TableMetricsListener() {
+            @Override
+            public void onSubTableDrawn(int subTable, long drawNanos, int rows, int cells) {
+                rowsDrawn[subTable] += rows;
+                cellsDrawn[subTable] += cells;
+            }
+
+            @Override
+            public void onFrameDrawn(long drawNanos, long tableMeasures, long cellMeasures, long reusedCellViews) {
+                frameDrawn[0].countDown();
+            }
+        });
+        FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(40,40), new Point(40,2), new Point(1,40), new Point(1,2));
+        fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+        return fixedHeaderTableLayout;
+    }
+
+    private void resetDrawn() {
+        Arrays.fill(rowsDrawn, 0);
+        Arrays.fill(cellsDrawn, 0);
+        frameDrawn[0] = new CountDownLatch(1);
+    }
+
+    @Test
+    public void testOnlyPanThatMovesRedraws() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        resetDrawn();
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = createTable(activity);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                resetDrawn();
+                // Already at the top left so this pan is clamped and nothing moves
+                fixedHeaderTableLayout[0].calculatePanScale(-100, -100, 0, 0, 1f);
+                assertFalse(fixedHeaderTableLayout[0].isDirty());
+
+                fixedHeaderTableLayout[0].calculatePanScale(100, 0, 0, 0, 1f);
+                assertTrue(fixedHeaderTableLayout[0].isDirty());
+            });
+
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                // New columns came in to view in the main table
+                assertTrue(cellsDrawn[TableMetricsListener.MAIN_TABLE] > 0);
+                // A horizontal pan does not move the row header or corner so they are not drawn again
+                assertEquals(0, rowsDrawn[TableMetricsListener.ROW_HEADER_TABLE]);
+                assertEquals(0, cellsDrawn[TableMetricsListener.ROW_HEADER_TABLE]);
+                assertEquals(0, rowsDrawn[TableMetricsListener.CORNER_TABLE]);
+                assertEquals(0, cellsDrawn[TableMetricsListener.CORNER_TABLE]);
+            });
+    }
+
+    @Test
+    public void testScaleOnlyScrollRedraws() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        resetDrawn();
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = createTable(activity);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                resetDrawn();
+                // The first main table cell is already at the top left so only the scale changes
+                fixedHeaderTableLayout[0].smoothScrollToCell(2, 1, 1.5f, 100);
+            });
+
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+    }
+}
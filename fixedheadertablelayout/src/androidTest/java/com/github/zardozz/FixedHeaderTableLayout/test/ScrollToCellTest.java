@@ -0,0 +1,161 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class ScrollToCellTest {
+
+    // Whole table numbering, one row header column and two column header rows
+    private static final int COLUMN_COUNT = 16;
+    private static final int ROW_COUNT = 102;
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    private FlingTest.ScrollOffsetTableLayout createTable(TestActivity activity) {
+        FlingTest.ScrollOffsetTableLayout fixedHeaderTableLayout = new FlingTest.ScrollOffsetTableLayout(activity.getApplicationContext());
+        FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(15,100), new Point(15,2), new Point(1,100), new Point(1,2));
+        fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+        activity.setContentView(fixedHeaderTableLayout);
+        return fixedHeaderTableLayout;
+    }
+
+    private static int expectedOffsetX(FlingTest.ScrollOffsetTableLayout tableLayout, int column) {
+        TableMetrics tableMetrics = tableLayout.getTableMetrics();
+        int x = tableMetrics.getColumnOffset(column) - tableMetrics.getColumnOffset(1);
+        return Math.min(x, tableLayout.getMaxScrollOffsetX());
+    }
+
+    private static int expectedOffsetY(FlingTest.ScrollOffsetTableLayout tableLayout, int row) {
+        TableMetrics tableMetrics = tableLayout.getTableMetrics();
+        int y = tableMetrics.getRowOffset(row) - tableMetrics.getRowOffset(2);
+        return Math.min(y, tableLayout.getMaxScrollOffsetY());
+    }
+
+    @Test
+    public void testScrollToCell() {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FlingTest.ScrollOffsetTableLayout[] fixedHeaderTableLayout = new FlingTest.ScrollOffsetTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity));
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FlingTest.ScrollOffsetTableLayout tableLayout = fixedHeaderTableLayout[0];
+                tableLayout.scrollToCell(30, 5);
+                assertEquals(expectedOffsetX(tableLayout, 5), tableLayout.getScrollOffsetX(), 1);
+                assertEquals(expectedOffsetY(tableLayout, 30), tableLayout.getScrollOffsetY(), 1);
+
+                // Back to the first cell of the main table
+                tableLayout.scrollToCell(2, 1);
+                assertEquals(0, tableLayout.getScrollOffsetX());
+                assertEquals(0, tableLayout.getScrollOffsetY());
+            });
+    }
+
+    @Test
+    public void testScrollToLastCellIsClamped() {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FlingTest.ScrollOffsetTableLayout[] fixedHeaderTableLayout = new FlingTest.ScrollOffsetTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity));
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FlingTest.ScrollOffsetTableLayout tableLayout = fixedHeaderTableLayout[0];
+                tableLayout.scrollToCell(ROW_COUNT - 1, COLUMN_COUNT - 1);
+                TableMetrics tableMetrics = tableLayout.getTableMetrics();
+                // The last cell can't be at the top left, the table stops at its edges
+                assertTrue(tableLayout.getMaxScrollOffsetY() < tableMetrics.getRowOffset(ROW_COUNT - 1) - tableMetrics.getRowOffset(2));
+                assertEquals(tableLayout.getMaxScrollOffsetX(), tableLayout.getScrollOffsetX(), 1);
+                assertEquals(tableLayout.getMaxScrollOffsetY(), tableLayout.getScrollOffsetY(), 1);
+            });
+    }
+
+    @Test
+    public void testHeaderCellPansOtherDirection() {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FlingTest.ScrollOffsetTableLayout[] fixedHeaderTableLayout = new FlingTest.ScrollOffsetTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity));
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FlingTest.ScrollOffsetTableLayout tableLayout = fixedHeaderTableLayout[0];
+                tableLayout.scrollToCell(30, 5);
+                int offsetX = tableLayout.getScrollOffsetX();
+                int offsetY = tableLayout.getScrollOffsetY();
+                assertTrue(offsetY > 0);
+
+                // A column header cell only pans horizontally
+                tableLayout.scrollToCell(0, 8);
+                assertEquals(expectedOffsetX(tableLayout, 8), tableLayout.getScrollOffsetX(), 1);
+                assertEquals(offsetY, tableLayout.getScrollOffsetY());
+
+                // A row header cell only pans vertically
+                offsetX = tableLayout.getScrollOffsetX();
+                tableLayout.scrollToCell(60, 0);
+                assertEquals(offsetX, tableLayout.getScrollOffsetX());
+                assertEquals(expectedOffsetY(tableLayout, 60), tableLayout.getScrollOffsetY(), 1);
+
+                // The corner cell does not pan at all
+                offsetY = tableLayout.getScrollOffsetY();
+                tableLayout.scrollToCell(0, 0);
+                assertEquals(offsetX, tableLayout.getScrollOffsetX());
+                assertEquals(offsetY, tableLayout.getScrollOffsetY());
+            });
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class SpanTest {
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    @Test
+    public void testSpannedCells(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        FixedHeaderSubTableLayout[][] subTables = new FixedHeaderSubTableLayout[1][];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                subTables[0] = Helpers.createSubTables(activity.getApplicationContext(), new Point(5,5), new Point(5,2), new Point(1,5), new Point(1,2));
+
+                // The first header cell spans three columns instead of having three cells
+                ViewGroup headerRow = (ViewGroup) subTables[0][1].getChildAt(0);
+                headerRow.removeViews(1, 2);
+                TextView headerCell = (TextView) headerRow.getChildAt(0);
+                headerCell.setText("A header much wider than the three columns below it");
+                headerCell.setLayoutParams(new FixedHeaderTableRow.LayoutParams(3, 1));
+
+                // The first main table cell spans two rows so the second row has no cell in that column
+                ((ViewGroup) subTables[0][0].getChildAt(0)).getChildAt(0).setLayoutParams(new FixedHeaderTableRow.LayoutParams(1, 2));
+                ((ViewGroup) subTables[0][0].getChildAt(1)).removeViewAt(0);
+
+                fixedHeaderTableLayout[0].addViews(subTables[0][0], subTables[0][1], subTables[0][2], subTables[0][3]);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                TableMetrics tableMetrics = fixedHeaderTableLayout[0].getTableMetrics();
+                // The row header column is first so the header cell covers columns 1 to 3
+                assertEquals(6, tableMetrics.getColumnCount());
+                View headerCell = ((ViewGroup) subTables[0][1].getChildAt(0)).getChildAt(0);
+                int spannedWidth = tableMetrics.getColumnOffset(4) - tableMetrics.getColumnOffset(1);
+                assertEquals(spannedWidth, headerCell.getWidth());
+                assertTrue(spannedWidth > tableMetrics.getColumnWidth(4));
+                // The next header cell starts after the spanned columns
+                View nextHeaderCell = ((ViewGroup) subTables[0][1].getChildAt(0)).getChildAt(1);
+                assertEquals(spannedWidth, nextHeaderCell.getLeft());
+                assertEquals(4, ((FixedHeaderTableRow.LayoutParams) nextHeaderCell.getLayoutParams()).getColumn());
+
+                // The cell spanning rows is as high as both rows and the cell below moves along a column
+                View rowSpanCell = ((ViewGroup) subTables[0][0].getChildAt(0)).getChildAt(0);
+                assertEquals(tableMetrics.getRowHeight(2) + tableMetrics.getRowHeight(3), rowSpanCell.getHeight());
+                View movedCell = ((ViewGroup) subTables[0][0].getChildAt(1)).getChildAt(0);
+                assertEquals(2, ((FixedHeaderTableRow.LayoutParams) movedCell.getLayoutParams()).getColumn());
+                assertEquals(tableMetrics.getColumnWidth(1), movedCell.getLeft());
+            });
+    }
+
+    @Test
+    public void testSparseRow(){
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        FixedHeaderTableRow[] sparseRow = new FixedHeaderTableRow[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = new FixedHeaderTableLayout(activity.getApplicationContext());
+                FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(), new Point(5,5), new Point(5,2), new Point(1,5), new Point(1,2));
+
+                // Only the fourth cell of the third row is not empty
+                sparseRow[0] = (FixedHeaderTableRow) subTables[0].getChildAt(2);
+                sparseRow[0].removeAllViews();
+                TextView cell = new TextView(activity.getApplicationContext());
+                cell.setText("Sparse");
+                sparseRow[0].addCell(cell, 3);
+
+                fixedHeaderTableLayout[0].addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+                activity.setContentView(fixedHeaderTableLayout[0]);
+            });
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                TableMetrics tableMetrics = fixedHeaderTableLayout[0].getTableMetrics();
+                assertEquals(6, tableMetrics.getColumnCount());
+                assertEquals(1, sparseRow[0].getChildCount());
+                View cell = sparseRow[0].getChildAt(0);
+                assertEquals(4, ((FixedHeaderTableRow.LayoutParams) cell.getLayoutParams()).getColumn());
+                assertEquals(tableMetrics.getColumnOffset(4) - tableMetrics.getColumnOffset(1), cell.getLeft());
+                assertEquals(tableMetrics.getColumnWidth(4), cell.getWidth());
+            });
+    }
+}
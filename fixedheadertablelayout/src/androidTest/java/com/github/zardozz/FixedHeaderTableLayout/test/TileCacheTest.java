@@ -0,0 +1,228 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Color;
+import android.graphics.Point;
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class TileCacheTest {
+
+    private static final int ROW_COUNT = 40;
+    private static final int TILE_BYTES = 256 * 256 * 4;
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    // Drawing a tile draws every row of the main table, so the rows drawn in a frame are
+    // ROW_COUNT for each tile drawn and 0 when every tile came from the cache
+    private final int[] rowsDrawn = new int[1];
+    private final int[] frameRowsDrawn = new int[1];
+    private final CountDownLatch[] frameDrawn = new CountDownLatch[] {new CountDownLatch(1)};
+
+    private FixedHeaderTableLayout createTable(TestActivity activity) {
+        FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+        fixedHeaderTableLayout.setTiledDrawing(true);
+        fixedHeaderTableLayout.setTableMetricsListener(new TableMetricsListener() {
+            @Override
+            public void onSubTableDrawn(int subTable, long drawNanos, int rows, int cells) {
+                if (subTable == MAIN_TABLE) {
+                    rowsDrawn[0] = rows;
+                }
+            }
+
+            @Override
+            public void onFrameDrawn(long drawNanos, long tableMeasures, long cellMeasures, long reusedCellViews) {
+                // Only keep the first frame after the counts were reset
+                if (frameDrawn[0].getCount() > 0) {
+                    frameRowsDrawn[0] = rowsDrawn[0];
+                    frameDrawn[0].countDown();
+                }
+            }
+        });
+        FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(),
+                new Point(40, ROW_COUNT), new Point(40, 2), new Point(1, ROW_COUNT), new Point(1, 2));
+        fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+        activity.setContentView(fixedHeaderTableLayout);
+        return fixedHeaderTableLayout;
+    }
+
+    private void resetDrawn() {
+        rowsDrawn[0] = 0;
+        frameRowsDrawn[0] = 0;
+        frameDrawn[0] = new CountDownLatch(1);
+    }
+
+    /**
+     * Drag past the touch slop and hold, the main table is drawn from tiles until the finger is lifted
+     */
+    private static void startDrag(FixedHeaderTableLayout tableLayout) {
+        long downTime = SystemClock.uptimeMillis();
+        float x = tableLayout.getWidth() / 2f;
+        float y = tableLayout.getHeight() / 2f;
+        MotionEvent event = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        tableLayout.dispatchTouchEvent(event);
+        event.recycle();
+        for (int i = 1; i <= 10; i++) {
+            event = MotionEvent.obtain(downTime, downTime + i, MotionEvent.ACTION_MOVE, x - i * 10, y - i * 10, 0);
+            tableLayout.dispatchTouchEvent(event);
+            event.recycle();
+        }
+    }
+
+    private static void endDrag(FixedHeaderTableLayout tableLayout) {
+        long eventTime = SystemClock.uptimeMillis();
+        MotionEvent event = MotionEvent.obtain(eventTime, eventTime, MotionEvent.ACTION_CANCEL, 0, 0, 0);
+        tableLayout.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    @Test
+    public void testTilesReusedUntilCellChanges() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        int[] tilesDrawn = new int[1];
+
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity));
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                resetDrawn();
+                startDrag(fixedHeaderTableLayout[0]);
+            });
+
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                // The visible tiles are drawn the first time
+                assertTrue(frameRowsDrawn[0] > 0);
+                assertEquals(0, frameRowsDrawn[0] % ROW_COUNT);
+                tilesDrawn[0] = frameRowsDrawn[0] / ROW_COUNT;
+
+                resetDrawn();
+                fixedHeaderTableLayout[0].invalidate();
+            });
+
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                // Nothing changed so every tile comes from the cache
+                assertEquals(0, frameRowsDrawn[0]);
+
+                // Older versions don't report which cell changed
+                assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O);
+                // Only the tiles showing the first main table cell are drawn again
+                assumeTrue(tilesDrawn[0] > 1);
+                resetDrawn();
+                ViewGroup firstRow = (ViewGroup) fixedHeaderTableLayout[0].getMainTable().getChildAt(0);
+                ((TextView) firstRow.getChildAt(0)).setTextColor(Color.RED);
+            });
+
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                assertTrue(frameRowsDrawn[0] > 0);
+                assertTrue(frameRowsDrawn[0] / ROW_COUNT < tilesDrawn[0]);
+                endDrag(fixedHeaderTableLayout[0]);
+            });
+    }
+
+    @Test
+    public void testTilesEvictedWhenCacheFull() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+        int[] firstRowsDrawn = new int[1];
+
+        activityScenario.onActivity(
+            activity -> {
+                fixedHeaderTableLayout[0] = createTable(activity);
+                // Room for one tile
+                fixedHeaderTableLayout[0].setTileCacheSize(TILE_BYTES);
+            });
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                resetDrawn();
+                startDrag(fixedHeaderTableLayout[0]);
+            });
+
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                firstRowsDrawn[0] = frameRowsDrawn[0];
+                // More than one tile is visible so they can't all be kept
+                assumeTrue(firstRowsDrawn[0] > ROW_COUNT);
+
+                resetDrawn();
+                fixedHeaderTableLayout[0].invalidate();
+            });
+
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                // Each tile pushed out the one before so every tile is drawn again
+                assertEquals(firstRowsDrawn[0], frameRowsDrawn[0]);
+                endDrag(fixedHeaderTableLayout[0]);
+            });
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout.test;
+
+import com.github.zardozz.FixedHeaderTableLayout.*;
+
+import android.graphics.Point;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.assertion.ViewAssertions.matches;
+import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static androidx.test.espresso.matcher.ViewMatchers.withText;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class ViewportTest {
+
+    private static final int ROW_COUNT = 100;
+    private static final int COLUMN_COUNT = 40;
+
+    @Rule
+    public ActivityScenarioRule<TestActivity> rule = new ActivityScenarioRule<>(TestActivity.class);
+
+    // Most rows and cells the main table drew in one frame and a latch released by the next frame
+    private final int[] rowsDrawn = new int[1];
+    private final int[] cellsDrawn = new int[1];
+    private final CountDownLatch[] frameDrawn = new CountDownLatch[] {new CountDownLatch(1)};
+
+    private FixedHeaderTableLayout createTable(TestActivity activity) {
+        FixedHeaderTableLayout fixedHeaderTableLayout = new FixedHeaderTableLayout(activity.getApplicationContext());
+        fixedHeaderTableLayout.setTableMetricsListener(new TableMetricsListener() {
+            @Override
+            public void onSubTableDrawn(int subTable, long drawNanos, int rows, int cells) {
+                if (subTable == MAIN_TABLE) {
+                    rowsDrawn[0] = Math.max(rowsDrawn[0], rows);
+                    cellsDrawn[0] = Math.max(cellsDrawn[0], cells);
+                }
+            }
+
+            @Override
+            public void onFrameDrawn(long drawNanos, long tableMeasures, long cellMeasures, long reusedCellViews) {
+                frameDrawn[0].countDown();
+            }
+        });
+        FixedHeaderSubTableLayout[] subTables = Helpers.createSubTables(activity.getApplicationContext(),
+                new Point(COLUMN_COUNT, ROW_COUNT), new Point(COLUMN_COUNT, 2), new Point(1, ROW_COUNT), new Point(1, 2));
+        fixedHeaderTableLayout.addViews(subTables[0], subTables[1], subTables[2], subTables[3]);
+        activity.setContentView(fixedHeaderTableLayout);
+        return fixedHeaderTableLayout;
+    }
+
+    private void resetDrawn() {
+        rowsDrawn[0] = 0;
+        cellsDrawn[0] = 0;
+        frameDrawn[0] = new CountDownLatch(1);
+    }
+
+    @Test
+    public void testOnlyVisibleCellsDrawn() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity));
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                // Rows and cells off the screen are quick rejected
+                assertTrue(rowsDrawn[0] > 0);
+                assertTrue(rowsDrawn[0] < ROW_COUNT);
+                assertTrue(cellsDrawn[0] < rowsDrawn[0] * COLUMN_COUNT);
+
+                resetDrawn();
+                // The last main table cell is at the bottom right once panned as far as the table allows
+                fixedHeaderTableLayout[0].scrollToCell(ROW_COUNT + 1, COLUMN_COUNT);
+            });
+
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                // The newly visible part of the table is drawn instead
+                assertTrue(cellsDrawn[0] > 0);
+                assertTrue(rowsDrawn[0] < ROW_COUNT);
+                assertTrue(cellsDrawn[0] < rowsDrawn[0] * COLUMN_COUNT);
+            });
+    }
+
+    @Test
+    public void testPanWithinSameCellsDrawsNothing() throws InterruptedException {
+        ActivityScenario<TestActivity> activityScenario = rule.getScenario();
+        FixedHeaderTableLayout[] fixedHeaderTableLayout = new FixedHeaderTableLayout[1];
+
+        activityScenario.onActivity(
+            activity -> fixedHeaderTableLayout[0] = createTable(activity));
+
+        // Wait for the table to be laid out
+        onView(withText("A1:1")).check(matches(isDisplayed()));
+
+        activityScenario.onActivity(
+            activity -> {
+                FixedHeaderTableLayout tableLayout = fixedHeaderTableLayout[0];
+                // Only hardware accelerated tables keep what they drew last time
+                assumeTrue(tableLayout.isHardwareAccelerated());
+
+                // Pan less than the distance to the next column at both edges of the visible part of the main table
+                TableMetrics tableMetrics = tableLayout.getTableMetrics();
+                int mainTableLeft = tableMetrics.getColumnOffset(1);
+                int visibleRight = tableLayout.getWidth() - mainTableLeft;
+                int toNextColumn = tableMetrics.getColumnWidth(1);
+                for (int column = 2; column <= COLUMN_COUNT; column++) {
+                    int columnLeft = tableMetrics.getColumnOffset(column) - mainTableLeft;
+                    if (columnLeft > visibleRight) {
+                        toNextColumn = Math.min(toNextColumn, columnLeft - visibleRight);
+                        break;
+                    }
+                }
+                float distance = toNextColumn / 2f;
+                assumeTrue(distance >= 1);
+
+                resetDrawn();
+                tableLayout.calculatePanScale(distance, 0, 0, 0, 1f);
+            });
+
+        assertTrue(frameDrawn[0].await(5, TimeUnit.SECONDS));
+
+        activityScenario.onActivity(
+            activity -> {
+                // The same rows and cells are visible so the main table's drawing is reused
+                assertEquals(0, rowsDrawn[0]);
+                assertEquals(0, cellsDrawn[0]);
+            });
+    }
+}
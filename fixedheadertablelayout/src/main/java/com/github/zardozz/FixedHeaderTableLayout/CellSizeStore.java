@@ -0,0 +1,196 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import java.util.Arrays;
+
+/**
+ * The natural (UNSPECIFIED) size of every cell of a table
+ *
+ * Used to work out a column's width or a row's height again when a cell gets smaller
+ * without measuring the other cells in the column or row.
+ * Each size is packed in to one int with the width in the top 16 bits and the height in the bottom 16 bits.
+ * Rows and columns are stored with space to spare so inserting or removing one only moves the cells after it.
+ */
+final class CellSizeStore {
+
+    private static final int MAX_SIZE = 0xFFFF;
+
+    private int columnCount = 0;
+    private int rowCount = 0;
+    // Row major with stride ints per row, at least columnCount, and room for sizes.length / stride rows
+    private int[] sizes = new int[0];
+    private int stride = 0;
+    // A size was too big to store so the stored sizes are not exact
+    private boolean clamped = false;
+
+    void reset(int columnCount, int rowCount) {
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+        stride = columnCount;
+        sizes = new int[columnCount * rowCount];
+        clamped = false;
+    }
+
+    int getColumnCount() {
+        return columnCount;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Cells written from different threads must be in different rows
+     */
+    void set(int row, int column, int width, int height) {
+        if (width > MAX_SIZE || height > MAX_SIZE) {
+            clamped = true;
+        }
+        sizes[index(row, column)] = (Math.min(width, MAX_SIZE) << 16) | Math.min(height, MAX_SIZE);
+    }
+
+    int getWidth(int row, int column) {
+        return sizes[index(row, column)] >>> 16;
+    }
+
+    int getHeight(int row, int column) {
+        return sizes[index(row, column)] & MAX_SIZE;
+    }
+
+    /**
+     * @return the width of the widest cell in the column
+     */
+    int getMaxWidth(int column) {
+        int maxWidth = 0;
+        for (int row = 0; row < rowCount; row++) {
+            maxWidth = Math.max(maxWidth, getWidth(row, column));
+        }
+        return maxWidth;
+    }
+
+    /**
+     * @return the height of the highest cell in the row
+     */
+    int getMaxHeight(int row) {
+        int maxHeight = 0;
+        for (int column = 0; column < columnCount; column++) {
+            maxHeight = Math.max(maxHeight, getHeight(row, column));
+        }
+        return maxHeight;
+    }
+
+    /**
+     * Take the width of the widest cell in each column over a range of rows
+     * Different ranges can be read from different threads at the same time
+     * @param firstRow the first row, inclusive
+     * @param lastRow the last row, exclusive
+     * @param maxWidths updated with the widest cell of each column, at least getColumnCount long
+     */
+    void getMaxWidths(int firstRow, int lastRow, int[] maxWidths) {
+        for (int row = firstRow; row < lastRow; row++) {
+            int offset = row * stride;
+            for (int column = 0; column < columnCount; column++) {
+                maxWidths[column] = Math.max(maxWidths[column], sizes[offset + column] >>> 16);
+            }
+        }
+    }
+
+    /**
+     * @return true if a size was too big to store so was stored as the biggest size instead
+     */
+    boolean isClamped() {
+        return clamped;
+    }
+
+    /**
+     * Insert a row of empty cells
+     */
+    void insertRow(int row) {
+        checkIndex(row, rowCount + 1);
+        if ((rowCount + 1) * stride > sizes.length) {
+            sizes = Arrays.copyOf(sizes, Math.max(4, rowCount * 2) * stride);
+        }
+        System.arraycopy(sizes, row * stride, sizes, (row + 1) * stride, (rowCount - row) * stride);
+        Arrays.fill(sizes, row * stride, (row + 1) * stride, 0);
+        rowCount++;
+    }
+
+    void removeRow(int row) {
+        checkIndex(row, rowCount);
+        System.arraycopy(sizes, (row + 1) * stride, sizes, row * stride, (rowCount - row - 1) * stride);
+        rowCount--;
+    }
+
+    /**
+     * Insert a column of empty cells
+     */
+    void insertColumn(int column) {
+        checkIndex(column, columnCount + 1);
+        if (columnCount == stride) {
+            setStride(Math.max(4, columnCount * 2));
+        }
+        for (int row = 0; row < rowCount; row++) {
+            int offset = row * stride + column;
+            System.arraycopy(sizes, offset, sizes, offset + 1, columnCount - column);
+            sizes[offset] = 0;
+        }
+        columnCount++;
+    }
+
+    void removeColumn(int column) {
+        checkIndex(column, columnCount);
+        for (int row = 0; row < rowCount; row++) {
+            int offset = row * stride + column;
+            System.arraycopy(sizes, offset + 1, sizes, offset, columnCount - column - 1);
+        }
+        columnCount--;
+    }
+
+    /**
+     * Copy the cells to rows with more space, only done when a column no longer fits
+     */
+    private void setStride(int newStride) {
+        int rowCapacity = Math.max(4, rowCount * 2);
+        int[] newSizes = new int[rowCapacity * newStride];
+        for (int row = 0; row < rowCount; row++) {
+            System.arraycopy(sizes, row * stride, newSizes, row * newStride, columnCount);
+        }
+        sizes = newSizes;
+        stride = newStride;
+    }
+
+    private int index(int row, int column) {
+        checkIndex(row, rowCount);
+        checkIndex(column, columnCount);
+        return row * stride + column;
+    }
+
+    private static void checkIndex(int index, int count) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Count: " + count);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.widget.TextView;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the text of an adapter's cells on worker threads
+ *
+ * The text is measured with the same TextPaint, padding and line spacing as the TextView
+ * of each view type so no Views are needed, and the rows are split in to chunks that are
+ * measured in parallel. The column widths, row heights and size of every cell are delivered on the main thread.
+ */
+final class CellTextMeasurer {
+
+    interface Callback {
+        void onCellsMeasured(int[] columnWidths, int[] rowHeights, CellSizeStore cellSizes);
+    }
+
+    /**
+     * The parts of a TextView that change its measured size
+     */
+    static final class TextStyle {
+        final TextPaint paint;
+        final int horizontalPadding;
+        final int verticalPadding;
+        final float spacingMultiplier;
+        final float spacingAdd;
+        final boolean includeFontPadding;
+        final int minimumWidth;
+        final int minimumHeight;
+
+        TextStyle(TextView textView) {
+            paint = new TextPaint(textView.getPaint());
+            horizontalPadding = textView.getCompoundPaddingLeft() + textView.getCompoundPaddingRight();
+            verticalPadding = textView.getCompoundPaddingTop() + textView.getCompoundPaddingBottom();
+            spacingMultiplier = textView.getLineSpacingMultiplier();
+            spacingAdd = textView.getLineSpacingExtra();
+            includeFontPadding = textView.getIncludeFontPadding();
+            minimumWidth = textView.getMinimumWidth();
+            minimumHeight = textView.getMinimumHeight();
+        }
+    }
+
+    // Chunks per thread so that slow chunks are balanced out
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static ExecutorService defaultExecutor;
+
+    private final FixedHeaderTableAdapter adapter;
+    private final TextStyle[] textStyles;
+    private final ExecutorService executor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param adapter the adapter, getCellViewType and getCellText are called on worker threads
+     * @param textStyles the text style of each view type
+     * @param executor the executor to measure on
+     */
+    CellTextMeasurer(FixedHeaderTableAdapter adapter, TextStyle[] textStyles, ExecutorService executor) {
+        this.adapter = adapter;
+        this.textStyles = textStyles;
+        this.executor = executor;
+    }
+
+    /**
+     * @return a shared pool with a thread for each processor
+     */
+    static synchronized ExecutorService getDefaultExecutor() {
+        if (defaultExecutor == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "FixedHeaderTableLayout-measure-" + threadCount.incrementAndGet());
+                // Don't keep the process alive just for these threads
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            };
+            defaultExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory);
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Start measuring, the callback is not called if cancel is called first
+     * Must be called on the main thread
+     * @param callback receives the column widths and row heights on the main thread
+     */
+    void start(final Callback callback) {
+        final int rowCount = adapter.getRowCount();
+        final int columnCount = adapter.getColumnCount();
+        final int[] columnWidths = new int[columnCount];
+        final int[] rowHeights = new int[rowCount];
+        // Each chunk writes different rows
+        final CellSizeStore cellSizes = new CellSizeStore();
+        cellSizes.reset(columnCount, rowCount);
+
+        if (rowCount == 0) {
+            deliver(callback, columnWidths, rowHeights, cellSizes);
+            return;
+        }
+
+        int chunkCount = Math.min(rowCount, Runtime.getRuntime().availableProcessors() * CHUNKS_PER_THREAD);
+        final int rowsPerChunk = (rowCount + chunkCount - 1) / chunkCount;
+        chunkCount = (rowCount + rowsPerChunk - 1) / rowsPerChunk;
+        // The last chunk to finish delivers the results
+        final AtomicInteger remainingChunks = new AtomicInteger(chunkCount);
+
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            final int firstRow = chunk * rowsPerChunk;
+            final int lastRow = Math.min(rowCount, firstRow + rowsPerChunk);
+            executor.execute(() -> {
+                int[] chunkColumnWidths = measureRows(firstRow, lastRow, columnCount, rowHeights, cellSizes);
+                if (chunkColumnWidths == null) {
+                    return;
+                }
+                // Merge this chunk's max widths in to the overall max widths
+                synchronized (columnWidths) {
+                    for (int column = 0; column < columnCount; column++) {
+                        columnWidths[column] = Math.max(columnWidths[column], chunkColumnWidths[column]);
+                    }
+                }
+                if (remainingChunks.decrementAndGet() == 0) {
+                    deliver(callback, columnWidths, rowHeights, cellSizes);
+                }
+            });
+        }
+    }
+
+    /**
+     * Stop measuring and don't deliver the results
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    private void deliver(final Callback callback, final int[] columnWidths, final int[] rowHeights,
+                         final CellSizeStore cellSizes) {
+        mainHandler.post(() -> {
+            if (!cancelled) {
+                callback.onCellsMeasured(columnWidths, rowHeights, cellSizes);
+            }
+        });
+    }
+
+    /**
+     * Measure a chunk of rows, each row's height is written directly as rows are not shared between chunks
+     * @return the max width of each column in these rows or null if cancelled
+     */
+    private int[] measureRows(int firstRow, int lastRow, int columnCount, int[] rowHeights, CellSizeStore cellSizes) {
+        // TextPaint is not thread safe so each chunk uses its own copies
+        TextPaint[] paints = new TextPaint[textStyles.length];
+        int[] chunkColumnWidths = new int[columnCount];
+        for (int row = firstRow; row < lastRow; row++) {
+            if (cancelled) {
+                return null;
+            }
+            int rowHeight = 0;
+            for (int column = 0; column < columnCount; column++) {
+                int viewType = adapter.getCellViewType(row, column);
+                TextStyle textStyle = textStyles[viewType];
+                if (paints[viewType] == null) {
+                    paints[viewType] = new TextPaint(textStyle.paint);
+                }
+                CharSequence text = adapter.getCellText(row, column);
+                if (text == null) {
+                    text = "";
+                }
+
+                // Unspecified width so the text is as wide as its longest line
+                int textWidth = (int) Math.ceil(Layout.getDesiredWidth(text, paints[viewType]));
+                Layout layout = createLayout(text, paints[viewType], textWidth, textStyle);
+                int width = Math.max(textWidth + textStyle.horizontalPadding, textStyle.minimumWidth);
+                int height = Math.max(layout.getHeight() + textStyle.verticalPadding, textStyle.minimumHeight);
+
+                cellSizes.set(row, column, width, height);
+                chunkColumnWidths[column] = Math.max(chunkColumnWidths[column], width);
+                rowHeight = Math.max(rowHeight, height);
+            }
+            rowHeights[row] = rowHeight;
+        }
+        return chunkColumnWidths;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Layout createLayout(CharSequence text, TextPaint paint, int width, TextStyle textStyle) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return StaticLayout.Builder.obtain(text, 0, text.length(), paint, width)
+                    .setLineSpacing(textStyle.spacingAdd, textStyle.spacingMultiplier)
+                    .setIncludePad(textStyle.includeFontPadding)
+                    .build();
+        }
+        return new StaticLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL,
+                textStyle.spacingMultiplier, textStyle.spacingAdd, textStyle.includeFontPadding);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+
+/**
+ * Holds cell Views that are no longer shown so they can be re-bound to other cells
+ * of the same view type
+ */
+final class CellViewPool {
+
+    private final SparseArray<ArrayList<View>> mScrapViews = new SparseArray<>();
+    // Total Views reused instead of being created
+    private long reusedCount = 0;
+
+    /**
+     * Get a recycled View for the view type or create a new one with the adapter
+     */
+    View obtain(FixedHeaderTableAdapter adapter, ViewGroup parent, int viewType) {
+        ArrayList<View> scrap = mScrapViews.get(viewType);
+        if (scrap != null && !scrap.isEmpty()) {
+            reusedCount++;
+            return scrap.remove(scrap.size() - 1);
+        }
+        View view = adapter.createCellView(parent, viewType);
+        view.setTag(R.id.CellViewType, viewType);
+        return view;
+    }
+
+    /**
+     * Return a View that has been removed from its parent to the pool
+     */
+    void recycle(View view) {
+        Object viewType = view.getTag(R.id.CellViewType);
+        if (!(viewType instanceof Integer)) {
+            return;
+        }
+        ArrayList<View> scrap = mScrapViews.get((Integer) viewType);
+        if (scrap == null) {
+            scrap = new ArrayList<>();
+            mScrapViews.put((Integer) viewType, scrap);
+        }
+        scrap.add(view);
+    }
+
+    void clear() {
+        mScrapViews.clear();
+    }
+
+    long getReusedCount() {
+        return reusedCount;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Works out the width of every column from the stored cell sizes, splitting the rows
+ * between threads for big tables
+ *
+ * Each thread takes the max of its own chunk of rows and the chunks are merged at the end,
+ * as max doesn't depend on the order this gives exactly the same widths as one thread.
+ * The calling thread runs any chunk no thread has started yet itself, so it never waits behind
+ * other work queued on the executor.
+ */
+final class ColumnWidthReducer {
+
+    // Smaller tables are done on the calling thread as starting the threads costs more than it saves
+    static final int PARALLEL_CELL_COUNT = 100000;
+    // Fewest cells worth giving to another thread
+    private static final int MIN_CHUNK_CELL_COUNT = 25000;
+
+    private ColumnWidthReducer() {
+    }
+
+    /**
+     * @return how many chunks to split the table in to
+     */
+    static int getChunkCount(CellSizeStore cellSizes, int threadCount) {
+        long cellCount = (long) cellSizes.getColumnCount() * cellSizes.getRowCount();
+        if (cellCount < PARALLEL_CELL_COUNT) {
+            return 1;
+        }
+        return (int) Math.max(1, Math.min(Math.min(threadCount, cellCount / MIN_CHUNK_CELL_COUNT), cellSizes.getRowCount()));
+    }
+
+    /**
+     * @param cellSizes the natural size of every cell
+     * @param executor helps with the chunks other than the first, or null to do it all on the calling thread
+     * @param chunkCount the number of chunks to split the rows in to
+     * @return the width of the widest cell in each column
+     */
+    static int[] getMaxColumnWidths(CellSizeStore cellSizes, @Nullable ExecutorService executor, int chunkCount) {
+        final int rowCount = cellSizes.getRowCount();
+        final int columnCount = cellSizes.getColumnCount();
+        final int[] maxWidths = new int[columnCount];
+        if (executor == null || chunkCount <= 1) {
+            cellSizes.getMaxWidths(0, rowCount, maxWidths);
+            return maxWidths;
+        }
+
+        final int chunkRowCount = (rowCount + chunkCount - 1) / chunkCount;
+        ArrayList<FutureTask<int[]>> chunks = new ArrayList<>(chunkCount - 1);
+        for (int firstRow = chunkRowCount; firstRow < rowCount; firstRow += chunkRowCount) {
+            final int chunkFirstRow = firstRow;
+            final int chunkLastRow = Math.min(rowCount, firstRow + chunkRowCount);
+            FutureTask<int[]> chunk = new FutureTask<>(() -> {
+                int[] chunkWidths = new int[columnCount];
+                cellSizes.getMaxWidths(chunkFirstRow, chunkLastRow, chunkWidths);
+                return chunkWidths;
+            });
+            chunks.add(chunk);
+            executor.execute(chunk);
+        }
+
+        // Do the first chunk while the others start
+        cellSizes.getMaxWidths(0, Math.min(rowCount, chunkRowCount), maxWidths);
+        try {
+            for (FutureTask<int[]> chunk : chunks) {
+                // Does nothing if a thread has already started the chunk, then only waits for that thread
+                chunk.run();
+                int[] chunkWidths = chunk.get();
+                for (int column = 0; column < columnCount; column++) {
+                    maxWidths[column] = Math.max(maxWidths[column], chunkWidths[column]);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Don't wait any longer, finish the rest on this thread instead
+            Thread.currentThread().interrupt();
+            for (Future<int[]> chunk : chunks) {
+                chunk.cancel(false);
+            }
+            cellSizes.getMaxWidths(chunkRowCount, rowCount, maxWidths);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return maxWidths;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.TextPaint;
+
+import androidx.annotation.Nullable;
+
+/**
+ * How the cells of rows set with FixedHeaderTableRow.setDrawnCells are drawn
+ * The text, background and border are drawn directly on the row's Canvas so no View is needed for each cell.
+ * One style is normally shared by many rows, change it before the rows are measured.
+ */
+public final class DrawnCellStyle {
+
+    final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    final Paint backgroundPaint = new Paint();
+    final Paint borderPaint = new Paint();
+    private final float scaledDensity;
+    Layout.Alignment alignment = Layout.Alignment.ALIGN_CENTER;
+    int paddingLeft = 0;
+    int paddingTop = 0;
+    int paddingRight = 0;
+    int paddingBottom = 0;
+    int backgroundColor = Color.TRANSPARENT;
+    int selectedBackgroundColor = Color.LTGRAY;
+    float borderWidth = 0;
+
+    /**
+     * @param context used to convert the text size from sp
+     */
+    public DrawnCellStyle(Context context) {
+        scaledDensity = context.getResources().getDisplayMetrics().scaledDensity;
+        textPaint.setColor(Color.BLACK);
+        textPaint.setTextSize(14 * scaledDensity);
+        backgroundPaint.setStyle(Paint.Style.FILL);
+        borderPaint.setStyle(Paint.Style.STROKE);
+    }
+
+    /**
+     * @param size the text size in sp as with TextView.setTextSize
+     * @return this style
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public DrawnCellStyle setTextSize(float size) {
+        textPaint.setTextSize(size * scaledDensity);
+        return this;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public DrawnCellStyle setTextColor(int color) {
+        textPaint.setColor(color);
+        return this;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public DrawnCellStyle setTypeface(@Nullable Typeface typeface) {
+        textPaint.setTypeface(typeface);
+        return this;
+    }
+
+    /**
+     * @param alignment the alignment of the text within the cell's width, the text is always centred vertically
+     * @return this style
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public DrawnCellStyle setAlignment(Layout.Alignment alignment) {
+        this.alignment = alignment;
+        return this;
+    }
+
+    /**
+     * Padding in pixels between the edge of the cell and its text
+     * @return this style
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public DrawnCellStyle setPadding(int left, int top, int right, int bottom) {
+        paddingLeft = left;
+        paddingTop = top;
+        paddingRight = right;
+        paddingBottom = bottom;
+        return this;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public DrawnCellStyle setBackgroundColor(int color) {
+        backgroundColor = color;
+        return this;
+    }
+
+    /**
+     * @param color the background of the cells set with FixedHeaderTableRow.setDrawnCellSelected
+     * @return this style
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public DrawnCellStyle setSelectedBackgroundColor(int color) {
+        selectedBackgroundColor = color;
+        return this;
+    }
+
+    /**
+     * @param color the color of the line around each cell
+     * @param width the width of the line in pixels, 0 for no line
+     * @return this style
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public DrawnCellStyle setBorder(int color, float width) {
+        borderPaint.setColor(color);
+        borderPaint.setStrokeWidth(width);
+        borderWidth = width;
+        return this;
+    }
+
+    /**
+     * @param layoutCache the table's cache of Layouts or null to not cache the Layout
+     * @return the Layout of the text laid out in the width
+     */
+    Layout getLayout(@Nullable TextLayoutCache layoutCache, CharSequence text, int width) {
+        if (layoutCache == null) {
+            return TextLayoutCache.createLayout(text, textPaint, Math.max(1, width), alignment);
+        }
+        return layoutCache.getLayout(text, textPaint, Math.max(1, width), alignment);
+    }
+}
@@ -25,19 +25,48 @@
 package com.github.zardozz.FixedHeaderTableLayout;
 
 import android.content.Context;
+import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.RectF;
 import android.os.Build;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.widget.LinearLayout;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 
+import java.util.Arrays;
+
 public class FixedHeaderSubTableLayout extends LinearLayout {
 
+    // Aligned sizes, this table's first cell is in firstRow and firstColumn
+    private TableMetrics tableMetrics;
+    private int firstRow = 0;
+    private int firstColumn = 0;
+
+    // Visible area in this table's coordinates, only the rows and cells inside it are drawn
+    private final RectF viewport = new RectF();
+    private boolean clipToViewport = false;
+    // Rows drawn last time, start inclusive and end exclusive
+    private int drawnFirstRow = -1;
+    private int drawnLastRow = -1;
+    // Rows and cells drawn since the counts were last reset
+    private int drawnRowCount = 0;
+    private int drawnCellCount = 0;
+
+    // Working space to place the cells of each row, the row after the last row each column is covered
+    // by a cell spanning rows from above and the column and spans of each cell in the current row
+    private int[] rowSpanEnds = new int[0];
+    private int[] cellColumns = new int[0];
+    private int[] cellColumnSpans = new int[0];
+    private int[] cellRowSpans = new int[0];
+    private boolean hasRowSpans = false;
+
     private static final String LOG_TAG = FixedHeaderSubTableLayout.class.getSimpleName();
 
     public FixedHeaderSubTableLayout(Context context) {
@@ -98,6 +127,244 @@ public class FixedHeaderSubTableLayout extends LinearLayout {
         }
     }
 
+    /**
+     * Set the shared column widths and row heights to measure the rows to
+     * @param tableMetrics the aligned sizes
+     * @param firstRow the row in tableMetrics of this table's first row
+     * @param firstColumn the column in tableMetrics of this table's first column
+     */
+    public void setTableMetrics(@Nullable TableMetrics tableMetrics, int firstRow, int firstColumn) {
+        this.tableMetrics = tableMetrics;
+        this.firstRow = firstRow;
+        this.firstColumn = firstColumn;
+        requestLayout();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public TableMetrics getTableMetrics() {
+        return tableMetrics;
+    }
+
+    int getFirstRow() {
+        return firstRow;
+    }
+
+    int getFirstColumn() {
+        return firstColumn;
+    }
+
+    /**
+     * Only draw the rows and cells that intersect the viewport
+     * As a drawn table is kept and redrawn as a whole when hardware accelerated, the table and rows
+     * are only invalidated when a different set of rows or cells becomes visible
+     * @param viewport the visible area in this table's coordinates or null to draw everything
+     */
+    void setViewport(@Nullable RectF viewport) {
+        if (viewport == null) {
+            if (clipToViewport) {
+                clipToViewport = false;
+                invalidateRows(0, getChildCount());
+            }
+            return;
+        }
+        this.viewport.set(viewport);
+        clipToViewport = true;
+
+        int firstRow = Utils.findFirstChildEndingAfter(this, viewport.top, true);
+        int lastRow = Utils.findFirstChildStartingFrom(this, viewport.bottom, true);
+        if (firstRow != drawnFirstRow || lastRow != drawnLastRow) {
+            invalidate();
+        }
+        // Rows drawn with other visible cells need drawing again
+        for (int i = firstRow; i < lastRow; i++) {
+            ((FixedHeaderTableRow) getChildAt(i)).updateViewport(viewport);
+        }
+    }
+
+    /**
+     * @return the visible area in this table's coordinates or null if everything is drawn
+     */
+    @Nullable
+    RectF getViewport() {
+        return clipToViewport ? viewport : null;
+    }
+
+    /**
+     * Draw every row and cell whatever the viewport, used to draw the table in to a Bitmap
+     * @param canvas the canvas to draw on
+     */
+    void drawUnclipped(Canvas canvas) {
+        boolean clip = clipToViewport;
+        clipToViewport = false;
+        try {
+            draw(canvas);
+        } finally {
+            clipToViewport = clip;
+        }
+    }
+
+    private void invalidateRows(int firstRow, int lastRow) {
+        for (int i = firstRow; i < lastRow; i++) {
+            getChildAt(i).invalidate();
+        }
+        invalidate();
+    }
+
+    /**
+     * Make all rows measure again after a column width has changed
+     */
+    void forceLayoutRows() {
+        final int count = getChildCount();
+        for (int i = 0; i < count; i++) {
+            getChildAt(i).forceLayout();
+        }
+        requestLayout();
+    }
+
+    /**
+     * Work out the column of each cell in every row in one pass down the table
+     * A cell starts in the first column after the previous cell's columns, or its own column if later,
+     * that is not covered by a cell spanning rows from above
+     * @return the number of columns in the widest row
+     */
+    int updateCellColumns() {
+        final int rowCount = getChildCount();
+        int maxColumnCount = 0;
+        boolean tableRowSpans = false;
+        Arrays.fill(rowSpanEnds, 0);
+        for (int row = 0; row < rowCount; row++) {
+            FixedHeaderTableRow tableRow = (FixedHeaderTableRow) getChildAt(row);
+            if (tableRow.isDrawn()) {
+                // Drawn cells are one to a column
+                tableRow.setCellSpans(null, cellColumnSpans, cellRowSpans, 0, row);
+                maxColumnCount = Math.max(maxColumnCount, tableRow.getDrawnCellCount());
+                continue;
+            }
+            final int cellCount = tableRow.getChildCount();
+            if (cellColumns.length < cellCount) {
+                cellColumns = new int[cellCount];
+                cellColumnSpans = new int[cellCount];
+                cellRowSpans = new int[cellCount];
+            }
+            boolean rowSpans = false;
+            int column = 0;
+            for (int i = 0; i < cellCount; i++) {
+                int columnSpan = 1;
+                int rowSpan = 1;
+                ViewGroup.LayoutParams layoutParams = tableRow.getChildAt(i).getLayoutParams();
+                if (layoutParams instanceof FixedHeaderTableRow.LayoutParams) {
+                    FixedHeaderTableRow.LayoutParams cellLayoutParams = (FixedHeaderTableRow.LayoutParams) layoutParams;
+                    // Skip the empty cells of a sparse row
+                    column = Math.max(column, cellLayoutParams.getCellColumn());
+                    columnSpan = cellLayoutParams.getColumnSpan();
+                    // A cell can't span past the last row
+                    rowSpan = Math.min(cellLayoutParams.getRowSpan(), rowCount - row);
+                }
+                while (column < rowSpanEnds.length && rowSpanEnds[column] > row) {
+                    column++;
+                }
+                if (rowSpan > 1) {
+                    if (rowSpanEnds.length < column + columnSpan) {
+                        rowSpanEnds = Arrays.copyOf(rowSpanEnds, Math.max(column + columnSpan, rowSpanEnds.length * 2));
+                    }
+                    Arrays.fill(rowSpanEnds, column, column + columnSpan, row + rowSpan);
+                    tableRowSpans = true;
+                }
+                rowSpans |= column != i || columnSpan > 1 || rowSpan > 1;
+                cellColumns[i] = column;
+                cellColumnSpans[i] = columnSpan;
+                cellRowSpans[i] = rowSpan;
+                column += columnSpan;
+            }
+            tableRow.setCellSpans(rowSpans ? cellColumns : null, cellColumnSpans, cellRowSpans, cellCount, row);
+            maxColumnCount = Math.max(maxColumnCount, column);
+        }
+        if (tableRowSpans != hasRowSpans) {
+            // Cells spanning rows draw over the rows below
+            hasRowSpans = tableRowSpans;
+            setClipChildren(!tableRowSpans);
+        }
+        return maxColumnCount;
+    }
+
+    void resetDrawnCounts() {
+        drawnRowCount = 0;
+        drawnCellCount = 0;
+    }
+
+    int getDrawnRowCount() {
+        return drawnRowCount;
+    }
+
+    int getDrawnCellCount() {
+        return drawnCellCount;
+    }
+
+    /**
+     * Called by a row after drawing its cells
+     * @param count the number of cells the row drew
+     */
+    void addDrawnCells(int count) {
+        drawnCellCount += count;
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (clipToViewport) {
+            drawnFirstRow = Utils.findFirstChildEndingAfter(this, viewport.top, true);
+            drawnLastRow = Utils.findFirstChildStartingFrom(this, viewport.bottom, true);
+            drawnRowCount += drawnLastRow - drawnFirstRow;
+        } else {
+            drawnRowCount += getChildCount();
+        }
+        super.dispatchDraw(canvas);
+    }
+
+    /**
+     * Invalidate the whole table, the parent Layout is told the area is this table's so it pans and scales it
+     */
+    @Override
+    public void invalidate() {
+        ViewParent parent = getParent();
+        if (!(parent instanceof FixedHeaderTableLayout)) {
+            super.invalidate();
+            return;
+        }
+        FixedHeaderTableLayout tableLayout = (FixedHeaderTableLayout) parent;
+        tableLayout.setInvalidatingSubTable(this);
+        try {
+            super.invalidate();
+        } finally {
+            tableLayout.setInvalidatingSubTable(null);
+        }
+    }
+
+    /**
+     * Pass an invalidated row area up, the parent Layout is told the area is this table's so it pans and scales it
+     */
+    @SuppressWarnings("deprecation")
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        ViewParent parent = super.invalidateChildInParent(location, dirty);
+        if (parent instanceof FixedHeaderTableLayout) {
+            ((FixedHeaderTableLayout) parent).setInvalidatingSubTable(this);
+        }
+        return parent;
+    }
+
+    /**
+     * Quick reject the rows outside the viewport
+     */
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        int bottom = child.getBottom() + ((FixedHeaderTableRow) child).getRowSpanOverhang();
+        if (clipToViewport && (bottom <= viewport.top || child.getTop() >= viewport.bottom)) {
+            return false;
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
+
     /**
      * Measure the Table
      * The Table is always measure at (UNSPECIFIED) so the full table is drawn
@@ -110,6 +377,18 @@ public class FixedHeaderSubTableLayout extends LinearLayout {
         // Log.d(LOG_TAG, "onMeasure: " + Integer.toHexString(System.identityHashCode(this)) );
         // Always measure the tables to full size so pan and Scale works
         int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+        updateCellColumns();
+        if (tableMetrics != null) {
+            // Give each row its aligned size
+            final int count = getChildCount();
+            for (int i = 0; i < count; i++) {
+                FixedHeaderTableRow tableRow = (FixedHeaderTableRow) getChildAt(i);
+                tableRow.setTableMetrics(tableMetrics, firstColumn);
+                if (firstRow + i < tableMetrics.getRowCount()) {
+                    tableRow.setMaxChildHeight(tableMetrics.getRowHeight(firstRow + i));
+                }
+            }
+        }
         super.onMeasure(measureSpec, measureSpec);
     }
 }
@@ -0,0 +1,259 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.database.DataSetObservable;
+import android.database.DataSetObserver;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Supplies the cells of a FixedHeaderTableLayout on demand instead of building all four
+ * FixedHeaderSubTableLayouts up front.
+ *
+ * Rows and columns are numbered across the whole table, the first getFixedRowCount() rows
+ * are the column headers and the first getFixedColumnCount() columns are the row headers,
+ * so cell (0,0) is in the corner table.
+ * Only the cells near the visible part of the table are kept as Views, the rest are recycled
+ * by view type and re-bound when they scroll back into view.
+ */
+public abstract class FixedHeaderTableAdapter {
+
+    /**
+     * A DataSetObserver that is also told which cells, rows or columns have changed
+     * Anything not overridden falls back to onChanged
+     */
+    public abstract static class TableDataObserver extends DataSetObserver {
+
+        public void onCellChanged(int row, int column) {
+            onChanged();
+        }
+
+        public void onRowInserted(int row) {
+            onChanged();
+        }
+
+        public void onRowRemoved(int row) {
+            onChanged();
+        }
+
+        public void onColumnInserted(int column) {
+            onChanged();
+        }
+
+        public void onColumnRemoved(int column) {
+            onChanged();
+        }
+    }
+
+    private static final class TableDataObservable extends DataSetObservable {
+
+        private static final int CELL_CHANGED = 0;
+        private static final int ROW_INSERTED = 1;
+        private static final int ROW_REMOVED = 2;
+        private static final int COLUMN_INSERTED = 3;
+        private static final int COLUMN_REMOVED = 4;
+
+        void notify(int change, int row, int column) {
+            synchronized (mObservers) {
+                // Backwards in case an observer unregisters itself
+                for (int i = mObservers.size() - 1; i >= 0; i--) {
+                    DataSetObserver observer = mObservers.get(i);
+                    if (!(observer instanceof TableDataObserver)) {
+                        observer.onChanged();
+                        continue;
+                    }
+                    TableDataObserver tableDataObserver = (TableDataObserver) observer;
+                    switch (change) {
+                        case CELL_CHANGED:
+                            tableDataObserver.onCellChanged(row, column);
+                            break;
+                        case ROW_INSERTED:
+                            tableDataObserver.onRowInserted(row);
+                            break;
+                        case ROW_REMOVED:
+                            tableDataObserver.onRowRemoved(row);
+                            break;
+                        case COLUMN_INSERTED:
+                            tableDataObserver.onColumnInserted(column);
+                            break;
+                        case COLUMN_REMOVED:
+                            tableDataObserver.onColumnRemoved(column);
+                            break;
+                    }
+                }
+            }
+        }
+    }
+
+    private final TableDataObservable mDataSetObservable = new TableDataObservable();
+    // Set when the default getCellText is called, so there is no text to measure the cells with
+    private volatile boolean mCellTextMissing = false;
+
+    /**
+     * @return the total number of rows including the fixed header rows
+     */
+    public abstract int getRowCount();
+
+    /**
+     * @return the total number of columns including the fixed header columns
+     */
+    public abstract int getColumnCount();
+
+    /**
+     * As with addViews at least one fixed row is required
+     * @return the number of rows at the top that are fixed as column headers
+     */
+    public int getFixedRowCount() {
+        return 1;
+    }
+
+    /**
+     * As with addViews at least one fixed column is required
+     * @return the number of columns at the left that are fixed as row headers
+     */
+    public int getFixedColumnCount() {
+        return 1;
+    }
+
+    /**
+     * Views are only re-used for cells with the same view type
+     * @param row the row of the cell
+     * @param column the column of the cell
+     * @return the view type of the cell, defaults to 0
+     */
+    public int getCellViewType(int row, int column) {
+        return 0;
+    }
+
+    /**
+     * View types must be in the range 0 to getViewTypeCount() - 1
+     * @return the number of different view types, defaults to 1
+     */
+    public int getViewTypeCount() {
+        return 1;
+    }
+
+    /**
+     * The text of a cell, only used when the FixedHeaderTableLayout measures cells in the background
+     * where it is called on worker threads along with getCellViewType, so must not touch any Views.
+     * The text is measured as it would be by the TextView created for the cell's view type.
+     * If cell (0,0) gets its text from this default implementation the cells are measured as Views instead.
+     * @param row the row of the cell
+     * @param column the column of the cell
+     * @return the text the cell will show, null is measured as empty text
+     */
+    public CharSequence getCellText(int row, int column) {
+        mCellTextMissing = true;
+        return null;
+    }
+
+    /**
+     * @return false if getCellText is not implemented, found by getting the text of the first cell
+     */
+    boolean hasCellText() {
+        if (getRowCount() == 0 || getColumnCount() == 0) {
+            return true;
+        }
+        mCellTextMissing = false;
+        getCellText(0, 0);
+        return !mCellTextMissing;
+    }
+
+    /**
+     * Create a new View for a cell, the contents are set later in bindCell
+     * @param parent the ViewGroup the View will be added to
+     * @param viewType the view type from getCellViewType
+     * @return a new View
+     */
+    public abstract View createCellView(ViewGroup parent, int viewType);
+
+    /**
+     * Set the contents of a cell View, the View may have previously shown another cell
+     * @param row the row of the cell
+     * @param column the column of the cell
+     * @param view a View of the type returned by getCellViewType for this cell
+     */
+    public abstract void bindCell(int row, int column, View view);
+
+    public void registerDataSetObserver(DataSetObserver observer) {
+        mDataSetObservable.registerObserver(observer);
+    }
+
+    public void unregisterDataSetObserver(DataSetObserver observer) {
+        mDataSetObservable.unregisterObserver(observer);
+    }
+
+    /**
+     * Remeasure and rebind all cells after the data has changed
+     */
+    public void notifyDataSetChanged() {
+        mDataSetObservable.notifyChanged();
+    }
+
+    /**
+     * Remeasure and rebind one cell after its contents have changed
+     * Only the cell's column and row are resized instead of the whole table
+     * @param row the row of the cell
+     * @param column the column of the cell
+     */
+    public void notifyCellChanged(int row, int column) {
+        mDataSetObservable.notify(TableDataObservable.CELL_CHANGED, row, column);
+    }
+
+    /**
+     * A row has been added, getRowCount must already include it and so must getFixedRowCount for a header row
+     * A row inserted at getFixedRowCount() is the first row of the main table
+     * @param row the row the new row is at
+     */
+    public void notifyRowInserted(int row) {
+        mDataSetObservable.notify(TableDataObservable.ROW_INSERTED, row, 0);
+    }
+
+    /**
+     * A row has been removed, getRowCount must already not include it nor getFixedRowCount for a header row
+     * @param row the row the removed row was at
+     */
+    public void notifyRowRemoved(int row) {
+        mDataSetObservable.notify(TableDataObservable.ROW_REMOVED, row, 0);
+    }
+
+    /**
+     * A column has been added, getColumnCount must already include it and so must getFixedColumnCount for a header column
+     * A column inserted at getFixedColumnCount() is the first column of the main table
+     * @param column the column the new column is at
+     */
+    public void notifyColumnInserted(int column) {
+        mDataSetObservable.notify(TableDataObservable.COLUMN_INSERTED, 0, column);
+    }
+
+    /**
+     * A column has been removed, getColumnCount must already not include it nor getFixedColumnCount for a header column
+     * @param column the column the removed column was at
+     */
+    public void notifyColumnRemoved(int column) {
+        mDataSetObservable.notify(TableDataObservable.COLUMN_REMOVED, 0, column);
+    }
+}
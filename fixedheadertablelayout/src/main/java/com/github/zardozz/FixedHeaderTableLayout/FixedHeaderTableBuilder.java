@@ -0,0 +1,334 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds the data of a text table on any thread and shows it in a FixedHeaderTableLayout
+ * without measuring on the main thread.
+ *
+ * Rows are added with addRow and setCell from any thread. build takes an immutable snapshot of
+ * the rows, measures the text of every cell on worker threads and then attaches the measured
+ * snapshot to the table on the main thread in one go. Only the cells near the visible part of
+ * the table are created as Views, as with a FixedHeaderTableAdapter.
+ * Cancel the returned BuildTask if the table goes away before it is shown, e.g. in Activity.onDestroy
+ */
+public final class FixedHeaderTableBuilder {
+
+    /**
+     * Creates the TextViews that show the cells
+     */
+    public interface CellViewFactory {
+        /**
+         * Called on the main thread, the text is set later
+         * @param parent the ViewGroup the View will be added to
+         * @param viewType the view type of the cell's row or cell
+         * @return a new TextView
+         */
+        TextView createCellView(ViewGroup parent, int viewType);
+    }
+
+    /**
+     * Told on the main thread when the measured rows are shown
+     */
+    public interface OnBuiltListener {
+        void onBuilt(FixedHeaderTableLayout table);
+    }
+
+    /**
+     * A build that is measuring in the background
+     */
+    public static final class BuildTask {
+        private volatile boolean cancelled = false;
+        private CellTextMeasurer cellTextMeasurer;
+
+        /**
+         * Stop measuring and don't show the table, must be called on the main thread
+         */
+        public void cancel() {
+            cancelled = true;
+            if (cellTextMeasurer != null) {
+                cellTextMeasurer.cancel();
+                cellTextMeasurer = null;
+            }
+        }
+
+        @SuppressWarnings({"UnusedDeclaration"})
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final int fixedRowCount;
+    private final int fixedColumnCount;
+    // Text of each row's cells and the view type of each row, with any per cell view types
+    private final ArrayList<CharSequence[]> rows = new ArrayList<>();
+    private final ArrayList<Integer> rowViewTypes = new ArrayList<>();
+    private final ArrayList<int[]> cellViewTypes = new ArrayList<>();
+    private int columnCount = 0;
+    private int viewTypeCount = 1;
+    private OnBuiltListener onBuiltListener;
+
+    /**
+     * As with addViews at least one fixed row and column are required
+     * @param fixedRowCount the number of rows at the top that are fixed as column headers
+     * @param fixedColumnCount the number of columns at the left that are fixed as row headers
+     */
+    public FixedHeaderTableBuilder(int fixedRowCount, int fixedColumnCount) {
+        this.fixedRowCount = fixedRowCount;
+        this.fixedColumnCount = fixedColumnCount;
+    }
+
+    /**
+     * Add a row with view type 0, rows are numbered across the whole table starting with the fixed rows
+     * @param cells the text of each cell starting with the fixed columns
+     * @return this builder
+     */
+    public FixedHeaderTableBuilder addRow(CharSequence... cells) {
+        return addRow(0, cells);
+    }
+
+    /**
+     * @param viewType the view type of every cell in the row
+     * @param cells the text of each cell starting with the fixed columns
+     * @return this builder
+     */
+    public synchronized FixedHeaderTableBuilder addRow(int viewType, CharSequence... cells) {
+        checkViewType(viewType);
+        rows.add(cells.clone());
+        rowViewTypes.add(viewType);
+        cellViewTypes.add(null);
+        columnCount = Math.max(columnCount, cells.length);
+        return this;
+    }
+
+    /**
+     * Set the text and view type of one cell of an added row
+     * @param row the row of the cell
+     * @param column the column of the cell, the row is made longer if needed
+     * @param text the text of the cell
+     * @param viewType the view type of the cell
+     * @return this builder
+     */
+    public synchronized FixedHeaderTableBuilder setCell(int row, int column, @Nullable CharSequence text, int viewType) {
+        checkViewType(viewType);
+        CharSequence[] cells = rows.get(row);
+        if (column >= cells.length) {
+            CharSequence[] longerCells = new CharSequence[column + 1];
+            System.arraycopy(cells, 0, longerCells, 0, cells.length);
+            rows.set(row, cells = longerCells);
+            columnCount = Math.max(columnCount, cells.length);
+        }
+        cells[column] = text;
+        int[] viewTypes = cellViewTypes.get(row);
+        if (viewTypes == null || column >= viewTypes.length) {
+            int[] longerViewTypes = new int[cells.length];
+            int firstNewColumn = 0;
+            if (viewTypes != null) {
+                System.arraycopy(viewTypes, 0, longerViewTypes, 0, viewTypes.length);
+                firstNewColumn = viewTypes.length;
+            }
+            for (int i = firstNewColumn; i < longerViewTypes.length; i++) {
+                longerViewTypes[i] = rowViewTypes.get(row);
+            }
+            cellViewTypes.set(row, viewTypes = longerViewTypes);
+        }
+        viewTypes[column] = viewType;
+        return this;
+    }
+
+    public synchronized int getRowCount() {
+        return rows.size();
+    }
+
+    public synchronized int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @param onBuiltListener told when the table shows the rows or null
+     * @return this builder
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public synchronized FixedHeaderTableBuilder setOnBuiltListener(@Nullable OnBuiltListener onBuiltListener) {
+        this.onBuiltListener = onBuiltListener;
+        return this;
+    }
+
+    private void checkViewType(int viewType) {
+        if (viewType < 0) {
+            throw new IllegalArgumentException("viewType must be 0 or more");
+        }
+        viewTypeCount = Math.max(viewTypeCount, viewType + 1);
+    }
+
+    /**
+     * Measure the rows added so far on the shared measuring threads and show them in the table
+     * Can be called on any thread, later changes to this builder are not shown
+     * @param table the table to show the rows in, its current cells are replaced when the rows are measured
+     * @param cellViewFactory creates the TextView for each view type, its text style is used to measure the cells
+     * @return the task to cancel the build with
+     */
+    public BuildTask build(FixedHeaderTableLayout table, CellViewFactory cellViewFactory) {
+        return build(table, cellViewFactory, CellTextMeasurer.getDefaultExecutor());
+    }
+
+    /**
+     * @see #build(FixedHeaderTableLayout, CellViewFactory)
+     * @param executor the executor to measure on
+     */
+    public BuildTask build(final FixedHeaderTableLayout table, final CellViewFactory cellViewFactory, final ExecutorService executor) {
+        final SnapshotAdapter snapshot = takeSnapshot(cellViewFactory);
+        final OnBuiltListener listener;
+        synchronized (this) {
+            listener = onBuiltListener;
+        }
+        final BuildTask task = new BuildTask();
+        Runnable start = () -> {
+            if (task.cancelled) {
+                return;
+            }
+            // Copy the text style of each view type's TextView on the main thread
+            CellTextMeasurer.TextStyle[] textStyles = new CellTextMeasurer.TextStyle[snapshot.getViewTypeCount()];
+            for (int viewType = 0; viewType < textStyles.length; viewType++) {
+                textStyles[viewType] = new CellTextMeasurer.TextStyle(cellViewFactory.createCellView(table, viewType));
+            }
+            task.cellTextMeasurer = new CellTextMeasurer(snapshot, textStyles, executor);
+            task.cellTextMeasurer.start((columnWidths, rowHeights, cellSizes) -> {
+                task.cellTextMeasurer = null;
+                if (!task.cancelled) {
+                    table.setMeasuredAdapter(snapshot, columnWidths, rowHeights, cellSizes);
+                    if (listener != null) {
+                        listener.onBuilt(table);
+                    }
+                }
+            });
+        };
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            start.run();
+        } else {
+            new Handler(Looper.getMainLooper()).post(start);
+        }
+        return task;
+    }
+
+    private synchronized SnapshotAdapter takeSnapshot(CellViewFactory cellViewFactory) {
+        final int rowCount = rows.size();
+        CharSequence[][] texts = new CharSequence[rowCount][];
+        int[][] viewTypes = new int[rowCount][];
+        int[] snapshotRowViewTypes = new int[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            texts[row] = rows.get(row).clone();
+            int[] rowCellViewTypes = cellViewTypes.get(row);
+            viewTypes[row] = rowCellViewTypes != null ? rowCellViewTypes.clone() : null;
+            snapshotRowViewTypes[row] = rowViewTypes.get(row);
+        }
+        return new SnapshotAdapter(cellViewFactory, texts, viewTypes, snapshotRowViewTypes, columnCount, viewTypeCount,
+                fixedRowCount, fixedColumnCount);
+    }
+
+    /**
+     * The rows as they were when build was called, never changes
+     */
+    private static final class SnapshotAdapter extends FixedHeaderTableAdapter {
+        private final CellViewFactory cellViewFactory;
+        private final CharSequence[][] texts;
+        private final int[][] cellViewTypes;
+        private final int[] rowViewTypes;
+        private final int columnCount;
+        private final int viewTypeCount;
+        private final int fixedRowCount;
+        private final int fixedColumnCount;
+
+        SnapshotAdapter(CellViewFactory cellViewFactory, CharSequence[][] texts, int[][] cellViewTypes, int[] rowViewTypes,
+                        int columnCount, int viewTypeCount, int fixedRowCount, int fixedColumnCount) {
+            this.cellViewFactory = cellViewFactory;
+            this.texts = texts;
+            this.cellViewTypes = cellViewTypes;
+            this.rowViewTypes = rowViewTypes;
+            this.columnCount = columnCount;
+            this.viewTypeCount = viewTypeCount;
+            this.fixedRowCount = fixedRowCount;
+            this.fixedColumnCount = fixedColumnCount;
+        }
+
+        @Override
+        public int getRowCount() {
+            return texts.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnCount;
+        }
+
+        @Override
+        public int getFixedRowCount() {
+            return fixedRowCount;
+        }
+
+        @Override
+        public int getFixedColumnCount() {
+            return fixedColumnCount;
+        }
+
+        @Override
+        public int getCellViewType(int row, int column) {
+            int[] viewTypes = cellViewTypes[row];
+            return viewTypes != null && column < viewTypes.length ? viewTypes[column] : rowViewTypes[row];
+        }
+
+        @Override
+        public int getViewTypeCount() {
+            return viewTypeCount;
+        }
+
+        @Override
+        public CharSequence getCellText(int row, int column) {
+            CharSequence[] cells = texts[row];
+            return column < cells.length ? cells[column] : null;
+        }
+
+        @Override
+        public View createCellView(ViewGroup parent, int viewType) {
+            return cellViewFactory.createCellView(parent, viewType);
+        }
+
+        @Override
+        public void bindCell(int row, int column, View view) {
+            ((TextView) view).setText(getCellText(row, column));
+        }
+    }
+}
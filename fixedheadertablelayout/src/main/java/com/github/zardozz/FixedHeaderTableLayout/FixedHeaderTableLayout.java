@@ -24,30 +24,51 @@
 
 package com.github.zardozz.FixedHeaderTableLayout;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.database.DataSetObserver;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.MotionEvent;
 import android.view.ScaleGestureDetector;
+import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.animation.DecelerateInterpolator;
 import android.widget.FrameLayout;
+import android.widget.OverScroller;
+import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
 
 public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureDetector.OnScaleGestureListener{
 
     private ScaleGestureDetector gestureScale;
     private float scaleFactor = 1;
+    // The scale the Sub Tables were last invalidated at, panScaleTo sets scaleFactor before calculatePanScale
+    private float invalidatedScaleFactor = 1;
     private float minScale = 0.5f;
     private float maxScale = 2.0f;
+    // Below these scales the main table is drawn at low detail and then as summary tiles, 0 to never
+    private float lowDetailScale = 0;
+    private float summaryScale = 0;
+    private final LowDetailRenderer lowDetailRenderer = new LowDetailRenderer();
 
     private float mLastTouchX;
     private float mLastTouchY;
@@ -59,6 +80,15 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
     private int mActivePointerId = INVALID_POINTER_ID;
 
     private int mTouchSlop;
+    private int mMinimumFlingVelocity;
+    private int mMaximumFlingVelocity;
+    private VelocityTracker mVelocityTracker;
+    private OverScroller mScroller;
+    // Scroller position applied to the pan so far, the scroller position is the negative of the pan
+    private int mLastFlingX;
+    private int mLastFlingY;
+    // Animates smoothScrollToCell
+    private ValueAnimator mScrollAnimator;
     private boolean isScrolling = false;
 
     private FixedHeaderSubTableLayout mainTable;
@@ -70,6 +100,16 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
     private final Matrix columnHeaderMatrix = new Matrix();
     private final Matrix rowHeaderMatrix = new Matrix();
     private final Matrix mainMatrix = new Matrix();
+    // Inverse of each matrix to map from drawn to laid out location, updated when the pan or scale changes
+    private final Matrix cornerInverseMatrix = new Matrix();
+    private final Matrix columnHeaderInverseMatrix = new Matrix();
+    private final Matrix rowHeaderInverseMatrix = new Matrix();
+    private final Matrix mainInverseMatrix = new Matrix();
+    // Reused when mapping points so touch events don't allocate
+    private final float[] mappedCenter = new float[2];
+    private final float[] centerPoint = new float[2];
+    private final float[] cornerPoint = new float[2];
+    private boolean childrenCancelled = false;
 
     private float panX = 0;
     private float panY = 0;
@@ -79,89 +119,1892 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
     private float scaledRightBound;
     private float scaledBottomBound;
 
-    private static final String LOG_TAG = FixedHeaderTableLayout.class.getSimpleName();
+    // Aligned column widths and row heights of all four tables
+    private final TableMetrics tableMetrics = new TableMetrics();
+    // Natural size of every cell so a column or row can shrink without measuring all its cells again
+    private CellSizeStore cellSizes = new CellSizeStore();
+    // Number of rows in the top tables and columns in the left tables
+    private int fixedRowCount = 0;
+    private int fixedColumnCount = 0;
+
+    private FixedHeaderTableAdapter adapter;
+    private boolean measureCellsInBackground = false;
+    private ColumnWidthSampling columnWidthSampling = ColumnWidthSampling.ALL_ROWS;
+    private int sampleRowCount = 100;
+    // The adapter rows that have been measured, null when every row has been measured
+    // Can be longer than the number of rows so inserting a row only moves the rows after it
+    private boolean[] measuredRows;
+    private boolean measuringVisibleRows = false;
+    // Declared sizes in pixels, 0 to measure the cells instead
+    private int declaredRowHeight = 0;
+    private int declaredColumnWidth = 0;
+    private int[] declaredColumnWidths;
+    // Bounds for the measured sizes
+    private int minRowHeight = 0;
+    private int maxRowHeight = Integer.MAX_VALUE;
+    private int minColumnWidth = 0;
+    private int maxColumnWidth = Integer.MAX_VALUE;
+    private CellTextMeasurer cellTextMeasurer;
+    private final CellViewPool cellViewPool = new CellViewPool();
+    private final DataSetObserver adapterObserver = new FixedHeaderTableAdapter.TableDataObserver() {
+        @Override
+        public void onChanged() {
+            measureAdapterCells();
+        }
+
+        @Override
+        public void onCellChanged(int row, int column) {
+            notifyCellChanged(row, column);
+        }
+
+        @Override
+        public void onRowInserted(int row) {
+            notifyRowInserted(row);
+        }
+
+        @Override
+        public void onRowRemoved(int row) {
+            notifyRowRemoved(row);
+        }
+
+        @Override
+        public void onColumnInserted(int column) {
+            notifyColumnInserted(column);
+        }
+
+        @Override
+        public void onColumnRemoved(int column) {
+            notifyColumnRemoved(column);
+        }
+    };
+    // Reused to work out which part of each Sub Table is visible
+    private final RectF viewportRect = new RectF();
+    // Set while this Layout invalidates the Sub Tables without changing any cells
+    private boolean ignoringInvalidations = false;
+
+    // Draws the main table from Bitmap tiles while it is being panned and scaled, null when not enabled
+    private TileCache tileCache;
+    private long tileCacheSize = Runtime.getRuntime().maxMemory() / 8;
+    private final RectF tileViewportRect = new RectF();
+    private final RectF dirtyRect = new RectF();
+    private final RectF visibleMainTableRect = new RectF();
+    // Reused to work out which part of this Layout each Sub Table is drawn in and what needs drawing again
+    private final RectF paneRect = new RectF();
+    private final RectF invalidateRect = new RectF();
+    private final Rect invalidateBounds = new Rect();
+    // The Sub Table an area being invalidated in software belongs to, set by the Sub Table as it passes it up
+    @Nullable
+    private View invalidatingSubTable = null;
+    private final Rect clipBounds = new Rect();
+
+    // Shows a small snapshot of the main table, set with FixedHeaderTableOverview.setTable
+    private FixedHeaderTableOverview overview;
+
+    // Measures the Sub Tables once per frame after cells have changed
+    private boolean tableUpdatePending = false;
+    private final Runnable tableUpdate = () -> {
+        tableUpdatePending = false;
+        if (mainTable != null) {
+            measureTables();
+            updateTables();
+        }
+    };
+
+    // Text Layouts of the drawn cells of all the Sub Tables
+    private static final long DEFAULT_TEXT_LAYOUT_CACHE_SIZE = 512 * 1024;
+    private final TextLayoutCache textLayoutCache = new TextLayoutCache(DEFAULT_TEXT_LAYOUT_CACHE_SIZE);
+
+    // Give the Sub Tables hardware layers during gestures when enabled
+    private boolean gestureLayers = false;
+    private boolean gestureLayersActive = false;
+    // The main table is too big for a layer so is drawn from a temporary tile cache
+    private boolean gestureTiles = false;
+    // Largest layer the hardware canvas supports, 0 until drawn with hardware acceleration
+    private int maxLayerWidth = 0;
+    private int maxLayerHeight = 0;
+    private boolean scaling = false;
+    private TableMetricsListener tableMetricsListener;
+    // Totals reported to the TableMetricsListener
+    private long tableMeasureCount = 0;
+    private long cellMeasureCount = 0;
+
+    private static final String LOG_TAG = FixedHeaderTableLayout.class.getSimpleName();
+
+
+    public FixedHeaderTableLayout(Context context) {
+        super(context);
+        initialDefaultValues(null);
+        init(context);
+    }
+
+    public FixedHeaderTableLayout(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        initialDefaultValues(attrs);
+        init(context);
+    }
+
+    public FixedHeaderTableLayout(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initialDefaultValues(null);
+        init(context);
+    }
+
+    private void initialDefaultValues(@Nullable AttributeSet attrs) {
+        if (attrs == null) {
+            // That means the class is created programmatically.
+            return;
+        }
+
+        // Get values from xml attributes
+        TypedArray a = getContext().getTheme().obtainStyledAttributes(attrs, R.styleable
+                .FixedHeaderTableLayout, 0, 0);
+
+        try {
+            minScale = a.getFloat(R.styleable.FixedHeaderTableLayout_fhtl_min_scale, minScale);
+            maxScale = a.getFloat(R.styleable.FixedHeaderTableLayout_fhtl_max_scale, maxScale);
+            lowDetailScale = a.getFloat(R.styleable.FixedHeaderTableLayout_fhtl_low_detail_scale, lowDetailScale);
+            summaryScale = a.getFloat(R.styleable.FixedHeaderTableLayout_fhtl_summary_scale, summaryScale);
+            int lowDetailStyle = a.getInt(R.styleable.FixedHeaderTableLayout_fhtl_low_detail_style, -1);
+            if (lowDetailStyle >= 0) {
+                lowDetailRenderer.setStyle(LowDetailStyle.values()[lowDetailStyle]);
+            }
+            declaredRowHeight = a.getDimensionPixelSize(R.styleable.FixedHeaderTableLayout_fhtl_row_height, declaredRowHeight);
+            declaredColumnWidth = a.getDimensionPixelSize(R.styleable.FixedHeaderTableLayout_fhtl_column_width, declaredColumnWidth);
+            minRowHeight = a.getDimensionPixelSize(R.styleable.FixedHeaderTableLayout_fhtl_min_row_height, minRowHeight);
+            maxRowHeight = a.getDimensionPixelSize(R.styleable.FixedHeaderTableLayout_fhtl_max_row_height, maxRowHeight);
+            minColumnWidth = a.getDimensionPixelSize(R.styleable.FixedHeaderTableLayout_fhtl_min_column_width, minColumnWidth);
+            maxColumnWidth = a.getDimensionPixelSize(R.styleable.FixedHeaderTableLayout_fhtl_max_column_width, maxColumnWidth);
+        } finally {
+            a.recycle();
+        }
+    }
+
+    private void init(Context context){
+       //Log.d(LOG_TAG, "mainTable:init");
+
+        // Get our current View slop for Scrolling
+        ViewConfiguration viewConfiguration = ViewConfiguration.get(context);
+        mTouchSlop = viewConfiguration.getScaledTouchSlop();
+        //Log.d(LOG_TAG, "mTouchSlop:" + mTouchSlop);
+        mMinimumFlingVelocity = viewConfiguration.getScaledMinimumFlingVelocity();
+        mMaximumFlingVelocity = viewConfiguration.getScaledMaximumFlingVelocity();
+        mScroller = new OverScroller(context);
+
+        // As we extend a ViewGroup these won't draw anything by default
+        // enable ViewGroup drawing so the scrollbars show
+        setWillNotDraw(false);
+        gestureScale = new ScaleGestureDetector(context, this);
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setMinScale(float minScale){
+        this.minScale = minScale;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public float getMinScale() {
+        return minScale;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setMaxScale(float maxScale){
+        this.maxScale = maxScale;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public float getMaxScale() {
+        return maxScale;
+    }
+
+    /**
+     * Draw simplified cells in the main table instead of the cell Views when it is scaled below this
+     * @param lowDetailScale the scale, 0 to always draw the cells
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setLowDetailScale(float lowDetailScale) {
+        this.lowDetailScale = lowDetailScale;
+        invalidate();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public float getLowDetailScale() {
+        return lowDetailScale;
+    }
+
+    /**
+     * Draw tiles of cells in the main table as one block each when it is scaled below this
+     * @param summaryScale the scale, should be less than the low detail scale, 0 for no summary tiles
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setSummaryScale(float summaryScale) {
+        this.summaryScale = summaryScale;
+        invalidate();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public float getSummaryScale() {
+        return summaryScale;
+    }
+
+    /**
+     * @param lowDetailStyle how the cells are drawn below the low detail scale, defaults to BLOCKS
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setLowDetailStyle(LowDetailStyle lowDetailStyle) {
+        lowDetailRenderer.setStyle(lowDetailStyle);
+        invalidate();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public LowDetailStyle getLowDetailStyle() {
+        return lowDetailRenderer.getStyle();
+    }
+
+    /**
+     * @param color the color of the blocks drawn at low detail and of the summary tiles without a CellColorProvider
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setLowDetailColor(int color) {
+        lowDetailRenderer.setColor(color);
+        invalidate();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getLowDetailColor() {
+        return lowDetailRenderer.getColor();
+    }
+
+    /**
+     * @param cellColorProvider gives the cell colors for the HEAT_MAP low detail style and the summary tiles
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setCellColorProvider(@Nullable CellColorProvider cellColorProvider) {
+        lowDetailRenderer.setCellColorProvider(cellColorProvider);
+        invalidate();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public CellColorProvider getCellColorProvider() {
+        return lowDetailRenderer.getCellColorProvider();
+    }
+
+    /**
+     * The aligned sizes of the four tables
+     * The row header columns come before the main table columns
+     * and the column header rows come before the main table rows
+     * @return the TableMetrics shared by the four tables
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public TableMetrics getTableMetrics() {
+        return tableMetrics;
+    }
+
+    /**
+     * Measure the text of adapter cells on worker threads instead of measuring Views on the main thread
+     * Each view type's cell View must be a TextView and the adapter must implement getCellText,
+     * if any view type is not a TextView or getCellText is not implemented the cells are measured
+     * on the main thread as normal.
+     * The table is empty until the measuring is complete.
+     * @param measureCellsInBackground true to measure in the background
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setMeasureCellsInBackground(boolean measureCellsInBackground) {
+        this.measureCellsInBackground = measureCellsInBackground;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public boolean isMeasureCellsInBackground() {
+        return measureCellsInBackground;
+    }
+
+    /**
+     * Size the columns from a sample of the adapter's rows instead of measuring every cell before the
+     * table is first shown. The other rows are measured as they scroll in to view, widening any column
+     * they have a wider cell in, until then they are as high as the highest sampled row.
+     * Ignored when the cells are measured in the background. Set before setAdapter.
+     * @param columnWidthSampling which rows to measure first
+     * @param sampleRowCount how many rows to measure first, for LONGEST_TEXT_ROWS how many for each column
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setColumnWidthSampling(@NonNull ColumnWidthSampling columnWidthSampling, int sampleRowCount) {
+        if (sampleRowCount < 1) {
+            throw new IllegalArgumentException("At least one row must be sampled");
+        }
+        this.columnWidthSampling = columnWidthSampling;
+        this.sampleRowCount = sampleRowCount;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    @NonNull
+    public ColumnWidthSampling getColumnWidthSampling() {
+        return columnWidthSampling;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getSampleRowCount() {
+        return sampleRowCount;
+    }
+
+    /**
+     * Make every row this high instead of measuring the cells
+     * When the row height and every column width are declared the cells are only measured once to
+     * the declared sizes. Set before addViews or setAdapter.
+     * @param rowHeight the height in pixels or 0 to measure the cells
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setRowHeight(int rowHeight) {
+        this.declaredRowHeight = rowHeight;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getRowHeight() {
+        return declaredRowHeight;
+    }
+
+    /**
+     * Make every column this wide instead of measuring the cells, unless set by setColumnWidths
+     * Set before addViews or setAdapter.
+     * @param columnWidth the width in pixels or 0 to measure the cells
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setColumnWidth(int columnWidth) {
+        this.declaredColumnWidth = columnWidth;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getColumnWidth() {
+        return declaredColumnWidth;
+    }
+
+    /**
+     * Declare the width of each column instead of measuring the cells
+     * Columns are numbered across the whole table as in getTableMetrics, a width of 0 or a column
+     * past the end of the array uses the width set by setColumnWidth. Set before addViews or setAdapter.
+     * @param columnWidths the widths in pixels or null to use the width set by setColumnWidth
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setColumnWidths(@Nullable int[] columnWidths) {
+        this.declaredColumnWidths = columnWidths;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public int[] getColumnWidths() {
+        return declaredColumnWidths;
+    }
+
+    /**
+     * Keep the measured row heights within bounds, declared row heights are not bounded
+     * Set before addViews or setAdapter.
+     * @param minRowHeight the smallest height in pixels
+     * @param maxRowHeight the largest height in pixels
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setRowHeightBounds(int minRowHeight, int maxRowHeight) {
+        this.minRowHeight = minRowHeight;
+        this.maxRowHeight = maxRowHeight;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getMinRowHeight() {
+        return minRowHeight;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getMaxRowHeight() {
+        return maxRowHeight;
+    }
+
+    /**
+     * Keep the measured column widths within bounds, declared column widths are not bounded
+     * Set before addViews or setAdapter.
+     * @param minColumnWidth the smallest width in pixels
+     * @param maxColumnWidth the largest width in pixels
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setColumnWidthBounds(int minColumnWidth, int maxColumnWidth) {
+        this.minColumnWidth = minColumnWidth;
+        this.maxColumnWidth = maxColumnWidth;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getMinColumnWidth() {
+        return minColumnWidth;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getMaxColumnWidth() {
+        return maxColumnWidth;
+    }
+
+    /**
+     * @return the declared width of the column or 0 if it is measured
+     */
+    private int getDeclaredColumnWidth(int column) {
+        if (declaredColumnWidths != null && column < declaredColumnWidths.length && declaredColumnWidths[column] > 0) {
+            return declaredColumnWidths[column];
+        }
+        return declaredColumnWidth;
+    }
+
+    /**
+     * @return true if every size is declared so no cells need measuring
+     */
+    private boolean isSizeDeclared(int columnCount) {
+        if (declaredRowHeight <= 0) {
+            return false;
+        }
+        for (int column = 0; column < columnCount; column++) {
+            if (getDeclaredColumnWidth(column) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param width the width of the widest measured cell in the column
+     * @return the declared width or the measured width within the bounds
+     */
+    private int constrainColumnWidth(int column, int width) {
+        int declaredWidth = getDeclaredColumnWidth(column);
+        if (declaredWidth > 0) {
+            return declaredWidth;
+        }
+        return Math.max(minColumnWidth, Math.min(width, maxColumnWidth));
+    }
+
+    /**
+     * @param height the height of the highest measured cell in the row
+     * @return the declared height or the measured height within the bounds
+     */
+    private int constrainRowHeight(int height) {
+        if (declaredRowHeight > 0) {
+            return declaredRowHeight;
+        }
+        return Math.max(minRowHeight, Math.min(height, maxRowHeight));
+    }
+
+    /**
+     * Replace the measured sizes with the declared sizes and keep the rest within the bounds
+     */
+    private void constrainTableMetrics() {
+        final int columnCount = tableMetrics.getColumnCount();
+        for (int column = 0; column < columnCount; column++) {
+            tableMetrics.setColumnWidth(column, constrainColumnWidth(column, tableMetrics.getColumnWidth(column)));
+        }
+        final int rowCount = tableMetrics.getRowCount();
+        for (int row = 0; row < rowCount; row++) {
+            tableMetrics.setRowHeight(row, constrainRowHeight(tableMetrics.getRowHeight(row)));
+        }
+    }
+
+    /**
+     * Pan so the cell is at the top left of the main table's visible area,
+     * or as near as the edges of the table allow
+     * Rows and columns are numbered across the whole table as in getTableMetrics,
+     * for a header cell only the other direction is panned.
+     * @param row the row of the cell
+     * @param column the column of the cell
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void scrollToCell(int row, int column) {
+        stopScrolling();
+        panScaleTo(getMainTableX(column), getMainTableY(row), scaleFactor);
+    }
+
+    /**
+     * Animate the pan to a cell at the current scale
+     * @see #scrollToCell
+     * @param row the row of the cell
+     * @param column the column of the cell
+     * @param durationMs the length of the animation in milliseconds
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void smoothScrollToCell(int row, int column, long durationMs) {
+        smoothScrollToCell(row, column, scaleFactor, durationMs);
+    }
+
+    /**
+     * Animate the pan to a cell and the scale to a new scale together
+     * @see #scrollToCell
+     * @param row the row of the cell
+     * @param column the column of the cell
+     * @param scale the scale to end at, limited to the min and max scale
+     * @param durationMs the length of the animation in milliseconds
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void smoothScrollToCell(int row, int column, float scale, long durationMs) {
+        stopScrolling();
+        final float startScale = scaleFactor;
+        final float endScale = Math.max(minScale, Math.min(scale, maxScale));
+        // Positions in the main table at the top left of its visible area
+        final float startX = -panX / startScale;
+        final float startY = -panY / startScale;
+        final float endX = getMainTableX(column);
+        final float endY = getMainTableY(row);
+
+        mScrollAnimator = ValueAnimator.ofFloat(0f, 1f);
+        mScrollAnimator.setDuration(durationMs);
+        mScrollAnimator.setInterpolator(new DecelerateInterpolator());
+        mScrollAnimator.addUpdateListener(animation -> {
+            float fraction = (float) animation.getAnimatedValue();
+            // Scale geometrically so zooming in and out look the same speed
+            float animatedScale = (float) (startScale * Math.pow(endScale / startScale, fraction));
+            panScaleTo(startX + (endX - startX) * fraction, startY + (endY - startY) * fraction, animatedScale);
+        });
+        mScrollAnimator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                endGesture();
+            }
+        });
+        startGesture();
+        mScrollAnimator.start();
+    }
+
+    /**
+     * @return the x of the column in the main table, the current x for a row header column
+     */
+    private float getMainTableX(int column) {
+        if (column < fixedColumnCount) {
+            return -panX / scaleFactor;
+        }
+        return Math.max(0, tableMetrics.getColumnOffset(column) - tableMetrics.getColumnOffset(fixedColumnCount));
+    }
+
+    /**
+     * @return the y of the row in the main table, the current y for a column header row
+     */
+    private float getMainTableY(int row) {
+        if (row < fixedRowCount) {
+            return -panY / scaleFactor;
+        }
+        return Math.max(0, tableMetrics.getRowOffset(row) - tableMetrics.getRowOffset(fixedRowCount));
+    }
+
+    /**
+     * Scale and pan so a position in the main table is at the top left of its visible area
+     * The headers are scaled without panning so the top left of the visible area is the scaled corner
+     */
+    private void panScaleTo(float tableX, float tableY, float scale) {
+        scaleFactor = Math.max(minScale, Math.min(scale, maxScale));
+        // The pan is applied after the scale
+        calculatePanScale(panX + tableX * scaleFactor, panY + tableY * scaleFactor, 0, 0, 1f);
+    }
+
+    /**
+     * Pan so a position in the main table is at the centre of its visible area, at the current scale
+     * @param tableX the x in the main table
+     * @param tableY the y in the main table
+     */
+    void centreMainTableOn(float tableX, float tableY) {
+        stopScrolling();
+        getMainTableVisibleRect(visibleMainTableRect);
+        panScaleTo(tableX - visibleMainTableRect.width() / 2, tableY - visibleMainTableRect.height() / 2, scaleFactor);
+    }
+
+    /**
+     * @param rect set to the part of the main table not covered by the headers, in the main table's coordinates
+     */
+    void getMainTableVisibleRect(RectF rect) {
+        float tableLeft = mainTable != null ? mainTable.getLeft() : 0;
+        float tableTop = mainTable != null ? mainTable.getTop() : 0;
+        rect.set(-panX / scaleFactor, -panY / scaleFactor,
+                (getWidth() - panX) / scaleFactor - tableLeft, (getHeight() - panY) / scaleFactor - tableTop);
+    }
+
+    /**
+     * The Sub Tables are replaced by addViews and setAdapter, so style them again after either
+     * @return the main table or null before addViews or setAdapter
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public FixedHeaderSubTableLayout getMainTable() {
+        return mainTable;
+    }
+
+    /**
+     * @see #getMainTable()
+     * @return the column header table or null before addViews or setAdapter
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public FixedHeaderSubTableLayout getColumnHeaderTable() {
+        return columnHeaderTable;
+    }
+
+    /**
+     * @see #getMainTable()
+     * @return the row header table or null before addViews or setAdapter
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public FixedHeaderSubTableLayout getRowHeaderTable() {
+        return rowHeaderTable;
+    }
+
+    /**
+     * @see #getMainTable()
+     * @return the corner table or null before addViews or setAdapter
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public FixedHeaderSubTableLayout getCornerTable() {
+        return cornerTable;
+    }
+
+    int getFixedRowCount() {
+        return fixedRowCount;
+    }
+
+    int getFixedColumnCount() {
+        return fixedColumnCount;
+    }
+
+    void setOverview(@Nullable FixedHeaderTableOverview overview) {
+        this.overview = overview;
+    }
+
+    /**
+     * Stop any fling or smoothScrollToCell animation
+     */
+    private void stopScrolling() {
+        if (mScrollAnimator != null) {
+            // Ends the gesture in the end listener
+            mScrollAnimator.cancel();
+            mScrollAnimator = null;
+        }
+        if (!mScroller.isFinished()) {
+            mScroller.forceFinished(true);
+            endGesture();
+        }
+    }
+
+    /**
+     * Draw the main table from Bitmap tiles while it is being panned and scaled
+     * This makes each frame of a gesture cost the same however complex the cells are.
+     * Tiles are kept between gestures and only drawn again when their cells change.
+     * Not used with an adapter as only the cells near the visible area exist.
+     * @param tiledDrawing true to draw from tiles during gestures
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setTiledDrawing(boolean tiledDrawing) {
+        if (tiledDrawing && tileCache == null) {
+            tileCache = new TileCache(tileCacheSize);
+        } else if (!tiledDrawing) {
+            tileCache = null;
+        }
+        invalidate();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public boolean isTiledDrawing() {
+        return tileCache != null;
+    }
+
+    /**
+     * Give the Sub Tables hardware layers while being panned and scaled so they are drawn once per gesture
+     * instead of every frame. A layer uses about 4 bytes of graphics memory per pixel of the whole Sub Table,
+     * a Sub Table too big for the largest layer the hardware supports is drawn as normal,
+     * except the main table which is drawn from Bitmap tiles instead.
+     * The memory used is reported to any TableMetricsListener.
+     * @param gestureLayers true to use layers during gestures
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setGestureLayers(boolean gestureLayers) {
+        this.gestureLayers = gestureLayers;
+        if (!gestureLayers) {
+            removeGestureLayers();
+        }
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public boolean isGestureLayers() {
+        return gestureLayers;
+    }
+
+    /**
+     * Set before addViews or setAdapter to also receive the time taken to measure the table
+     * @param tableMetricsListener the listener to receive measuring and drawing measurements or null to stop
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setTableMetricsListener(@Nullable TableMetricsListener tableMetricsListener) {
+        this.tableMetricsListener = tableMetricsListener;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public TableMetricsListener getTableMetricsListener() {
+        return tableMetricsListener;
+    }
+
+    /**
+     * @param tileCacheSize the maximum size in bytes of the cached tiles, defaults to an eighth of the max heap
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setTileCacheSize(long tileCacheSize) {
+        this.tileCacheSize = tileCacheSize;
+        if (tileCache != null) {
+            tileCache.setMaxBytes(tileCacheSize);
+        }
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public long getTileCacheSize() {
+        return tileCacheSize;
+    }
+
+    /**
+     * The text Layouts of the rows set with FixedHeaderTableRow.setDrawnCells are kept in a least recently used cache
+     * @param textLayoutCacheSize the maximum estimated size in bytes of the cached Layouts, defaults to 512KB
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setTextLayoutCacheSize(long textLayoutCacheSize) {
+        textLayoutCache.setMaxBytes(textLayoutCacheSize);
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public long getTextLayoutCacheSize() {
+        return textLayoutCache.getMaxBytes();
+    }
+
+    /**
+     * @return the number of times a drawn cell's text Layout was found in the cache
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public long getTextLayoutCacheHitCount() {
+        return textLayoutCache.getHitCount();
+    }
+
+    /**
+     * @return the number of times a drawn cell's text had to be laid out
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public long getTextLayoutCacheMissCount() {
+        return textLayoutCache.getMissCount();
+    }
+
+    /**
+     * @return the number of Layouts removed from the cache to keep it under its size
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public long getTextLayoutCacheEvictionCount() {
+        return textLayoutCache.getEvictionCount();
+    }
+
+    TextLayoutCache getTextLayoutCache() {
+        return textLayoutCache;
+    }
+
+    /**
+     * Add the four tables that make up the Layout
+     *
+     * @param mainTable the mainTable
+     * @param columnHeaderTable the columnHeaderTable
+     * @param rowHeaderTable the rowHeaderTable
+     * @param cornerTable the cornerTable
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void addViews(FixedHeaderSubTableLayout mainTable, FixedHeaderSubTableLayout columnHeaderTable,
+                         FixedHeaderSubTableLayout rowHeaderTable, FixedHeaderSubTableLayout cornerTable){
+
+        // Stop using any adapter as the cells are given directly
+        setAdapterInternal(null);
+
+        long startTime = tableMetricsListener != null ? System.nanoTime() : 0;
+
+        // The left side columns come first followed by the right side columns
+        // and the top side rows come first followed by the bottom side rows
+        int leftColumnCount = Math.max(Utils.getMaxColumnCount(rowHeaderTable), Utils.getMaxColumnCount(cornerTable));
+        int rightColumnCount = Math.max(Utils.getMaxColumnCount(mainTable), Utils.getMaxColumnCount(columnHeaderTable));
+        int topRowCount = Math.max(columnHeaderTable.getChildCount(), cornerTable.getChildCount());
+        int bottomRowCount = Math.max(mainTable.getChildCount(), rowHeaderTable.getChildCount());
+        // When every size is declared the cells are only measured once to the declared sizes
+        boolean sizeDeclared = isSizeDeclared(leftColumnCount + rightColumnCount);
+
+        // Need to measure all Tables to full (UNSPECIFIED) size
+        TableTrace.beginSection(TableTrace.PRE_MEASURE);
+        int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+        if (sizeDeclared) {
+            setRowsPreMeasured(mainTable);
+            setRowsPreMeasured(columnHeaderTable);
+            setRowsPreMeasured(rowHeaderTable);
+            setRowsPreMeasured(cornerTable);
+        } else {
+            //Log.d(LOG_TAG, "mainTable:preMeasure");
+            mainTable.measure(measureSpec, measureSpec);
+            //Log.d(LOG_TAG, "columnHeaderTable:preMeasure");
+            columnHeaderTable.measure(measureSpec, measureSpec);
+            //Log.d(LOG_TAG, "rowHeaderTable:preMeasure");
+            rowHeaderTable.measure(measureSpec, measureSpec);
+            //Log.d(LOG_TAG, "cornerTable:preMeasure");
+            cornerTable.measure(measureSpec, measureSpec);
+        }
+        TableTrace.endSection();
+        long preMeasuredTime = tableMetricsListener != null ? System.nanoTime() : 0;
+        TableTrace.beginSection(TableTrace.ALIGN);
+
+        // Merge of the widths and height to align all the table rows
+        tableMetrics.reset(leftColumnCount + rightColumnCount, topRowCount + bottomRowCount);
+        fixedRowCount = topRowCount;
+        fixedColumnCount = leftColumnCount;
+
+        // Keep the size of each cell for later incremental changes
+        cellSizes.reset(tableMetrics.getColumnCount(), tableMetrics.getRowCount());
+        if (sizeDeclared) {
+            // The natural cell sizes are left as 0 until a cell is measured again by an incremental update
+            constrainTableMetrics();
+        } else {
+            alignMeasuredTables(mainTable, columnHeaderTable, rowHeaderTable, cornerTable);
+        }
+
+        // Set the aligned sizes in all the tables
+        Utils.setTableMetrics(tableMetrics, topRowCount, leftColumnCount, mainTable);
+        Utils.setTableMetrics(tableMetrics, 0, leftColumnCount, columnHeaderTable);
+        Utils.setTableMetrics(tableMetrics, topRowCount, 0, rowHeaderTable);
+        Utils.setTableMetrics(tableMetrics, 0, 0, cornerTable);
+        TableTrace.endSection();
+        long alignedTime = tableMetricsListener != null ? System.nanoTime() : 0;
+
+        // Remeasure Tables using the new set of aligned Heights and widths
+        TableTrace.beginSection(TableTrace.FIXED_MEASURE);
+        //Log.d(LOG_TAG, "mainTable:fixedMeasure");
+        mainTable.measure(measureSpec, measureSpec);
+        //Log.d(LOG_TAG, "columnHeaderTable:fixedMeasure");
+        columnHeaderTable.measure(measureSpec, measureSpec);
+        //Log.d(LOG_TAG, "rowHeaderTable:fixedMeasure");
+        rowHeaderTable.measure(measureSpec, measureSpec);
+        //Log.d(LOG_TAG, "cornerTable:fixedMeasure");
+        cornerTable.measure(measureSpec, measureSpec);
+        TableTrace.endSection();
+
+        tableMeasureCount++;
+        if (tableMetricsListener != null) {
+            tableMetricsListener.onTableMeasured(preMeasuredTime - startTime, alignedTime - preMeasuredTime,
+                    System.nanoTime() - alignedTime);
+        }
+
+        attachTables(mainTable, columnHeaderTable, rowHeaderTable, cornerTable);
+    }
+
+    /**
+     * Work out the column widths and row heights from the preMeasured cells of the four tables
+     */
+    private void alignMeasuredTables(FixedHeaderSubTableLayout mainTable, FixedHeaderSubTableLayout columnHeaderTable,
+                                     FixedHeaderSubTableLayout rowHeaderTable, FixedHeaderSubTableLayout cornerTable) {
+        int leftColumnCount = fixedColumnCount;
+        int topRowCount = fixedRowCount;
+        storeCellSizes(topRowCount, leftColumnCount, mainTable);
+        storeCellSizes(0, leftColumnCount, columnHeaderTable);
+        storeCellSizes(topRowCount, 0, rowHeaderTable);
+        storeCellSizes(0, 0, cornerTable);
+
+        int chunkCount = ColumnWidthReducer.getChunkCount(cellSizes, Runtime.getRuntime().availableProcessors());
+        if (chunkCount > 1 && !cellSizes.isClamped()) {
+            // Big table so work out all the column widths from the stored sizes on multiple threads
+            int[] maxColumnWidths = ColumnWidthReducer.getMaxColumnWidths(cellSizes, CellTextMeasurer.getDefaultExecutor(), chunkCount);
+            for (int column = 0; column < maxColumnWidths.length; column++) {
+                tableMetrics.ensureColumnWidth(column, maxColumnWidths[column]);
+            }
+        } else {
+            // Get the max column width in mainTable and columnHeaderTable
+            Utils.calculateMaxColumnWidth(tableMetrics, leftColumnCount, mainTable);
+            Utils.calculateMaxColumnWidth(tableMetrics, leftColumnCount, columnHeaderTable);
+            // Get the max column width in cornerTable and rowHeaderTable
+            Utils.calculateMaxColumnWidth(tableMetrics, 0, rowHeaderTable);
+            Utils.calculateMaxColumnWidth(tableMetrics, 0, cornerTable);
+        }
+
+        // Get the max row height in mainTable and rowHeaderTable
+        Utils.calculateMaxRowHeight(tableMetrics, topRowCount, mainTable);
+        Utils.calculateMaxRowHeight(tableMetrics, topRowCount, rowHeaderTable);
+        // Get the max row height in columnHeaderTable and cornerTable
+        Utils.calculateMaxRowHeight(tableMetrics, 0, columnHeaderTable);
+        Utils.calculateMaxRowHeight(tableMetrics, 0, cornerTable);
+
+        // Then fit the cells spanning columns or rows
+        Utils.calculateSpannedCellSizes(tableMetrics, topRowCount, leftColumnCount, mainTable);
+        Utils.calculateSpannedCellSizes(tableMetrics, 0, leftColumnCount, columnHeaderTable);
+        Utils.calculateSpannedCellSizes(tableMetrics, topRowCount, 0, rowHeaderTable);
+        Utils.calculateSpannedCellSizes(tableMetrics, 0, 0, cornerTable);
+
+        constrainTableMetrics();
+    }
+
+    private void setRowsPreMeasured(FixedHeaderSubTableLayout table) {
+        for (int row = 0; row < table.getChildCount(); row++) {
+            ((FixedHeaderTableRow) table.getChildAt(row)).setPreMeasured(true);
+        }
+    }
+
+    private void storeCellSizes(int firstRow, int firstColumn, FixedHeaderSubTableLayout table) {
+        for (int row = 0; row < table.getChildCount(); row++) {
+            FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row);
+            final int cellCount = tableRow.getCellCount();
+            for (int index = 0; index < cellCount; index++) {
+                // The sizes of cells spanning columns or rows are fitted after the single cells
+                cellSizes.set(firstRow + row, firstColumn + tableRow.getCellColumn(index),
+                        tableRow.getCellColumnSpan(index) == 1 ? tableRow.getCellWidth(index) : 0,
+                        tableRow.getCellRowSpan(index) == 1 ? tableRow.getCellHeight(index) : 0);
+            }
+        }
+    }
+
+    /**
+     * Use an adapter to supply the cells instead of adding the four tables with addViews
+     * Only the cells near the visible part of the table are created as Views, the rest are
+     * recycled as the table is panned and scaled
+     *
+     * @param adapter the adapter or null to remove the current adapter
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setAdapter(@Nullable FixedHeaderTableAdapter adapter) {
+        setAdapterInternal(adapter);
+        if (adapter == null) {
+            removeAllViews();
+            mainTable = null;
+            columnHeaderTable = null;
+            rowHeaderTable = null;
+            cornerTable = null;
+            return;
+        }
+
+        createAdapterTables(adapter);
+        if (isSizeDeclared(adapter.getColumnCount())) {
+            setDeclaredAdapterSizes();
+        } else if (startCellTextMeasurer()) {
+            // Start with an empty table until the sizes are known
+            tableMetrics.reset(0, 0);
+        } else {
+            measureAdapterCellViews();
+        }
+        setAdapterTableMetrics();
+
+        attachTables(mainTable, columnHeaderTable, rowHeaderTable, cornerTable);
+        updateViewports(getWidth(), getHeight());
+    }
+
+    /**
+     * Show an adapter whose cells have already been measured on worker threads, nothing is measured again
+     * Used by FixedHeaderTableBuilder to attach its snapshot in one go on the main thread
+     */
+    void setMeasuredAdapter(FixedHeaderTableAdapter adapter, int[] columnWidths, int[] rowHeights, CellSizeStore measuredCellSizes) {
+        setAdapterInternal(adapter);
+        createAdapterTables(adapter);
+        setMeasuredSizes(columnWidths, rowHeights, measuredCellSizes);
+        setAdapterTableMetrics();
+
+        attachTables(mainTable, columnHeaderTable, rowHeaderTable, cornerTable);
+        updateViewports(getWidth(), getHeight());
+    }
+
+    /**
+     * Create the four Sub Tables that bind the adapter's cells
+     */
+    private void createAdapterTables(FixedHeaderTableAdapter adapter) {
+        Context context = getContext();
+        // Store the instances before measuring so the cells are measured with a parent
+        mainTable = new FixedHeaderVirtualSubTableLayout(context, adapter, cellViewPool);
+        columnHeaderTable = new FixedHeaderVirtualSubTableLayout(context, adapter, cellViewPool);
+        rowHeaderTable = new FixedHeaderVirtualSubTableLayout(context, adapter, cellViewPool);
+        cornerTable = new FixedHeaderVirtualSubTableLayout(context, adapter, cellViewPool);
+    }
+
+    /**
+     * Use the sizes measured on worker threads
+     */
+    private void setMeasuredSizes(int[] columnWidths, int[] rowHeights, CellSizeStore measuredCellSizes) {
+        cellSizes = measuredCellSizes;
+        measuredRows = null;
+        tableMetrics.reset(columnWidths.length, rowHeights.length);
+        for (int column = 0; column < columnWidths.length; column++) {
+            tableMetrics.setColumnWidth(column, columnWidths[column]);
+        }
+        for (int row = 0; row < rowHeights.length; row++) {
+            tableMetrics.setRowHeight(row, rowHeights[row]);
+        }
+        constrainTableMetrics();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public FixedHeaderTableAdapter getAdapter() {
+        return adapter;
+    }
+
+    /**
+     * Resize one cell after its contents have changed
+     * Only the cell's column and row are resized instead of measuring the whole table again.
+     * The TableMetrics are updated straight away, the Sub Tables are measured to them once on the
+     * next frame however many cells change before then.
+     * Rows and columns are numbered across the whole table as in getTableMetrics,
+     * with an adapter this is called by FixedHeaderTableAdapter.notifyCellChanged.
+     * @param row the row of the cell
+     * @param column the column of the cell
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void notifyCellChanged(int row, int column) {
+        if (!prepareIncrementalUpdate()) {
+            return;
+        }
+        int oldWidth = cellSizes.getWidth(row, column);
+        int oldHeight = cellSizes.getHeight(row, column);
+        measureCell(row, column);
+        boolean columnChanged = updateColumnWidth(row, column, oldWidth);
+        boolean rowChanged = updateRowHeight(row, column, oldHeight);
+
+        FixedHeaderSubTableLayout table = getSubTable(row, column);
+        if (adapter != null) {
+            ((FixedHeaderVirtualSubTableLayout) table).rebindCell(row - table.getFirstRow(), column - table.getFirstColumn());
+        }
+        if (columnChanged) {
+            // Every row in the column's two tables has a new width
+            if (column < fixedColumnCount) {
+                cornerTable.forceLayoutRows();
+                rowHeaderTable.forceLayoutRows();
+            } else {
+                columnHeaderTable.forceLayoutRows();
+                mainTable.forceLayoutRows();
+            }
+        }
+        if (rowChanged) {
+            // The row is in the left and right tables
+            forceLayoutRow(getSubTable(row, 0), row);
+            forceLayoutRow(getSubTable(row, fixedColumnCount), row);
+        } else {
+            forceLayoutRow(table, row);
+        }
+        requestTableUpdate();
+    }
+
+    /**
+     * Measure the Sub Tables and update the boundaries on the next frame
+     */
+    private void requestTableUpdate() {
+        if (!tableUpdatePending) {
+            tableUpdatePending = true;
+            postOnAnimation(tableUpdate);
+        }
+    }
+
+    /**
+     * Add a row without measuring the whole table again
+     * Without an adapter the new FixedHeaderTableRows must already have been added to the left and right tables,
+     * with an adapter this is called by FixedHeaderTableAdapter.notifyRowInserted and the adapter owns the number of header rows.
+     * A row inserted at the number of column header rows is the first row of the main table.
+     * @param row the row the new row is at
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void notifyRowInserted(int row) {
+        if (!prepareIncrementalUpdate()) {
+            return;
+        }
+        cellSizes.insertRow(row);
+        tableMetrics.insertRow(row);
+        if (measuredRows != null) {
+            final int rowCount = tableMetrics.getRowCount();
+            if (measuredRows.length < rowCount) {
+                measuredRows = Arrays.copyOf(measuredRows, rowCount * 2);
+            }
+            System.arraycopy(measuredRows, row, measuredRows, row + 1, rowCount - 1 - row);
+            // The new row is measured below
+            measuredRows[row] = true;
+        }
+        if (adapter == null && row < fixedRowCount) {
+            // An adapter's getFixedRowCount already counts the change
+            fixedRowCount++;
+        }
+        setSubTableMetrics();
+
+        final int columnCount = tableMetrics.getColumnCount();
+        for (int column = 0; column < columnCount; column++) {
+            measureCell(row, column);
+            tableMetrics.ensureColumnWidth(column, constrainColumnWidth(column, cellSizes.getWidth(row, column)));
+        }
+        tableMetrics.setRowHeight(row, constrainRowHeight(cellSizes.getMaxHeight(row)));
+        if (adapter == null) {
+            // All the cells of the new row have been measured
+            setRowPreMeasured(getSubTable(row, 0), row);
+            setRowPreMeasured(getSubTable(row, fixedColumnCount), row);
+        }
+        forceLayoutTables();
+    }
+
+    /**
+     * Remove a row without measuring the whole table again
+     * Without an adapter the FixedHeaderTableRows must already have been removed from the left and right tables,
+     * with an adapter this is called by FixedHeaderTableAdapter.notifyRowRemoved and the adapter owns the number of header rows.
+     * @param row the row the removed row was at
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void notifyRowRemoved(int row) {
+        if (!prepareIncrementalUpdate()) {
+            return;
+        }
+        // Columns that were as wide as a cell in this row might get narrower
+        final int columnCount = tableMetrics.getColumnCount();
+        boolean[] widestColumns = new boolean[columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            widestColumns[column] = cellSizes.getWidth(row, column) >= tableMetrics.getColumnWidth(column);
+        }
+        cellSizes.removeRow(row);
+        tableMetrics.removeRow(row);
+        if (measuredRows != null) {
+            System.arraycopy(measuredRows, row + 1, measuredRows, row, tableMetrics.getRowCount() - row);
+        }
+        if (adapter == null && row < fixedRowCount) {
+            // An adapter's getFixedRowCount already counts the change
+            fixedRowCount--;
+        }
+        for (int column = 0; column < columnCount; column++) {
+            if (widestColumns[column]) {
+                tableMetrics.setColumnWidth(column, constrainColumnWidth(column, cellSizes.getMaxWidth(column)));
+            }
+        }
+        setSubTableMetrics();
+        forceLayoutTables();
+    }
+
+    /**
+     * Add a column without measuring the whole table again
+     * Without an adapter the new cells must already have been added to every row of the top and bottom tables,
+     * with an adapter this is called by FixedHeaderTableAdapter.notifyColumnInserted and the adapter owns the number of header columns.
+     * A column inserted at the number of row header columns is the first column of the main table.
+     * @param column the column the new column is at
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void notifyColumnInserted(int column) {
+        if (!prepareIncrementalUpdate()) {
+            return;
+        }
+        cellSizes.insertColumn(column);
+        tableMetrics.insertColumn(column);
+        if (adapter == null && column < fixedColumnCount) {
+            // An adapter's getFixedColumnCount already counts the change
+            fixedColumnCount++;
+        }
+        setSubTableMetrics();
+        if (adapter == null) {
+            // Make space for the new cells' natural sizes
+            if (column < fixedColumnCount) {
+                cellInserted(cornerTable, column);
+                cellInserted(rowHeaderTable, column);
+            } else {
+                cellInserted(columnHeaderTable, column);
+                cellInserted(mainTable, column);
+            }
+        }
+
+        final int rowCount = tableMetrics.getRowCount();
+        for (int row = 0; row < rowCount; row++) {
+            measureCell(row, column);
+            tableMetrics.ensureRowHeight(row, constrainRowHeight(cellSizes.getHeight(row, column)));
+        }
+        tableMetrics.setColumnWidth(column, constrainColumnWidth(column, cellSizes.getMaxWidth(column)));
+        forceLayoutTables();
+    }
+
+    /**
+     * Remove a column without measuring the whole table again
+     * Without an adapter the cells must already have been removed from every row of the top and bottom tables,
+     * with an adapter this is called by FixedHeaderTableAdapter.notifyColumnRemoved and the adapter owns the number of header columns.
+     * @param column the column the removed column was at
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void notifyColumnRemoved(int column) {
+        if (!prepareIncrementalUpdate()) {
+            return;
+        }
+        if (adapter == null) {
+            if (column < fixedColumnCount) {
+                cellRemoved(cornerTable, column);
+                cellRemoved(rowHeaderTable, column);
+            } else {
+                cellRemoved(columnHeaderTable, column);
+                cellRemoved(mainTable, column);
+            }
+        }
+        // Rows that were as high as a cell in this column might get lower
+        final int rowCount = tableMetrics.getRowCount();
+        boolean[] highestRows = new boolean[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            highestRows[row] = cellSizes.getHeight(row, column) >= tableMetrics.getRowHeight(row);
+        }
+        cellSizes.removeColumn(column);
+        tableMetrics.removeColumn(column);
+        if (adapter == null && column < fixedColumnCount) {
+            // An adapter's getFixedColumnCount already counts the change
+            fixedColumnCount--;
+        }
+        for (int row = 0; row < rowCount; row++) {
+            if (highestRows[row]) {
+                tableMetrics.setRowHeight(row, constrainRowHeight(cellSizes.getMaxHeight(row)));
+            }
+        }
+        setSubTableMetrics();
+        forceLayoutTables();
+    }
+
+    private void setAdapterInternal(@Nullable FixedHeaderTableAdapter adapter) {
+        cancelCellTextMeasurer();
+        if (this.adapter != null) {
+            this.adapter.unregisterDataSetObserver(adapterObserver);
+        }
+        // Views from the old adapter can't be used with the new one
+        cellViewPool.clear();
+        measuredRows = null;
+        this.adapter = adapter;
+        if (adapter != null) {
+            adapter.registerDataSetObserver(adapterObserver);
+        }
+    }
+
+    /**
+     * Measure every cell of the adapter one at a time using recycled Views
+     */
+    private void measureAdapterCellViews() {
+        int rowCount = adapter.getRowCount();
+        int columnCount = adapter.getColumnCount();
+        int headerRowCount = Math.min(adapter.getFixedRowCount(), rowCount);
+
+        // Take the max size of each cell over the whole table, this aligns the same
+        // columns and rows as addViews does but without needing all the Views at once
+        tableMetrics.reset(columnCount, rowCount);
+        cellSizes.reset(columnCount, rowCount);
+        measuredRows = getSampleRows(rowCount, headerRowCount);
+        int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+        for (int row = 0; row < rowCount; row++) {
+            if (measuredRows != null && !measuredRows[row]) {
+                continue;
+            }
+            FixedHeaderSubTableLayout parent = row < headerRowCount ? columnHeaderTable : mainTable;
+            for (int column = 0; column < columnCount; column++) {
+                View cell = cellViewPool.obtain(adapter, parent, adapter.getCellViewType(row, column));
+                adapter.bindCell(row, column, cell);
+                cell.measure(measureSpec, measureSpec);
+                cellSizes.set(row, column, cell.getMeasuredWidth(), cell.getMeasuredHeight());
+                tableMetrics.ensureColumnWidth(column, cell.getMeasuredWidth());
+                tableMetrics.ensureRowHeight(row, cell.getMeasuredHeight());
+                cellViewPool.recycle(cell);
+            }
+        }
+
+        if (measuredRows != null) {
+            // Guess the rows not measured yet are as high as the highest sampled row
+            int estimatedRowHeight = 0;
+            for (int row = headerRowCount; row < rowCount; row++) {
+                estimatedRowHeight = Math.max(estimatedRowHeight, tableMetrics.getRowHeight(row));
+            }
+            for (int row = headerRowCount; row < rowCount; row++) {
+                if (!measuredRows[row]) {
+                    tableMetrics.setRowHeight(row, estimatedRowHeight);
+                }
+            }
+        }
+        constrainTableMetrics();
+    }
+
+    /**
+     * Size the adapter's rows and columns to the declared sizes without measuring any cells
+     */
+    private void setDeclaredAdapterSizes() {
+        measuredRows = null;
+        tableMetrics.reset(adapter.getColumnCount(), adapter.getRowCount());
+        cellSizes.reset(adapter.getColumnCount(), adapter.getRowCount());
+        constrainTableMetrics();
+    }
+
+    /**
+     * Pick the rows to measure before the table is first shown
+     * @return the rows to measure or null to measure every row
+     */
+    @Nullable
+    private boolean[] getSampleRows(int rowCount, int headerRowCount) {
+        int bodyRowCount = rowCount - headerRowCount;
+        if (columnWidthSampling == ColumnWidthSampling.ALL_ROWS || sampleRowCount >= bodyRowCount) {
+            return null;
+        }
+        boolean[] sampleRows = new boolean[rowCount];
+        // The header rows are always in view
+        Arrays.fill(sampleRows, 0, headerRowCount, true);
+        switch (columnWidthSampling) {
+            case FIRST_ROWS:
+                Arrays.fill(sampleRows, headerRowCount, headerRowCount + sampleRowCount, true);
+                break;
+            case RANDOM_ROWS:
+                Random random = new Random();
+                int sampledCount = 0;
+                while (sampledCount < sampleRowCount) {
+                    int row = headerRowCount + random.nextInt(bodyRowCount);
+                    if (!sampleRows[row]) {
+                        sampleRows[row] = true;
+                        sampledCount++;
+                    }
+                }
+                break;
+            case LONGEST_TEXT_ROWS:
+                int[] longestRows = new int[sampleRowCount];
+                int[] longestLengths = new int[sampleRowCount];
+                for (int column = 0; column < adapter.getColumnCount(); column++) {
+                    // Keep the longest texts in order, longest first
+                    Arrays.fill(longestLengths, -1);
+                    for (int row = headerRowCount; row < rowCount; row++) {
+                        CharSequence text = adapter.getCellText(row, column);
+                        int length = text != null ? text.length() : 0;
+                        int index = sampleRowCount - 1;
+                        if (length <= longestLengths[index]) {
+                            continue;
+                        }
+                        while (index > 0 && length > longestLengths[index - 1]) {
+                            longestLengths[index] = longestLengths[index - 1];
+                            longestRows[index] = longestRows[index - 1];
+                            index--;
+                        }
+                        longestLengths[index] = length;
+                        longestRows[index] = row;
+                    }
+                    for (int row : longestRows) {
+                        sampleRows[row] = true;
+                    }
+                }
+                break;
+        }
+        return sampleRows;
+    }
+
+    /**
+     * Measure the rows that have scrolled in to view since sampling the column widths
+     * @return true if a column width or row height changed
+     */
+    private boolean measureVisibleRows(int width, int height) {
+        LayoutParams layoutParams = (LayoutParams) mainTable.getLayoutParams();
+        mapViewport(mainInverseMatrix, width, height, getPaddingLeft() + layoutParams.leftMargin, getPaddingTop() + layoutParams.topMargin, viewportRect);
+        int mainTableTop = tableMetrics.getRowOffset(fixedRowCount);
+        int firstRow = Math.max(fixedRowCount, tableMetrics.getRowAt(mainTableTop + viewportRect.top));
+        int lastRow = tableMetrics.getRowAt(mainTableTop + viewportRect.bottom);
+
+        boolean changed = false;
+        final int columnCount = tableMetrics.getColumnCount();
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (measuredRows[row]) {
+                continue;
+            }
+            measuredRows[row] = true;
+            for (int column = 0; column < columnCount; column++) {
+                measureCell(row, column);
+                int columnWidth = constrainColumnWidth(column, cellSizes.getWidth(row, column));
+                if (columnWidth > tableMetrics.getColumnWidth(column)) {
+                    tableMetrics.setColumnWidth(column, columnWidth);
+                    changed = true;
+                }
+            }
+            int rowHeight = constrainRowHeight(cellSizes.getMaxHeight(row));
+            if (rowHeight != tableMetrics.getRowHeight(row)) {
+                tableMetrics.setRowHeight(row, rowHeight);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Measure the text of the adapter's cells on worker threads if enabled and possible
+     * @return true if the measuring was started
+     */
+    private boolean startCellTextMeasurer() {
+        cancelCellTextMeasurer();
+        if (!measureCellsInBackground || !adapter.hasCellText()) {
+            // Without the text every cell would be measured as empty
+            return false;
+        }
+
+        // Copy the text style of each view type's TextView on the main thread
+        CellTextMeasurer.TextStyle[] textStyles = new CellTextMeasurer.TextStyle[adapter.getViewTypeCount()];
+        for (int viewType = 0; viewType < textStyles.length; viewType++) {
+            View cell = cellViewPool.obtain(adapter, mainTable, viewType);
+            cellViewPool.recycle(cell);
+            if (!(cell instanceof TextView)) {
+                // Can only measure text
+                return false;
+            }
+            textStyles[viewType] = new CellTextMeasurer.TextStyle((TextView) cell);
+        }
+
+        cellTextMeasurer = new CellTextMeasurer(adapter, textStyles, CellTextMeasurer.getDefaultExecutor());
+        cellTextMeasurer.start((columnWidths, rowHeights, measuredCellSizes) -> {
+            cellTextMeasurer = null;
+            setMeasuredSizes(columnWidths, rowHeights, measuredCellSizes);
+            long measuredTime = tableMetricsListener != null ? System.nanoTime() : 0;
+            updateAdapterTables();
+            tableMeasureCount++;
+            if (tableMetricsListener != null) {
+                tableMetricsListener.onTableMeasured(0, 0, System.nanoTime() - measuredTime);
+            }
+        });
+        return true;
+    }
+
+    private void cancelCellTextMeasurer() {
+        if (cellTextMeasurer != null) {
+            cellTextMeasurer.cancel();
+            cellTextMeasurer = null;
+        }
+    }
+
+    /**
+     * Give the aligned sizes in the TableMetrics to the four Sub Tables
+     */
+    private void setAdapterTableMetrics() {
+        int rowCount = tableMetrics.getRowCount();
+        int columnCount = tableMetrics.getColumnCount();
+        fixedRowCount = Math.min(adapter.getFixedRowCount(), rowCount);
+        fixedColumnCount = Math.min(adapter.getFixedColumnCount(), columnCount);
+
+        int bottomRowCount = rowCount - fixedRowCount;
+        int rightColumnCount = columnCount - fixedColumnCount;
+        ((FixedHeaderVirtualSubTableLayout) mainTable).setTableMetrics(tableMetrics, fixedRowCount, bottomRowCount, fixedColumnCount, rightColumnCount);
+        ((FixedHeaderVirtualSubTableLayout) columnHeaderTable).setTableMetrics(tableMetrics, 0, fixedRowCount, fixedColumnCount, rightColumnCount);
+        ((FixedHeaderVirtualSubTableLayout) rowHeaderTable).setTableMetrics(tableMetrics, fixedRowCount, bottomRowCount, 0, fixedColumnCount);
+        ((FixedHeaderVirtualSubTableLayout) cornerTable).setTableMetrics(tableMetrics, 0, fixedRowCount, 0, fixedColumnCount);
+
+        // Measure to get the full size of the Sub Tables without any cells bound
+        measureTables();
+    }
+
+    private void measureTables() {
+        int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+        mainTable.measure(measureSpec, measureSpec);
+        columnHeaderTable.measure(measureSpec, measureSpec);
+        rowHeaderTable.measure(measureSpec, measureSpec);
+        cornerTable.measure(measureSpec, measureSpec);
+    }
+
+    /**
+     * Remeasure all the adapter's cells after it has notified a change
+     */
+    private void measureAdapterCells() {
+        if (adapter == null || !(mainTable instanceof FixedHeaderVirtualSubTableLayout)) {
+            return;
+        }
+        if (isSizeDeclared(adapter.getColumnCount())) {
+            cancelCellTextMeasurer();
+            setDeclaredAdapterSizes();
+            updateAdapterTables();
+            tableMeasureCount++;
+            return;
+        }
+        if (startCellTextMeasurer()) {
+            // Keep showing the old sizes until the new ones are ready
+            return;
+        }
+        long startTime = tableMetricsListener != null ? System.nanoTime() : 0;
+        TableTrace.beginSection(TableTrace.MEASURE_ADAPTER_CELLS);
+        measureAdapterCellViews();
+        TableTrace.endSection();
+        long measuredTime = tableMetricsListener != null ? System.nanoTime() : 0;
+        TableTrace.beginSection(TableTrace.FIXED_MEASURE);
+        updateAdapterTables();
+        TableTrace.endSection();
+        tableMeasureCount++;
+        if (tableMetricsListener != null) {
+            tableMetricsListener.onTableMeasured(measuredTime - startTime, 0, System.nanoTime() - measuredTime);
+        }
+    }
+
+    /**
+     * Update the Sub Tables and boundaries after the TableMetrics have changed
+     */
+    private void updateAdapterTables() {
+        setAdapterTableMetrics();
+        updateTables();
+    }
+
+    /**
+     * Update the margins and boundaries after the Sub Tables have changed size
+     */
+    private void updateTables() {
+        updateTableMargins();
+        updateBounds();
+        // Recalculate the pan for the new boundaries without new pan or scale
+        calculatePanScale(0, 0, 0, 0, 1f);
+        requestLayout();
+    }
+
+    /**
+     * @return true if the sizes of every cell are known so a change can be applied on its own
+     */
+    private boolean prepareIncrementalUpdate() {
+        if (mainTable == null) {
+            return false;
+        }
+        if (cellTextMeasurer != null) {
+            // The sizes being measured might be from before the change so start again
+            measureAdapterCells();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the text of a cell from the adapter or the cell's TextView, null if it has none
+     */
+    @Nullable
+    CharSequence getCellText(int row, int column) {
+        if (adapter != null) {
+            return adapter.getCellText(row, column);
+        }
+        FixedHeaderSubTableLayout table = getSubTable(row, column);
+        View tableRow = table.getChildAt(row - table.getFirstRow());
+        return tableRow instanceof FixedHeaderTableRow ? ((FixedHeaderTableRow) tableRow).getCellText(column - table.getFirstColumn()) : null;
+    }
+
+    /**
+     * @return true if the main table is drawn by the LowDetailRenderer instead of its cells
+     */
+    private boolean isLowDetail() {
+        return scaleFactor < lowDetailScale;
+    }
+
+    /**
+     * @return the Sub Table the cell is in
+     */
+    private FixedHeaderSubTableLayout getSubTable(int row, int column) {
+        if (row < fixedRowCount) {
+            return column < fixedColumnCount ? cornerTable : columnHeaderTable;
+        }
+        return column < fixedColumnCount ? rowHeaderTable : mainTable;
+    }
+
+    /**
+     * Measure one cell to its natural size and store it in cellSizes
+     */
+    private void measureCell(int row, int column) {
+        cellMeasureCount++;
+        FixedHeaderSubTableLayout table = getSubTable(row, column);
+        int width = 0;
+        int height = 0;
+        if (adapter != null) {
+            int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+            View cell = cellViewPool.obtain(adapter, table, adapter.getCellViewType(row, column));
+            adapter.bindCell(row, column, cell);
+            cell.measure(measureSpec, measureSpec);
+            width = cell.getMeasuredWidth();
+            height = cell.getMeasuredHeight();
+            cellViewPool.recycle(cell);
+        } else {
+            FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row - table.getFirstRow());
+            int index = column - table.getFirstColumn();
+            if (tableRow != null && index < (tableRow.isDrawn() ? tableRow.getDrawnCellCount() : tableRow.getChildCount())) {
+                tableRow.measureCell(index);
+                width = tableRow.getCellWidth(index);
+                height = tableRow.getCellHeight(index);
+            }
+        }
+        cellSizes.set(row, column, width, height);
+    }
+
+    /**
+     * Grow or shrink a column after one of its cells has been measured again
+     * @return true if the column width changed
+     */
+    private boolean updateColumnWidth(int row, int column, int oldCellWidth) {
+        int columnWidth = tableMetrics.getColumnWidth(column);
+        int cellWidth = cellSizes.getWidth(row, column);
+        if (cellWidth > columnWidth) {
+            tableMetrics.setColumnWidth(column, constrainColumnWidth(column, cellWidth));
+        } else if (cellWidth < oldCellWidth && oldCellWidth >= columnWidth) {
+            // This was the widest cell so another cell might now be the widest
+            tableMetrics.setColumnWidth(column, constrainColumnWidth(column, cellSizes.getMaxWidth(column)));
+        }
+        return tableMetrics.getColumnWidth(column) != columnWidth;
+    }
+
+    /**
+     * Grow or shrink a row after one of its cells has been measured again
+     * @return true if the row height changed
+     */
+    private boolean updateRowHeight(int row, int column, int oldCellHeight) {
+        int rowHeight = tableMetrics.getRowHeight(row);
+        int cellHeight = cellSizes.getHeight(row, column);
+        if (cellHeight > rowHeight) {
+            tableMetrics.setRowHeight(row, constrainRowHeight(cellHeight));
+        } else if (cellHeight < oldCellHeight && oldCellHeight >= rowHeight) {
+            // This was the highest cell so another cell might now be the highest
+            tableMetrics.setRowHeight(row, constrainRowHeight(cellSizes.getMaxHeight(row)));
+        }
+        return tableMetrics.getRowHeight(row) != rowHeight;
+    }
+
+    /**
+     * Give the Sub Tables their first row and column again after rows or columns have been added or removed
+     */
+    private void setSubTableMetrics() {
+        if (adapter != null) {
+            // Also rebinds the visible cells
+            setAdapterTableMetrics();
+            return;
+        }
+        Utils.setTableMetrics(tableMetrics, fixedRowCount, fixedColumnCount, mainTable);
+        Utils.setTableMetrics(tableMetrics, 0, fixedColumnCount, columnHeaderTable);
+        Utils.setTableMetrics(tableMetrics, fixedRowCount, 0, rowHeaderTable);
+        Utils.setTableMetrics(tableMetrics, 0, 0, cornerTable);
+    }
+
+    private void setRowPreMeasured(FixedHeaderSubTableLayout table, int row) {
+        View tableRow = table.getChildAt(row - table.getFirstRow());
+        if (tableRow != null) {
+            ((FixedHeaderTableRow) tableRow).setPreMeasured(true);
+        }
+    }
+
+    private void cellInserted(FixedHeaderSubTableLayout table, int column) {
+        for (int i = 0; i < table.getChildCount(); i++) {
+            ((FixedHeaderTableRow) table.getChildAt(i)).cellInserted(column - table.getFirstColumn());
+        }
+    }
+
+    private void cellRemoved(FixedHeaderSubTableLayout table, int column) {
+        for (int i = 0; i < table.getChildCount(); i++) {
+            ((FixedHeaderTableRow) table.getChildAt(i)).cellRemoved(column - table.getFirstColumn());
+        }
+    }
+
+    private void forceLayoutRow(FixedHeaderSubTableLayout table, int row) {
+        if (table instanceof FixedHeaderVirtualSubTableLayout) {
+            // Only the bound rows are children
+            table.forceLayoutRows();
+            return;
+        }
+        View tableRow = table.getChildAt(row - table.getFirstRow());
+        if (tableRow != null) {
+            tableRow.forceLayout();
+        }
+        table.requestLayout();
+    }
+
+    /**
+     * Measure every row again after rows or columns have been added or removed
+     */
+    private void forceLayoutTables() {
+        if (tableUpdatePending) {
+            // Done here instead
+            tableUpdatePending = false;
+            removeCallbacks(tableUpdate);
+        }
+        mainTable.forceLayoutRows();
+        columnHeaderTable.forceLayoutRows();
+        rowHeaderTable.forceLayoutRows();
+        cornerTable.forceLayoutRows();
+        measureTables();
+        updateTables();
+    }
+
+    /**
+     * Tell the Sub Tables which part of them is visible with the current pan and scale
+     * so only those rows and cells are drawn, and with an adapter only those cells are bound
+     * @param width the width of this view
+     * @param height the height of this view
+     */
+    private void updateViewports(int width, int height) {
+        if (mainTable == null || mainTable.getParent() != this) {
+            return;
+        }
+        if (measuredRows != null && !measuringVisibleRows) {
+            measuringVisibleRows = true;
+            try {
+                boolean changed = false;
+                // Correcting the estimated row heights can bring more rows in to view
+                while (measureVisibleRows(width, height)) {
+                    changed = true;
+                }
+                if (changed) {
+                    // Also updates the viewports
+                    updateAdapterTables();
+                    return;
+                }
+            } finally {
+                measuringVisibleRows = false;
+            }
+        }
+        // Redrawing for a new viewport doesn't change the cells
+        ignoringInvalidations = true;
+        try {
+            updateViewport(mainTable, mainInverseMatrix, width, height);
+            updateViewport(columnHeaderTable, columnHeaderInverseMatrix, width, height);
+            updateViewport(rowHeaderTable, rowHeaderInverseMatrix, width, height);
+            updateViewport(cornerTable, cornerInverseMatrix, width, height);
+        } finally {
+            ignoringInvalidations = false;
+        }
+    }
+
+    private void updateViewport(FixedHeaderSubTableLayout table, Matrix inverseMatrix, int width, int height) {
+        // Use the margins as the Sub Table might not have been laid out yet
+        LayoutParams layoutParams = (LayoutParams) table.getLayoutParams();
+        mapViewport(inverseMatrix, width, height, getPaddingLeft() + layoutParams.leftMargin, getPaddingTop() + layoutParams.topMargin, viewportRect);
+        table.setViewport(viewportRect);
+    }
 
+    /**
+     * Map the visible area back from the drawn location to a Sub Table's laid out location
+     * @param inverseMatrix the inverse of the Sub Table's pan and scale matrix
+     * @param width the width of this view
+     * @param height the height of this view
+     * @param tableLeft the left of the Sub Table in this view
+     * @param tableTop the top of the Sub Table in this view
+     * @param viewport set to the visible area in the Sub Table's coordinates
+     */
+    private void mapViewport(Matrix inverseMatrix, int width, int height, float tableLeft, float tableTop, RectF viewport) {
+        viewport.set(0, 0, width, height);
+        inverseMatrix.mapRect(viewport);
+        viewport.offset(-tableLeft, -tableTop);
+    }
 
-    public FixedHeaderTableLayout(Context context) {
-        super(context);
-        initialDefaultValues(null);
-        init(context);
+    /**
+     * @return true if the main table should be drawn from tiles
+     */
+    private boolean isDrawingTiles() {
+        return tileCache != null && !(mainTable instanceof FixedHeaderVirtualSubTableLayout) && isGesturing();
     }
 
-    public FixedHeaderTableLayout(Context context, AttributeSet attrs) {
-        super(context, attrs);
-        initialDefaultValues(attrs);
-        init(context);
+    /**
+     * @return true while dragging, scaling, flinging or animating a scroll
+     */
+    private boolean isGesturing() {
+        return isScrolling || scaling || !mScroller.isFinished()
+                || (mScrollAnimator != null && mScrollAnimator.isRunning());
     }
 
-    public FixedHeaderTableLayout(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
-        super(context, attrs, defStyleAttr);
-        initialDefaultValues(null);
-        init(context);
+    private void startGesture() {
+        if (tileCache != null && Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            // Changed cells are not reported before Oreo so the tiles might be out of date
+            tileCache.clear();
+        }
+        addGestureLayers();
     }
 
-    private void initialDefaultValues(@Nullable AttributeSet attrs) {
-        if (attrs == null) {
-            // That means the class is created programmatically.
+    /**
+     * Called when any part of a gesture ends, only acts once the whole gesture has ended
+     */
+    private void endGesture() {
+        if (isGesturing()) {
             return;
         }
+        removeGestureLayers();
+        if (tileCache != null) {
+            // Draw the cells again instead of the tiles
+            invalidate();
+        }
+    }
 
-        // Get values from xml attributes
-        TypedArray a = getContext().getTheme().obtainStyledAttributes(attrs, R.styleable
-                .FixedHeaderTableLayout, 0, 0);
-
+    private void addGestureLayers() {
+        if (!gestureLayers || gestureLayersActive || mainTable == null || !isHardwareAccelerated()) {
+            return;
+        }
+        gestureLayersActive = true;
+        long layerBytes = 0;
+        ignoringInvalidations = true;
         try {
-            minScale = a.getFloat(R.styleable.FixedHeaderTableLayout_fhtl_min_scale, minScale);
-            maxScale = a.getFloat(R.styleable.FixedHeaderTableLayout_fhtl_max_scale, maxScale);
+            layerBytes += addGestureLayer(columnHeaderTable);
+            layerBytes += addGestureLayer(rowHeaderTable);
+            layerBytes += addGestureLayer(cornerTable);
+            if (tileCache == null) {
+                long mainTableBytes = addGestureLayer(mainTable);
+                if (mainTableBytes == 0 && !(mainTable instanceof FixedHeaderVirtualSubTableLayout)) {
+                    // Too big for a layer so use tiles for this gesture
+                    gestureTiles = true;
+                    tileCache = new TileCache(tileCacheSize);
+                }
+                layerBytes += mainTableBytes;
+            }
         } finally {
-            a.recycle();
+            ignoringInvalidations = false;
+        }
+        if (tableMetricsListener != null) {
+            tableMetricsListener.onGestureLayersChanged(layerBytes, gestureTiles);
         }
     }
 
-    private void init(Context context){
-       //Log.d(LOG_TAG, "mainTable:init");
-
-        // Get our current View slop for Scrolling
-        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
-        //Log.d(LOG_TAG, "mTouchSlop:" + mTouchSlop);
-
-        // As we extend a ViewGroup these won't draw anything by default
-        // enable ViewGroup drawing so the scrollbars show
-        setWillNotDraw(false);
-        gestureScale = new ScaleGestureDetector(context, this);
-    }
-
-    @SuppressWarnings({"UnusedDeclaration"})
-    public void setMinScale(float minScale){
-        this.minScale = minScale;
+    /**
+     * @return the estimated bytes of the layer or 0 if the table is too big for a layer
+     */
+    private long addGestureLayer(FixedHeaderSubTableLayout table) {
+        int width = table.getWidth();
+        int height = table.getHeight();
+        if (width == 0 || height == 0 || width > maxLayerWidth || height > maxLayerHeight) {
+            return 0;
+        }
+        table.setLayerType(LAYER_TYPE_HARDWARE, null);
+        return (long) width * height * 4;
     }
 
-    @SuppressWarnings({"UnusedDeclaration"})
-    public float getMinScale() {
-        return minScale;
+    private void removeGestureLayers() {
+        if (!gestureLayersActive || mainTable == null) {
+            return;
+        }
+        gestureLayersActive = false;
+        ignoringInvalidations = true;
+        try {
+            mainTable.setLayerType(LAYER_TYPE_NONE, null);
+            columnHeaderTable.setLayerType(LAYER_TYPE_NONE, null);
+            rowHeaderTable.setLayerType(LAYER_TYPE_NONE, null);
+            cornerTable.setLayerType(LAYER_TYPE_NONE, null);
+        } finally {
+            ignoringInvalidations = false;
+        }
+        if (gestureTiles) {
+            gestureTiles = false;
+            tileCache = null;
+        }
+        if (tableMetricsListener != null) {
+            tableMetricsListener.onGestureLayersChanged(0, false);
+        }
     }
 
-    @SuppressWarnings({"UnusedDeclaration"})
-    public void setMaxScale(float maxScale){
-        this.maxScale = maxScale;
+    /**
+     * Remove the tiles showing a cell that has changed
+     */
+    @Override
+    public void onDescendantInvalidated(@NonNull View child, @NonNull View target) {
+        super.onDescendantInvalidated(child, target);
+        if ((tileCache == null && overview == null) || child != mainTable || ignoringInvalidations) {
+            return;
+        }
+        dirtyRect.set(0, 0, target.getWidth(), target.getHeight());
+        for (View view = target; view != mainTable; view = (View) view.getParent()) {
+            dirtyRect.offset(view.getLeft() - view.getScrollX(), view.getTop() - view.getScrollY());
+        }
+        if (tileCache != null) {
+            tileCache.invalidate(dirtyRect);
+        }
+        if (overview != null) {
+            overview.mainTableInvalidated(dirtyRect);
+        }
     }
 
-    @SuppressWarnings({"UnusedDeclaration"})
-    public float getMaxScale() {
-        return maxScale;
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        TableTrace.beginSection(TableTrace.LAYOUT);
+        super.onLayout(changed, left, top, right, bottom);
+        TableTrace.endSection();
+        if (tileCache != null) {
+            // Cells might have moved
+            tileCache.clear();
+        }
+        if (overview != null) {
+            overview.mainTableLaidOut();
+        }
     }
 
     /**
-     * Add the four tables that make up the Layout
-     *
-     * @param mainTable the mainTable
-     * @param columnHeaderTable the columnHeaderTable
-     * @param rowHeaderTable the rowHeaderTable
-     * @param cornerTable the cornerTable
+     * Add the four measured Sub Tables as children of this Layout
      */
-    @SuppressWarnings({"UnusedDeclaration"})
-    public void addViews(FixedHeaderSubTableLayout mainTable, FixedHeaderSubTableLayout columnHeaderTable,
-                         FixedHeaderSubTableLayout rowHeaderTable, FixedHeaderSubTableLayout cornerTable){
+    private void attachTables(FixedHeaderSubTableLayout mainTable, FixedHeaderSubTableLayout columnHeaderTable,
+                              FixedHeaderSubTableLayout rowHeaderTable, FixedHeaderSubTableLayout cornerTable) {
+        // Remove any previous Sub Tables
+        removeAllViews();
 
         // Store instances for later comparison;
         this.mainTable = mainTable;
@@ -183,64 +2026,18 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
             cornerTable.setId(R.id.CornerTable);
         }
 
-        // Need to measure all Tables to full (UNSPECIFIED) size
-        int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
-        //Log.d(LOG_TAG, "mainTable:preMeasure");
-        mainTable.measure(measureSpec, measureSpec);
-        //Log.d(LOG_TAG, "columnHeaderTable:preMeasure");
-        columnHeaderTable.measure(measureSpec, measureSpec);
-        //Log.d(LOG_TAG, "rowHeaderTable:preMeasure");
-        rowHeaderTable.measure(measureSpec, measureSpec);
-        //Log.d(LOG_TAG, "cornerTable:preMeasure");
-        cornerTable.measure(measureSpec, measureSpec);
-
-        // Merge of the widths and height to align all the table rows
-        // Get the max column width in mainTable and columnHeaderTable
-        ArrayList<Integer> overallRightSideMaxColumnWidth = new ArrayList<>();
-        overallRightSideMaxColumnWidth = Utils.calculateMaxColumnWidth(overallRightSideMaxColumnWidth, mainTable);
-        overallRightSideMaxColumnWidth = Utils.calculateMaxColumnWidth(overallRightSideMaxColumnWidth, columnHeaderTable);
-        //Log.d(LOG_TAG, "overallRightSideMaxColumnWidth:" + overallRightSideMaxColumnWidth);
-        // Set the new max column width in mainTable and columnHeaderTable
-        Utils.setMaxColumnWidth(overallRightSideMaxColumnWidth, mainTable);
-        Utils.setMaxColumnWidth(overallRightSideMaxColumnWidth, columnHeaderTable);
-        // Get the max column width in cornerTable and rowHeaderTable
-        ArrayList<Integer> overallLeftSideMaxColumnWidth = new ArrayList<>();
-        overallLeftSideMaxColumnWidth = Utils.calculateMaxColumnWidth(overallLeftSideMaxColumnWidth, rowHeaderTable);
-        overallLeftSideMaxColumnWidth = Utils.calculateMaxColumnWidth(overallLeftSideMaxColumnWidth, cornerTable);
-        //Log.d(LOG_TAG, "overallLeftSideMaxColumnWidth:" + overallLeftSideMaxColumnWidth);
-        // Set the new max column width in mainTable and columnHeaderTable
-        Utils.setMaxColumnWidth(overallLeftSideMaxColumnWidth, rowHeaderTable);
-        Utils.setMaxColumnWidth(overallLeftSideMaxColumnWidth, cornerTable);
-
-        // Get the max row height in mainTable and rowHeaderTable
-        ArrayList<Integer> overallBottomSideMaxRowHeights = new ArrayList<>();
-        overallBottomSideMaxRowHeights = Utils.calculateMaxRowHeight(overallBottomSideMaxRowHeights, mainTable);
-        overallBottomSideMaxRowHeights = Utils.calculateMaxRowHeight(overallBottomSideMaxRowHeights, rowHeaderTable);
-        //Log.d(LOG_TAG, "overallBottomSideMaxRowHeights:" + overallBottomSideMaxRowHeights);
-        // Set the max row height in mainTable and rowHeaderTable
-        Utils.setMaxRowHeight(overallBottomSideMaxRowHeights, mainTable);
-        Utils.setMaxRowHeight(overallBottomSideMaxRowHeights, rowHeaderTable);
-
-        // Get the max row height in columnHeaderTable and cornerTable
-        ArrayList<Integer> overallTopSideMaxRowHeights = new ArrayList<>();
-        overallTopSideMaxRowHeights = Utils.calculateMaxRowHeight(overallTopSideMaxRowHeights, columnHeaderTable);
-        overallTopSideMaxRowHeights = Utils.calculateMaxRowHeight(overallTopSideMaxRowHeights, cornerTable);
-        //Log.d(LOG_TAG, "overallTopSideMaxRowHeights:" + overallTopSideMaxRowHeights);
-        // Set the max row height in mainTable and rowHeaderTable
-        Utils.setMaxRowHeight(overallTopSideMaxRowHeights, columnHeaderTable);
-        Utils.setMaxRowHeight(overallTopSideMaxRowHeights, cornerTable);
+        updateTableMargins();
 
+        // Add the views
+        addView(mainTable);
+        addView(columnHeaderTable);
+        addView(rowHeaderTable);
+        addView(cornerTable);
 
-        // Remeasure Tables using the new set of aligned Heights and widths
-        //Log.d(LOG_TAG, "mainTable:fixedMeasure");
-        mainTable.measure(measureSpec, measureSpec);
-        //Log.d(LOG_TAG, "columnHeaderTable:fixedMeasure");
-        columnHeaderTable.measure(measureSpec, measureSpec);
-        //Log.d(LOG_TAG, "rowHeaderTable:fixedMeasure");
-        rowHeaderTable.measure(measureSpec, measureSpec);
-        //Log.d(LOG_TAG, "cornerTable:fixedMeasure");
-        cornerTable.measure(measureSpec, measureSpec);
+        updateBounds();
+    }
 
+    private void updateTableMargins() {
         // mainTable margin is on the Top and Left to make space for the over views
         LayoutParams mainTableLayoutParams = new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
         //Log.d(LOG_TAG, "mainTableLayoutParams:leftMargin:" + rowHeaderTable.getMeasuredWidth());
@@ -260,14 +2057,9 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
         //Log.d(LOG_TAG, "rowHeaderTableLayoutParams:topMargin:" + cornerTable.getMeasuredHeight());
         rowHeaderTableLayoutParams.topMargin = cornerTable.getMeasuredHeight();
         rowHeaderTable.setLayoutParams(rowHeaderTableLayoutParams);
+    }
 
-
-        // Add the views
-        addView(mainTable);
-        addView(columnHeaderTable);
-        addView(rowHeaderTable);
-        addView(cornerTable);
-
+    private void updateBounds() {
         // Set Boundaries
         rightBound = cornerTable.getMeasuredWidth() + columnHeaderTable.getMeasuredWidth();
         bottomBound = cornerTable.getMeasuredHeight() + rowHeaderTable.getMeasuredHeight();
@@ -288,28 +2080,33 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
      * @param newScaleFactor new Factor to scale the drawn TableLayout
      */
     public void calculatePanScale(float distanceX, float distanceY, float centerX, float centerY, float newScaleFactor){
-        Log.d(LOG_TAG, "input = " + distanceX + ":" + distanceY + ":" + centerX + ":" + centerY + ":" + newScaleFactor);
-        Log.d(LOG_TAG, "existing = " + panX + ":" + panY + ":" + scaleFactor);
+        TableTrace.beginSection(TableTrace.PAN_SCALE);
+        final float oldPanX = panX;
+        final float oldPanY = panY;
+        if (TableTrace.LOGGING) {
+            Log.d(LOG_TAG, "input = " + distanceX + ":" + distanceY + ":" + centerX + ":" + centerY + ":" + newScaleFactor);
+            Log.d(LOG_TAG, "existing = " + panX + ":" + panY + ":" + scaleFactor);
+        }
         int width = getWidth();
         int height = getHeight();
         //Log.d(LOG_TAG, "view size = " + width + " x " + height);
 
         // Map the center point from drawn location to laid out location
         // which is the inverse of the laid out location to drawn location matrix
-        Matrix oldMatrix = new Matrix();
-        mainMatrix.invert(oldMatrix);
-
-        float[] mappedCenter = new float[2];
         mappedCenter[0] = centerX;
         mappedCenter[1] = centerY;
-        oldMatrix.mapPoints(mappedCenter);
-        Log.d(LOG_TAG, "mappedCenter = " + mappedCenter[0] + ":" + mappedCenter[1]);
+        mainInverseMatrix.mapPoints(mappedCenter);
+        if (TableTrace.LOGGING) {
+            Log.d(LOG_TAG, "mappedCenter = " + mappedCenter[0] + ":" + mappedCenter[1]);
+        }
 
 
         scaleFactor *= newScaleFactor;
         // Don't let the object get too small or too large.
         scaleFactor = Math.max(minScale, Math.min(scaleFactor, maxScale));
-        Log.d(LOG_TAG, "calculatePanScale: scale factor = " + scaleFactor);
+        if (TableTrace.LOGGING) {
+            Log.d(LOG_TAG, "calculatePanScale: scale factor = " + scaleFactor);
+        }
 
         mainMatrix.setScale(scaleFactor, scaleFactor);
         columnHeaderMatrix.setScale(scaleFactor, scaleFactor);
@@ -319,7 +2116,6 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
         if (scaleFactor < maxScale && scaleFactor > minScale  && newScaleFactor != 1.0f) {
 
             // Map the mappedCenter to the new drawn location using the updated mainMatrix
-            float[] centerPoint = new float[2];
             centerPoint[0] = mappedCenter[0] * scaleFactor;
             centerPoint[1] = mappedCenter[1] * scaleFactor;
             //mainMatrix.mapPoints(centerPoint);
@@ -331,7 +2127,9 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
 
             distanceX = distanceX + (adjustDiffX * scaleFactor);
             distanceY = distanceY + (adjustDiffY * scaleFactor);
-            //Log.d(LOG_TAG, "adjustDistance = " + distanceX + "," + distanceY);
+            if (TableTrace.LOGGING) {
+                Log.d(LOG_TAG, "adjustDistance = " + distanceX + "," + distanceY);
+            }
         }
 
         scaledRightBound = rightBound * scaleFactor;
@@ -344,7 +2142,9 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
 
         panX = Math.min(0, Math.max(maxPanX,(panX - distanceX)));
         panY = Math.min(0, Math.max(maxPanY,(panY - distanceY)));
-        Log.d(LOG_TAG, "calculatePanScale: Pan " + panX + ":" + panY);
+        if (TableTrace.LOGGING) {
+            Log.d(LOG_TAG, "calculatePanScale: Pan " + panX + ":" + panY);
+        }
 
         float scaledPanX = panX * scaleFactor;
         float scaledPanY = panY * scaleFactor;
@@ -353,9 +2153,162 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
         mainMatrix.postTranslate(panX, panY);
         columnHeaderMatrix.postTranslate(panX, 0);
         rowHeaderMatrix.postTranslate(0, panY);
+        updateInverseMatrices();
 
+        // Bind any adapter cells that have scrolled into view
+        updateViewports(width, height);
 
-        invalidate();
+        invalidatePanScale(panX != oldPanX, panY != oldPanY, scaleFactor != invalidatedScaleFactor);
+        TableTrace.endSection();
+    }
+
+    /**
+     * Draw the Layout again after a pan or scale, nothing is drawn again when the pan was already at its limit
+     * When hardware accelerated the whole Layout is recorded again but a Sub Table only draws its rows again
+     * when its visible rows or cells changed, otherwise its display list is reused. In software only the panes
+     * that moved are drawn, a horizontal pan moves the main table and column header and a vertical pan the main
+     * table and row header.
+     */
+    private void invalidatePanScale(boolean pannedX, boolean pannedY, boolean scaled) {
+        if (!pannedX && !pannedY && !scaled) {
+            return;
+        }
+        if (scaled || mainTable == null || isHardwareAccelerated()) {
+            // A dirty area is ignored when hardware accelerated
+            invalidatedScaleFactor = scaleFactor;
+            invalidate();
+        } else {
+            invalidatePane(mainTable);
+            if (pannedX) {
+                invalidatePane(columnHeaderTable);
+            }
+            if (pannedY) {
+                invalidatePane(rowHeaderTable);
+            }
+        }
+        if (overview != null) {
+            // Only the viewport rectangle moves
+            overview.invalidate();
+        }
+    }
+
+    /**
+     * Invalidate the area a Sub Table is drawn in, only used when drawing in software
+     */
+    @SuppressWarnings("deprecation")
+    private void invalidatePane(View table) {
+        getSubTablePane(table, paneRect);
+        paneRect.roundOut(invalidateBounds);
+        invalidate(invalidateBounds);
+    }
+
+    /**
+     * The area of this Layout a Sub Table is drawn in
+     * The headers stay at the top and left edges and the main table fills the rest so the areas never overlap
+     * @param table the Sub Table
+     * @param pane set to the area
+     */
+    private void getSubTablePane(View table, RectF pane) {
+        float left = table.getLeft() * scaleFactor;
+        float top = table.getTop() * scaleFactor;
+        if (table == mainTable) {
+            pane.set(left, top, getWidth(), getHeight());
+        } else if (table == columnHeaderTable) {
+            pane.set(left, top, getWidth(), table.getBottom() * scaleFactor);
+        } else if (table == rowHeaderTable) {
+            pane.set(left, top, table.getRight() * scaleFactor, getHeight());
+        } else {
+            pane.set(left, top, table.getRight() * scaleFactor, table.getBottom() * scaleFactor);
+        }
+    }
+
+    /**
+     * @param table the Sub Table passing an invalidated area up to this Layout or null once it has
+     */
+    void setInvalidatingSubTable(@Nullable View table) {
+        invalidatingSubTable = table;
+    }
+
+    /**
+     * Map an invalidated area of a Sub Table through its pan and scale so only the changed cell is drawn again,
+     * used when drawing in software
+     */
+    @SuppressWarnings("deprecation")
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+        View table = invalidatingSubTable;
+        invalidatingSubTable = null;
+        if (table != null && table.getParent() == this) {
+            invalidateRect.set(dirty);
+            invalidateRect.offset(location[0], location[1]);
+            getSubTableMatrix(table).mapRect(invalidateRect);
+            getSubTablePane(table, paneRect);
+            if (invalidateRect.intersect(paneRect)) {
+                invalidateRect.roundOut(dirty);
+            } else {
+                dirty.setEmpty();
+            }
+        } else {
+            // Not known which pan and scale the area was drawn with
+            dirty.set(0, 0, getWidth(), getHeight());
+        }
+        // The dirty area is now in this Layout's coordinates
+        location[0] = 0;
+        location[1] = 0;
+        return super.invalidateChildInParent(location, dirty);
+    }
+
+    /**
+     * Show the scrollbars while panning without drawing the whole Layout again, the pan invalidates what has moved
+     */
+    @SuppressWarnings("deprecation")
+    private void awakenPanScrollBars() {
+        if (!awakenScrollBars(ViewConfiguration.getScrollDefaultDelay(), false)) {
+            return;
+        }
+        if (isVerticalScrollBarEnabled()) {
+            invalidateBounds.set(getWidth() - getVerticalScrollbarWidth(), 0, getWidth(), getHeight());
+            invalidate(invalidateBounds);
+        }
+        if (isHorizontalScrollBarEnabled()) {
+            invalidateBounds.set(0, getHeight() - getHorizontalScrollbarHeight(), getWidth(), getHeight());
+            invalidate(invalidateBounds);
+        }
+    }
+
+    private Matrix getSubTableMatrix(View table) {
+        if (table == mainTable) {
+            return mainMatrix;
+        } else if (table == columnHeaderTable) {
+            return columnHeaderMatrix;
+        } else if (table == rowHeaderTable) {
+            return rowHeaderMatrix;
+        }
+        return cornerMatrix;
+    }
+
+    /**
+     * Invert the matrices once per pan or scale instead of for every touch event
+     */
+    private void updateInverseMatrices() {
+        cornerMatrix.invert(cornerInverseMatrix);
+        columnHeaderMatrix.invert(columnHeaderInverseMatrix);
+        rowHeaderMatrix.invert(rowHeaderInverseMatrix);
+        mainMatrix.invert(mainInverseMatrix);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // Bind the visible adapter cells before the Sub Tables are measured
+        updateViewports(MeasureSpec.getSize(widthMeasureSpec), MeasureSpec.getSize(heightMeasureSpec));
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // The measured size might not have been the final size
+        updateViewports(w, h);
     }
 
     // We don't allow adding Views directly use addViews instead
@@ -369,14 +2322,84 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
         }
     }
 
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (canvas.isHardwareAccelerated()) {
+            // A layer is limited to the largest Bitmap the hardware canvas can draw
+            maxLayerWidth = canvas.getMaximumBitmapWidth();
+            maxLayerHeight = canvas.getMaximumBitmapHeight();
+        }
+        TableTrace.beginSection(TableTrace.DRAW);
+        if (tableMetricsListener == null) {
+            super.dispatchDraw(canvas);
+        } else {
+            long startTime = System.nanoTime();
+            super.dispatchDraw(canvas);
+            tableMetricsListener.onFrameDrawn(System.nanoTime() - startTime, tableMeasureCount, cellMeasureCount,
+                    cellViewPool.getReusedCount());
+        }
+        TableTrace.endSection();
+    }
+
     @Override
     protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (tableMetricsListener == null || !(child instanceof FixedHeaderSubTableLayout)) {
+            return drawSubTable(canvas, child, drawingTime);
+        }
+        FixedHeaderSubTableLayout table = (FixedHeaderSubTableLayout) child;
+        table.resetDrawnCounts();
+        long startTime = System.nanoTime();
+        boolean result = drawSubTable(canvas, child, drawingTime);
+        long drawTime = System.nanoTime() - startTime;
+        int subTable;
+        if (child == mainTable) {
+            subTable = TableMetricsListener.MAIN_TABLE;
+        } else if (child == columnHeaderTable) {
+            subTable = TableMetricsListener.COLUMN_HEADER_TABLE;
+        } else if (child == rowHeaderTable) {
+            subTable = TableMetricsListener.ROW_HEADER_TABLE;
+        } else {
+            subTable = TableMetricsListener.CORNER_TABLE;
+        }
+        tableMetricsListener.onSubTableDrawn(subTable, drawTime, table.getDrawnRowCount(), table.getDrawnCellCount());
+        return result;
+    }
+
+    private boolean drawSubTable(Canvas canvas, View child, long drawingTime) {
         boolean result;
+        getSubTablePane(child, paneRect);
+        canvas.getClipBounds(clipBounds);
+        if (!paneRect.intersects(clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom)) {
+            // Not in the invalidated area, only happens when drawing in software
+            return false;
+        }
         int save = canvas.save();
+        // Keep the main table from drawing under the headers
+        canvas.clipRect(paneRect);
         //Log.d(LOG_TAG, "drawChild:" + Integer.toHexString(System.identityHashCode(child)));
         if (child == mainTable) {
             //Log.d(LOG_TAG, "drawChild:mainTable");
             canvas.concat(mainMatrix);
+            if (isLowDetail()) {
+                // Draw simplified cells or summary tiles instead of the cells
+                mapViewport(mainInverseMatrix, getWidth(), getHeight(), child.getLeft(), child.getTop(), tileViewportRect);
+                tileViewportRect.offset(-mainTable.getPaddingLeft(), -mainTable.getPaddingTop());
+                canvas.translate(child.getLeft() + mainTable.getPaddingLeft(), child.getTop() + mainTable.getPaddingTop());
+                mainTable.addDrawnCells(lowDetailRenderer.draw(canvas, this, tableMetrics, fixedRowCount, fixedColumnCount,
+                        tileViewportRect, scaleFactor, scaleFactor < summaryScale));
+                canvas.restoreToCount(save);
+                return false;
+            }
+            if (isDrawingTiles()) {
+                // Draw the tiles instead of the cells
+                mapViewport(mainInverseMatrix, getWidth(), getHeight(), child.getLeft(), child.getTop(), tileViewportRect);
+                canvas.translate(child.getLeft(), child.getTop());
+                TableTrace.beginSection(TableTrace.DRAW_TILES);
+                tileCache.draw(canvas, mainTable, tileViewportRect, scaleFactor);
+                TableTrace.endSection();
+                canvas.restoreToCount(save);
+                return false;
+            }
         } else if (child == columnHeaderTable) {
             //Log.d(LOG_TAG, "drawChild:columnHeaderTable");
             canvas.concat(columnHeaderMatrix);
@@ -393,8 +2416,17 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
         return result;
     }
 
-        @Override
+    @Override
     public boolean dispatchTouchEvent(MotionEvent ev) {
+        TableTrace.beginSection(TableTrace.TOUCH);
+        try {
+            return dispatchTableTouchEvent(ev);
+        } finally {
+            TableTrace.endSection();
+        }
+    }
+
+    private boolean dispatchTableTouchEvent(MotionEvent ev) {
         /* Work out if this ViewGroup needs the event to scroll/scale
          *  This has to be done here instead of onInterceptTouchEvent
          * as all other events need to be mapped and must not be disabled by any child
@@ -406,10 +2438,7 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
 
         if (gestureScale.isInProgress()) {
             // Need to cancel anything we have sent to the children
-            MotionEvent transformEvent = MotionEvent.obtain(ev);
-            transformEvent.setAction(MotionEvent.ACTION_CANCEL);
-            super.dispatchTouchEvent(transformEvent);
-            transformEvent.recycle();
+            cancelChildren(ev);
             return true;
         }
 
@@ -426,6 +2455,16 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
                 mFirstTouchX = x;
                 mFirstTouchY = y;
                 mActivePointerId = ev.getPointerId(0);
+                childrenCancelled = false;
+
+                // A touch stops any fling or animated scroll
+                stopScrolling();
+                if (mVelocityTracker == null) {
+                    mVelocityTracker = VelocityTracker.obtain();
+                } else {
+                    mVelocityTracker.clear();
+                }
+                mVelocityTracker.addMovement(ev);
 
                 // Need to send this to our children but mapped for scale and pan;
                 //Log.d(LOG_TAG, "dispatchTouchEvent Down Action");
@@ -442,6 +2481,9 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
                 final int pointerIndex = ev.findPointerIndex(mActivePointerId);
                 final float x = ev.getX(pointerIndex);
                 final float y = ev.getY(pointerIndex);
+                if (mVelocityTracker != null) {
+                    mVelocityTracker.addMovement(ev);
+                }
 
                 // Only move if the ScaleGestureDetector isn't processing a gesture.
                 if (!gestureScale.isInProgress()) {
@@ -452,6 +2494,7 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
                     //Log.d(LOG_TAG, "dispatchTouchEvent absx:absy = " + absx + ":" + absy);
                     if (!isScrolling && (absx > mTouchSlop || absy > mTouchSlop)) {
                         isScrolling = true;
+                        startGesture();
                     }
 
                     final float dx = mLastTouchX - x;
@@ -459,22 +2502,19 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
 
                     if (isScrolling) {
                         //Log.d(LOG_TAG, "dispatchTouchEvent scrolling = " + dx + ":" + dy);
-                        awakenScrollBars();
+                        awakenPanScrollBars();
                         calculatePanScale(dx, dy, 0, 0, 1);
-                        
+                        if (tableMetricsListener != null) {
+                            tableMetricsListener.onTouchInvalidated(SystemClock.uptimeMillis() - ev.getEventTime());
+                        }
+
                         // Need to cancel anything we have sent to the children
-                        MotionEvent transformEvent = MotionEvent.obtain(ev);
-                        transformEvent.setAction(MotionEvent.ACTION_CANCEL);
-                        super.dispatchTouchEvent(transformEvent);
-                        transformEvent.recycle();
+                        cancelChildren(ev);
                     }
                 } else {
                     // Doing scale so
                     // Need to cancel anything we have sent to the children
-                    MotionEvent transformEvent = MotionEvent.obtain(ev);
-                    transformEvent.setAction(MotionEvent.ACTION_CANCEL);
-                    super.dispatchTouchEvent(transformEvent);
-                    transformEvent.recycle();
+                    cancelChildren(ev);
                 }
 
                 mLastTouchX = x;
@@ -485,11 +2525,24 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
 
             case MotionEvent.ACTION_UP: {
                     //Log.d(LOG_TAG, "dispatchTouchEvent Cancel Action");
+                if (isScrolling && mVelocityTracker != null) {
+                    mVelocityTracker.addMovement(ev);
+                    mVelocityTracker.computeCurrentVelocity(1000, mMaximumFlingVelocity);
+                    fling(mVelocityTracker.getXVelocity(mActivePointerId), mVelocityTracker.getYVelocity(mActivePointerId));
+                }
             }
 
             case MotionEvent.ACTION_CANCEL: {
                 mActivePointerId = INVALID_POINTER_ID;
+                if (mVelocityTracker != null) {
+                    mVelocityTracker.recycle();
+                    mVelocityTracker = null;
+                }
+                boolean wasScrolling = isScrolling;
                 isScrolling = false;
+                if (wasScrolling) {
+                    endGesture();
+                }
                 // Need to send this to our children but mapped for scale and pan;
                 //Log.d(LOG_TAG, "dispatchTouchEvent Cancel Action");
                 MotionEvent event = mapMotionEvent(ev);
@@ -519,8 +2572,68 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
         return true;
     }
 
+    /**
+     * Keep panning after the drag has ended, slowing down until stopped
+     * @param velocityX the drag velocity in pixels per second
+     * @param velocityY the drag velocity in pixels per second
+     */
+    private void fling(float velocityX, float velocityY) {
+        if (Math.abs(velocityX) < mMinimumFlingVelocity && Math.abs(velocityY) < mMinimumFlingVelocity) {
+            return;
+        }
+        mLastFlingX = Math.round(-panX);
+        mLastFlingY = Math.round(-panY);
+        int maxX = Math.max(0, Math.round(scaledRightBound - getWidth()));
+        int maxY = Math.max(0, Math.round(scaledBottomBound - getHeight()));
+        // Dragging left moves the table left which is a positive scroll
+        mScroller.fling(mLastFlingX, mLastFlingY, Math.round(-velocityX), Math.round(-velocityY), 0, maxX, 0, maxY);
+        postInvalidateOnAnimation();
+    }
+
+    /**
+     * Apply the next step of a fling, called each frame while drawing
+     */
+    @Override
+    public void computeScroll() {
+        if (mScroller.isFinished()) {
+            return;
+        }
+        if (mScroller.computeScrollOffset()) {
+            int x = mScroller.getCurrX();
+            int y = mScroller.getCurrY();
+            final float oldPanX = panX;
+            final float oldPanY = panY;
+            // Same pan clamping as a drag, this also invalidates for the next frame
+            awakenPanScrollBars();
+            calculatePanScale(x - mLastFlingX, y - mLastFlingY, 0, 0, 1);
+            mLastFlingX = x;
+            mLastFlingY = y;
+            if (panX == oldPanX && panY == oldPanY && !mScroller.isFinished()) {
+                // Nothing moved this frame so nothing was invalidated, keep the fling going
+                postInvalidateOnAnimation();
+            }
+        }
+        if (mScroller.isFinished()) {
+            endGesture();
+        }
+    }
+
+    /**
+     * Send a cancel to the children, only once per gesture as after that they have nothing to cancel
+     */
+    private void cancelChildren(MotionEvent ev) {
+        if (childrenCancelled) {
+            return;
+        }
+        childrenCancelled = true;
+        MotionEvent transformEvent = MotionEvent.obtain(ev);
+        transformEvent.setAction(MotionEvent.ACTION_CANCEL);
+        super.dispatchTouchEvent(transformEvent);
+        transformEvent.recycle();
+    }
+
     private MotionEvent mapMotionEvent(MotionEvent ev){
-        Matrix mappingMatrix = new Matrix();
+        Matrix mappingMatrix;
 
         // May be we have not generated the cornerTable Yet so nothing to map event with
         if (cornerTable == null || cornerTable.getWidth() == 0 || cornerTable.getHeight() == 0) {
@@ -530,7 +2643,6 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
 
         // Work out which matrix to use to map the click
         // Find the corner point
-        float[] cornerPoint = new float[2];
         cornerPoint[0] = cornerTable.getWidth();
         cornerPoint[1] = cornerTable.getHeight();
         //Log.d(LOG_TAG, "cornerPoint = " + cornerPoint[0] + ":" + cornerPoint[1]);
@@ -541,22 +2653,22 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
             if (ev.getX() <= cornerPoint[0]){
                 // It's corner matrix
                 //Log.d(LOG_TAG, "corner Matrix");
-                cornerMatrix.invert(mappingMatrix);
+                mappingMatrix = cornerInverseMatrix;
             } else {
                 // It's column header matrix
                 //Log.d(LOG_TAG, "column header Matrix");
-                columnHeaderMatrix.invert(mappingMatrix);
+                mappingMatrix = columnHeaderInverseMatrix;
             }
         } else {
             // It is either row header or main matrix
             if (ev.getX() <= cornerPoint[0]){
                 // It's row header matrix
                 //Log.d(LOG_TAG, "row header Matrix");
-                rowHeaderMatrix.invert(mappingMatrix);
+                mappingMatrix = rowHeaderInverseMatrix;
             } else {
                 // It's main matrix
                 //Log.d(LOG_TAG, "main Matrix");
-                mainMatrix.invert(mappingMatrix);
+                mappingMatrix = mainInverseMatrix;
             }
         }
 
@@ -573,18 +2685,26 @@ public class FixedHeaderTableLayout extends FrameLayout implements ScaleGestureD
         //Log.d(LOG_TAG, "onScale");
         // Don't change the pan just scale
         calculatePanScale( 0, 0, detector.getFocusX(), detector.getFocusY(),detector.getScaleFactor());
+        if (tableMetricsListener != null) {
+            tableMetricsListener.onTouchInvalidated(SystemClock.uptimeMillis() - detector.getEventTime());
+        }
         return true;
     }
 
     @Override
     public boolean onScaleBegin(ScaleGestureDetector detector) {
         //Log.d(LOG_TAG, "scale begin");
+        stopScrolling();
+        scaling = true;
+        startGesture();
         return true;
     }
 
     @Override
     public void onScaleEnd(ScaleGestureDetector detector) {
         //Log.d(LOG_TAG, "scale end");
+        scaling = false;
+        endGesture();
     }
 
     @Override
@@ -0,0 +1,255 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+/**
+ * A small overview of a FixedHeaderTableLayout's main table showing which part of it is visible
+ * Tap or drag on the overview to move the table's visible area there.
+ *
+ * The overview draws a downsampled snapshot of the main table kept in a Bitmap. Only the parts of
+ * the snapshot under cells that have changed are drawn again, so panning and scaling the table
+ * just moves the viewport rectangle and the table itself is never invalidated by the overview.
+ * Adapter tables are drawn as blocks, or heat map colors with a CellColorProvider, as only the
+ * visible cells exist. Changed cells are only reported from Android 8.0, on older versions the
+ * snapshot is drawn again when the table is laid out.
+ */
+public class FixedHeaderTableOverview extends View {
+
+    private FixedHeaderTableLayout table;
+    private final LowDetailRenderer renderer = new LowDetailRenderer();
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint viewportPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF viewportRect = new RectF();
+
+    // The snapshot, the table it was drawn from and the part of it that needs drawing again
+    private Bitmap snapshot;
+    private Canvas snapshotCanvas;
+    private FixedHeaderSubTableLayout snapshotTable;
+    private int snapshotTableWidth = 0;
+    private int snapshotTableHeight = 0;
+    private float snapshotScale = 1;
+    private final RectF dirtyRect = new RectF();
+    private boolean dirty = false;
+
+    public FixedHeaderTableOverview(Context context) {
+        super(context);
+        init();
+    }
+
+    public FixedHeaderTableOverview(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    public FixedHeaderTableOverview(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init();
+    }
+
+    private void init() {
+        viewportPaint.setStyle(Paint.Style.STROKE);
+        viewportPaint.setColor(Color.RED);
+        viewportPaint.setStrokeWidth(2 * getResources().getDisplayMetrics().density);
+    }
+
+    /**
+     * @param table the table to show or null to show nothing, a table has only one overview
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setTable(@Nullable FixedHeaderTableLayout table) {
+        if (this.table != null) {
+            this.table.setOverview(null);
+        }
+        this.table = table;
+        if (table != null) {
+            table.setOverview(this);
+        }
+        snapshotTable = null;
+        invalidate();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public FixedHeaderTableLayout getTable() {
+        return table;
+    }
+
+    /**
+     * @param color the color of the rectangle around the table's visible area
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setViewportColor(int color) {
+        viewportPaint.setColor(color);
+        invalidate();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getViewportColor() {
+        return viewportPaint.getColor();
+    }
+
+    /**
+     * Draw part of the snapshot again on the next draw
+     * @param dirty the changed area in the main table's coordinates
+     */
+    void mainTableInvalidated(RectF dirty) {
+        if (this.dirty) {
+            dirtyRect.union(dirty);
+        } else {
+            dirtyRect.set(dirty);
+            this.dirty = true;
+        }
+        invalidate();
+    }
+
+    /**
+     * Check the size of the main table on the next draw as it might have changed
+     */
+    void mainTableLaidOut() {
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        snapshotTable = null;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        FixedHeaderSubTableLayout mainTable = table != null ? table.getMainTable() : null;
+        if (mainTable == null || mainTable.getWidth() == 0 || mainTable.getHeight() == 0) {
+            return;
+        }
+        updateSnapshot(mainTable);
+        if (snapshot == null) {
+            return;
+        }
+        canvas.drawBitmap(snapshot, getPaddingLeft(), getPaddingTop(), bitmapPaint);
+
+        table.getMainTableVisibleRect(viewportRect);
+        if (!viewportRect.intersect(0, 0, snapshotTableWidth, snapshotTableHeight)) {
+            return;
+        }
+        viewportRect.set(getPaddingLeft() + viewportRect.left * snapshotScale, getPaddingTop() + viewportRect.top * snapshotScale,
+                getPaddingLeft() + viewportRect.right * snapshotScale, getPaddingTop() + viewportRect.bottom * snapshotScale);
+        float inset = viewportPaint.getStrokeWidth() / 2;
+        viewportRect.inset(inset, inset);
+        canvas.drawRect(viewportRect, viewportPaint);
+    }
+
+    /**
+     * Draw the snapshot from scratch if the table or its size has changed, otherwise draw the changed part again
+     */
+    private void updateSnapshot(FixedHeaderSubTableLayout mainTable) {
+        int width = getWidth() - getPaddingLeft() - getPaddingRight();
+        int height = getHeight() - getPaddingTop() - getPaddingBottom();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (mainTable != snapshotTable || mainTable.getWidth() != snapshotTableWidth || mainTable.getHeight() != snapshotTableHeight) {
+            snapshotTable = mainTable;
+            snapshotTableWidth = mainTable.getWidth();
+            snapshotTableHeight = mainTable.getHeight();
+            // Fit the whole table in the overview
+            snapshotScale = Math.min((float) width / snapshotTableWidth, (float) height / snapshotTableHeight);
+            int snapshotWidth = Math.max(1, Math.round(snapshotTableWidth * snapshotScale));
+            int snapshotHeight = Math.max(1, Math.round(snapshotTableHeight * snapshotScale));
+            if (snapshot == null || snapshot.getWidth() != snapshotWidth || snapshot.getHeight() != snapshotHeight) {
+                // The old Bitmap is not recycled as a hardware Canvas might still be drawing it
+                snapshot = Bitmap.createBitmap(snapshotWidth, snapshotHeight, Bitmap.Config.ARGB_8888);
+                snapshotCanvas = new Canvas(snapshot);
+            }
+            dirtyRect.set(0, 0, snapshotTableWidth, snapshotTableHeight);
+            dirty = true;
+        }
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        int save = snapshotCanvas.save();
+        snapshotCanvas.scale(snapshotScale, snapshotScale);
+        snapshotCanvas.clipRect(dirtyRect);
+        snapshotCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        if (mainTable instanceof FixedHeaderVirtualSubTableLayout) {
+            // Only the visible adapter cells exist so draw blocks from the TableMetrics
+            CellColorProvider cellColorProvider = table.getCellColorProvider();
+            renderer.setStyle(cellColorProvider != null ? LowDetailStyle.HEAT_MAP : LowDetailStyle.BLOCKS);
+            renderer.setColor(table.getLowDetailColor());
+            renderer.setCellColorProvider(cellColorProvider);
+            snapshotCanvas.translate(mainTable.getPaddingLeft(), mainTable.getPaddingTop());
+            dirtyRect.offset(-mainTable.getPaddingLeft(), -mainTable.getPaddingTop());
+            renderer.draw(snapshotCanvas, table, table.getTableMetrics(), table.getFixedRowCount(), table.getFixedColumnCount(),
+                    dirtyRect, snapshotScale, false);
+        } else {
+            // The clip quick rejects the rows and cells outside the changed area
+            mainTable.drawUnclipped(snapshotCanvas);
+        }
+        snapshotCanvas.restoreToCount(save);
+    }
+
+    /**
+     * Move the table's visible area to the touched part of the overview
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (table == null || snapshotTable == null) {
+            return super.onTouchEvent(event);
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                getParent().requestDisallowInterceptTouchEvent(true);
+                // Fall through
+            case MotionEvent.ACTION_MOVE:
+                table.centreMainTableOn((event.getX() - getPaddingLeft()) / snapshotScale, (event.getY() - getPaddingTop()) / snapshotScale);
+                return true;
+            case MotionEvent.ACTION_UP:
+                performClick();
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+}
@@ -25,25 +25,81 @@
 package com.github.zardozz.FixedHeaderTableLayout;
 
 import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.RectF;
 import android.os.Build;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.text.Layout;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
 import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.view.ViewParent;
 import android.widget.LinearLayout;
+import android.widget.TextView;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class FixedHeaderTableRow extends LinearLayout {
 
-    private ArrayList<Integer> mColumnWidths = new ArrayList<>();
+    /**
+     * Told when a drawn cell is clicked
+     */
+    public interface OnDrawnCellClickListener {
+        /**
+         * @param row the row of the cell
+         * @param index the index of the cell in the row
+         */
+        void onDrawnCellClick(FixedHeaderTableRow row, int index);
+    }
+
+    // Natural sizes of the cells from the preMeasure
+    private int[] mCellWidths = new int[0];
+    private int[] mCellHeights = new int[0];
+    private int mCellCount = 0;
+    // Aligned column widths, this row's first cell is in firstColumn
+    private TableMetrics mTableMetrics;
+    private int firstColumn = 0;
     private int myWidth = 0;
     private int myHeight = 0;
     private int maxChildHeight = 0;
     private boolean preMeasured = false;
 
+    // Column of each cell relative to firstColumn and the number of columns and rows it spans, only kept
+    // when a cell spans, is given its column or a cell spanning rows from above covers one of this row's columns
+    private int[] mCellColumns = new int[0];
+    private int[] mCellColumnSpans = new int[0];
+    private int[] mCellRowSpans = new int[0];
+    private int mSpanCellCount = 0;
+    private boolean hasSpans = false;
+    private boolean hasRowSpans = false;
+    // This row's index in its table and how far the cells spanning rows reach below it
+    private int rowIndex = 0;
+    private int rowSpanOverhang = 0;
+
+    // Text of the cells drawn directly on the Canvas instead of as child Views, null when the cells are Views
+    private CharSequence[] mDrawnTexts;
+    private DrawnCellStyle mDrawnStyle;
+    private boolean[] mDrawnSelected;
+    // Left of each drawn cell and the end of the last cell
+    private int[] mDrawnCellLefts = new int[1];
+    private OnDrawnCellClickListener onDrawnCellClickListener;
+    private float touchDownX;
+    private float touchDownY;
+    private int touchSlop;
+
+    // Cells drawn last time, start inclusive and end exclusive
+    private int drawnFirstCell = -1;
+    private int drawnLastCell = -1;
+
     private static final String LOG_TAG = FixedHeaderTableRow.class.getSimpleName();
 
     public FixedHeaderTableRow(Context context) {
@@ -74,14 +130,587 @@ public class FixedHeaderTableRow extends LinearLayout {
         super.setOrientation(HORIZONTAL);
     }
 
+    /**
+     * @deprecated Boxes every width, use getTableMetrics or the TableMetrics methods in Utils
+     * @return a copy of the aligned widths of this row's columns if set otherwise the preMeasured cell widths
+     */
+    @Deprecated
     @SuppressWarnings({"UnusedDeclaration"})
     public ArrayList<Integer> getColumnWidths() {
-        return mColumnWidths;
+        ArrayList<Integer> columnWidths = new ArrayList<>();
+        if (mTableMetrics != null) {
+            // Only this row's columns, not the rest of the table's
+            final int lastColumn = Math.min(firstColumn + mCellCount, mTableMetrics.getColumnCount());
+            for (int column = firstColumn; column < lastColumn; column++) {
+                columnWidths.add(mTableMetrics.getColumnWidth(column));
+            }
+        } else {
+            for (int i = 0; i < mCellCount; i++) {
+                columnWidths.add(mCellWidths[i]);
+            }
+        }
+        return columnWidths;
     }
 
+    /**
+     * @deprecated Use setTableMetrics
+     * @param mColumnWidths the aligned column widths
+     */
+    @Deprecated
     @SuppressWarnings({"UnusedDeclaration"})
     public void setColumnWidths(ArrayList<Integer> mColumnWidths) {
-        this.mColumnWidths = mColumnWidths;
+        setTableMetrics(Utils.columnWidthsToTableMetrics(mColumnWidths), 0);
+    }
+
+    /**
+     * Set the shared column widths to measure the cells to
+     * @param tableMetrics the aligned column widths
+     * @param firstColumn the column in tableMetrics of this row's first cell
+     */
+    public void setTableMetrics(@Nullable TableMetrics tableMetrics, int firstColumn) {
+        this.mTableMetrics = tableMetrics;
+        this.firstColumn = firstColumn;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public TableMetrics getTableMetrics() {
+        return mTableMetrics;
+    }
+
+    /**
+     * @return the number of cells measured by the preMeasure
+     */
+    int getCellCount() {
+        return mCellCount;
+    }
+
+    /**
+     * @param index the cell index
+     * @return the natural width of the cell from the preMeasure
+     */
+    int getCellWidth(int index) {
+        return mCellWidths[index];
+    }
+
+    /**
+     * @param index the cell index
+     * @return the natural height of the cell from the preMeasure
+     */
+    int getCellHeight(int index) {
+        return mCellHeights[index];
+    }
+
+    /**
+     * @param index the cell index
+     * @return the cell's column relative to the row's first column
+     */
+    int getCellColumn(int index) {
+        return hasSpans && index < mSpanCellCount ? mCellColumns[index] : index;
+    }
+
+    /**
+     * @param index the cell index
+     * @return the number of columns the cell covers
+     */
+    int getCellColumnSpan(int index) {
+        return hasSpans && index < mSpanCellCount ? mCellColumnSpans[index] : 1;
+    }
+
+    /**
+     * @param index the cell index
+     * @return the number of rows the cell covers, limited to the rows left in the table
+     */
+    int getCellRowSpan(int index) {
+        return hasSpans && index < mSpanCellCount ? mCellRowSpans[index] : 1;
+    }
+
+    /**
+     * @return true if a cell spans or is not in the column of its index
+     */
+    boolean hasSpans() {
+        return hasSpans;
+    }
+
+    /**
+     * @return how far the cells spanning rows reach below the bottom of this row
+     */
+    int getRowSpanOverhang() {
+        return rowSpanOverhang;
+    }
+
+    /**
+     * @param column the column relative to the row's first column
+     * @return the text of the cell in the column if it is a drawn cell or a TextView, otherwise null
+     */
+    @Nullable
+    CharSequence getCellText(int column) {
+        if (mDrawnTexts != null) {
+            return column < mDrawnTexts.length ? mDrawnTexts[column] : null;
+        }
+        int index = column;
+        if (hasSpans) {
+            index = -1;
+            for (int i = 0; i < mSpanCellCount && index < 0; i++) {
+                if (mCellColumns[i] == column) {
+                    index = i;
+                }
+            }
+        }
+        View child = index >= 0 ? getChildAt(index) : null;
+        return child instanceof TextView ? ((TextView) child).getText() : null;
+    }
+
+    /**
+     * Add a cell to a sparse row, only the cells that are not empty need to be added
+     * The columns between the previous cell and this one are left empty and show the row's background
+     * @param child the cell
+     * @param column the column of the cell in the row's table, a column before the end of the previous
+     *               cell is moved along to the next free column
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void addCell(View child, int column) {
+        LayoutParams layoutParams = new LayoutParams();
+        layoutParams.setCellColumn(column);
+        addView(child, layoutParams);
+    }
+
+    /**
+     * Draw the cells directly on the row's Canvas instead of adding a View for each cell
+     * Only the text and the selected state of each cell is kept, so a drawn row uses a fraction of the memory
+     * of a row of TextViews. The row can't also have child Views.
+     * @param texts the text of each cell, null to stop drawing the cells
+     * @param style how the cells are drawn, normally shared with the other rows
+     * @throws IllegalStateException if the row has child Views
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setDrawnCells(@Nullable CharSequence[] texts, DrawnCellStyle style) {
+        if (texts != null && getChildCount() > 0) {
+            throw new IllegalStateException("A row with drawn cells can't have child Views");
+        }
+        mDrawnTexts = texts;
+        mDrawnStyle = style;
+        mDrawnSelected = null;
+        touchSlop = ViewConfiguration.get(getContext()).getScaledTouchSlop();
+        setWillNotDraw(texts == null);
+        requestPreMeasure();
+    }
+
+    /**
+     * @return true if the cells are drawn on the Canvas instead of being child Views
+     */
+    boolean isDrawn() {
+        return mDrawnTexts != null;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public int getDrawnCellCount() {
+        return mDrawnTexts != null ? mDrawnTexts.length : 0;
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    @Nullable
+    public CharSequence getDrawnCellText(int index) {
+        return mDrawnTexts[index];
+    }
+
+    /**
+     * Change the text of a drawn cell, call notifyCellChanged on the FixedHeaderTableLayout to resize its column and row
+     * @param index the index of the cell
+     * @param text the new text
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setDrawnCellText(int index, @Nullable CharSequence text) {
+        mDrawnTexts[index] = text;
+        invalidate();
+    }
+
+    @SuppressWarnings({"UnusedDeclaration"})
+    public boolean isDrawnCellSelected(int index) {
+        return mDrawnSelected != null && mDrawnSelected[index];
+    }
+
+    /**
+     * @param index the index of the cell
+     * @param selected true to draw the cell with the style's selected background
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setDrawnCellSelected(int index, boolean selected) {
+        if (mDrawnSelected == null) {
+            if (!selected) {
+                return;
+            }
+            mDrawnSelected = new boolean[mDrawnTexts.length];
+        }
+        mDrawnSelected[index] = selected;
+        invalidate();
+    }
+
+    /**
+     * @param listener told when a drawn cell is clicked or null
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void setOnDrawnCellClickListener(@Nullable OnDrawnCellClickListener listener) {
+        onDrawnCellClickListener = listener;
+    }
+
+    /**
+     * Only child Views are allowed when the cells are not drawn
+     */
+    @Override
+    public void addView(View child, int index, ViewGroup.LayoutParams params) {
+        if (mDrawnTexts != null) {
+            throw new UnsupportedOperationException("Adding Views to a row with drawn cells is not supported");
+        }
+        super.addView(child, index, params);
+    }
+
+    /**
+     * @param index the index of a drawn cell
+     * @return the natural width of the cell's text and padding
+     */
+    private int measureDrawnCellWidth(int index) {
+        CharSequence text = mDrawnTexts[index];
+        int textWidth = text != null ? TextLayoutCache.getDesiredWidth(text, mDrawnStyle.textPaint) : 0;
+        return textWidth + mDrawnStyle.paddingLeft + mDrawnStyle.paddingRight;
+    }
+
+    /**
+     * @param index the index of a drawn cell
+     * @param width the width of the cell
+     * @return the height of the cell's text laid out in the width plus the padding
+     */
+    private int measureDrawnCellHeight(int index, int width) {
+        CharSequence text = mDrawnTexts[index];
+        Layout layout = mDrawnStyle.getLayout(getTextLayoutCache(), text != null ? text : "", width - mDrawnStyle.paddingLeft - mDrawnStyle.paddingRight);
+        return layout.getHeight() + mDrawnStyle.paddingTop + mDrawnStyle.paddingBottom;
+    }
+
+    /**
+     * @param x a position in the row
+     * @return the index of the drawn cell at the position or -1 if there is no cell there
+     */
+    private int getDrawnCellAt(float x) {
+        final int count = mDrawnTexts.length;
+        int index = Arrays.binarySearch(mDrawnCellLefts, 0, count + 1, (int) x - getPaddingLeft());
+        if (index < 0) {
+            // The insertion point is after the cell containing x
+            index = -index - 2;
+        }
+        return index >= 0 && index < count ? index : -1;
+    }
+
+    /**
+     * @param x a position in the row
+     * @return the index of the first drawn cell ending after x or the number of cells if there is none
+     */
+    private int findFirstDrawnCellEndingAfter(float x) {
+        x -= getPaddingLeft();
+        int low = 0;
+        int high = mDrawnTexts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mDrawnCellLefts[mid + 1] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param x a position in the row
+     * @return the index of the first drawn cell starting at or after x or the number of cells if there is none
+     */
+    private int findFirstDrawnCellStartingFrom(float x) {
+        x -= getPaddingLeft();
+        int low = 0;
+        int high = mDrawnTexts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mDrawnCellLefts[mid] < x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Hit test the drawn cells so a tap clicks the cell under it
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (mDrawnTexts == null || onDrawnCellClickListener == null) {
+            return super.onTouchEvent(event);
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                touchDownX = event.getX();
+                touchDownY = event.getY();
+                return true;
+            case MotionEvent.ACTION_UP:
+                if (Math.abs(event.getX() - touchDownX) <= touchSlop && Math.abs(event.getY() - touchDownY) <= touchSlop) {
+                    int index = getDrawnCellAt(event.getX());
+                    if (index >= 0) {
+                        playSoundEffect(SoundEffectConstants.CLICK);
+                        onDrawnCellClickListener.onDrawnCellClick(this, index);
+                    }
+                }
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Set by the table after working out where the cells of all its rows go
+     * @param cellColumns the column of each cell or null if each cell is in the column of its index
+     * @param columnSpans the number of columns each cell covers
+     * @param rowSpans the number of rows each cell covers
+     * @param cellCount the number of cells
+     * @param rowIndex this row's index in the table
+     */
+    void setCellSpans(@Nullable int[] cellColumns, int[] columnSpans, int[] rowSpans, int cellCount, int rowIndex) {
+        this.rowIndex = rowIndex;
+        boolean spansRows = false;
+        if (cellColumns == null) {
+            hasSpans = false;
+            mSpanCellCount = 0;
+        } else {
+            if (mCellColumns.length < cellCount) {
+                mCellColumns = new int[cellCount];
+                mCellColumnSpans = new int[cellCount];
+                mCellRowSpans = new int[cellCount];
+            }
+            System.arraycopy(cellColumns, 0, mCellColumns, 0, cellCount);
+            System.arraycopy(columnSpans, 0, mCellColumnSpans, 0, cellCount);
+            System.arraycopy(rowSpans, 0, mCellRowSpans, 0, cellCount);
+            for (int i = 0; i < cellCount; i++) {
+                spansRows |= mCellRowSpans[i] > 1;
+            }
+            hasSpans = true;
+            mSpanCellCount = cellCount;
+        }
+        if (spansRows != hasRowSpans) {
+            // Cells spanning rows draw over the rows below
+            hasRowSpans = spansRows;
+            setClipChildren(!spansRows);
+        }
+    }
+
+    /**
+     * Measure one cell to its natural size again after its contents have changed
+     * The row is measured to the aligned sizes again on the next layout
+     * @param index the cell index
+     */
+    void measureCell(int index) {
+        if (index >= mCellCount) {
+            // Cells have been added since the preMeasure
+            setCellCount(mDrawnTexts != null ? mDrawnTexts.length : getChildCount());
+        }
+        mCellWidths[index] = 0;
+        mCellHeights[index] = 0;
+        if (mDrawnTexts != null) {
+            mCellWidths[index] = measureDrawnCellWidth(index);
+            mCellHeights[index] = measureDrawnCellHeight(index, mCellWidths[index]);
+            forceLayout();
+            return;
+        }
+        View child = getChildAt(index);
+        if (child != null && child.getVisibility() != View.GONE) {
+            int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+            measureChildWithMargins(child, measureSpec, 0, measureSpec, 0);
+            setCellColumn(child, index);
+            mCellWidths[index] = child.getMeasuredWidth();
+            mCellHeights[index] = child.getMeasuredHeight();
+        }
+        forceLayout();
+    }
+
+    /**
+     * Move the natural sizes along after a cell has been added, the new cell still needs measureCell
+     * @param index the index of the new cell
+     */
+    void cellInserted(int index) {
+        if (index > mCellCount) {
+            return;
+        }
+        setCellCount(mCellCount + 1);
+        System.arraycopy(mCellWidths, index, mCellWidths, index + 1, mCellCount - index - 1);
+        System.arraycopy(mCellHeights, index, mCellHeights, index + 1, mCellCount - index - 1);
+        mCellWidths[index] = 0;
+        mCellHeights[index] = 0;
+    }
+
+    /**
+     * Move the natural sizes back after a cell has been removed
+     * @param index the index the cell was removed from
+     */
+    void cellRemoved(int index) {
+        if (index >= mCellCount) {
+            return;
+        }
+        System.arraycopy(mCellWidths, index + 1, mCellWidths, index, mCellCount - index - 1);
+        System.arraycopy(mCellHeights, index + 1, mCellHeights, index, mCellCount - index - 1);
+        mCellCount--;
+        forceLayout();
+    }
+
+    /**
+     * Measure all the cells to their natural size again on the next measure,
+     * the aligned sizes then need to be worked out and set again
+     */
+    @SuppressWarnings({"UnusedDeclaration"})
+    public void requestPreMeasure() {
+        preMeasured = false;
+        maxChildHeight = 0;
+        requestLayout();
+    }
+
+    private void setCellCount(int count) {
+        if (mCellWidths.length < count) {
+            int[] cellWidths = new int[count];
+            int[] cellHeights = new int[count];
+            System.arraycopy(mCellWidths, 0, cellWidths, 0, mCellCount);
+            System.arraycopy(mCellHeights, 0, cellHeights, 0, mCellCount);
+            mCellWidths = cellWidths;
+            mCellHeights = cellHeights;
+        }
+        for (int i = mCellCount; i < count; i++) {
+            mCellWidths[i] = 0;
+            mCellHeights[i] = 0;
+        }
+        mCellCount = count;
+    }
+
+    /**
+     * Draw again if a different set of cells is visible in the table's viewport
+     * @param viewport the visible area in the table's coordinates
+     */
+    void updateViewport(RectF viewport) {
+        int firstCell;
+        int lastCell;
+        if (mDrawnTexts != null) {
+            firstCell = findFirstDrawnCellEndingAfter(viewport.left - getLeft());
+            lastCell = findFirstDrawnCellStartingFrom(viewport.right - getLeft());
+        } else {
+            firstCell = Utils.findFirstChildEndingAfter(this, viewport.left - getLeft(), false);
+            lastCell = Utils.findFirstChildStartingFrom(this, viewport.right - getLeft(), false);
+        }
+        if (firstCell != drawnFirstCell || lastCell != drawnLastCell) {
+            invalidate();
+        }
+    }
+
+    @Nullable
+    private FixedHeaderSubTableLayout getTable() {
+        ViewParent parent = getParent();
+        return parent instanceof FixedHeaderSubTableLayout ? (FixedHeaderSubTableLayout) parent : null;
+    }
+
+    /**
+     * Rows are premeasured before their tables are added to a FixedHeaderTableLayout,
+     * their Layouts are not cached until then.
+     * @return the FixedHeaderTableLayout's cache of drawn cell Layouts or null if the row is not in one
+     */
+    @Nullable
+    private TextLayoutCache getTextLayoutCache() {
+        FixedHeaderSubTableLayout table = getTable();
+        ViewParent parent = table != null ? table.getParent() : null;
+        if (parent instanceof FixedHeaderTableLayout) {
+            return ((FixedHeaderTableLayout) parent).getTextLayoutCache();
+        }
+        return null;
+    }
+
+    @Nullable
+    private RectF getTableViewport() {
+        FixedHeaderSubTableLayout table = getTable();
+        return table != null ? table.getViewport() : null;
+    }
+
+    /**
+     * Draw the drawn cells inside the table's viewport
+     */
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (mDrawnTexts == null) {
+            return;
+        }
+        RectF viewport = getTableViewport();
+        if (viewport != null) {
+            drawnFirstCell = findFirstDrawnCellEndingAfter(viewport.left - getLeft());
+            drawnLastCell = findFirstDrawnCellStartingFrom(viewport.right - getLeft());
+        } else {
+            drawnFirstCell = 0;
+            drawnLastCell = mDrawnTexts.length;
+        }
+        final DrawnCellStyle style = mDrawnStyle;
+        final TextLayoutCache layoutCache = getTextLayoutCache();
+        final int top = getPaddingTop();
+        final int bottom = getHeight() - getPaddingBottom();
+        for (int i = drawnFirstCell; i < drawnLastCell; i++) {
+            int left = getPaddingLeft() + mDrawnCellLefts[i];
+            int right = getPaddingLeft() + mDrawnCellLefts[i + 1];
+            int backgroundColor = isDrawnCellSelected(i) ? style.selectedBackgroundColor : style.backgroundColor;
+            if (Color.alpha(backgroundColor) != 0) {
+                style.backgroundPaint.setColor(backgroundColor);
+                canvas.drawRect(left, top, right, bottom, style.backgroundPaint);
+            }
+            CharSequence text = mDrawnTexts[i];
+            if (text != null && text.length() > 0) {
+                Layout layout = style.getLayout(layoutCache, text, right - left - style.paddingLeft - style.paddingRight);
+                int textTop = top + style.paddingTop;
+                int textHeight = bottom - style.paddingBottom - textTop;
+                canvas.save();
+                canvas.clipRect(left, top, right, bottom);
+                // Centre the text vertically in the cell
+                canvas.translate(left + style.paddingLeft, textTop + Math.max(0, textHeight - layout.getHeight()) / 2f);
+                layout.draw(canvas);
+                canvas.restore();
+            }
+            if (style.borderWidth > 0) {
+                float inset = style.borderWidth / 2f;
+                canvas.drawRect(left + inset, top + inset, right - inset, bottom - inset, style.borderPaint);
+            }
+        }
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        FixedHeaderSubTableLayout table = getTable();
+        RectF viewport = table != null ? table.getViewport() : null;
+        int drawnCellCount;
+        if (mDrawnTexts != null) {
+            // Counted by onDraw
+            drawnCellCount = drawnLastCell - drawnFirstCell;
+        } else if (viewport != null) {
+            drawnFirstCell = Utils.findFirstChildEndingAfter(this, viewport.left - getLeft(), false);
+            drawnLastCell = Utils.findFirstChildStartingFrom(this, viewport.right - getLeft(), false);
+            drawnCellCount = drawnLastCell - drawnFirstCell;
+        } else {
+            drawnCellCount = getChildCount();
+        }
+        super.dispatchDraw(canvas);
+        if (table != null) {
+            table.addDrawnCells(drawnCellCount);
+        }
+    }
+
+    /**
+     * Quick reject the cells outside the table's viewport
+     */
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        RectF viewport = getTableViewport();
+        if (viewport != null && (getLeft() + child.getRight() <= viewport.left || getLeft() + child.getLeft() >= viewport.right)) {
+            return false;
+        }
+        return super.drawChild(canvas, child, drawingTime);
     }
 
     @SuppressWarnings({"UnusedDeclaration"})
@@ -94,6 +723,14 @@ public class FixedHeaderTableRow extends LinearLayout {
         this.maxChildHeight = maxChildHeight;
     }
 
+    /**
+     * Skip the preMeasure when the column widths and height have been worked out elsewhere
+     * @param preMeasured true to measure to the set column widths and height
+     */
+    void setPreMeasured(boolean preMeasured) {
+        this.preMeasured = preMeasured;
+    }
+
     /**
      * Changing the Orientation of this class is not supported.
      * Rows are always horizontal
@@ -113,7 +750,14 @@ public class FixedHeaderTableRow extends LinearLayout {
         int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
 
         final int count = getChildCount();
+        if (mCellWidths.length < count) {
+            mCellWidths = new int[count];
+            mCellHeights = new int[count];
+        }
+        mCellCount = count;
         for (int i = 0; i < count; ++i) {
+            mCellWidths[i] = 0;
+            mCellHeights[i] = 0;
             final View child = getChildAt(i);
             if (child == null) {
                 continue;
@@ -123,12 +767,18 @@ public class FixedHeaderTableRow extends LinearLayout {
             }
 
             measureChildWithMargins(child, measureSpec, 0, measureSpec, 0);
+            setCellColumn(child, i);
             int childWidth = child.getMeasuredWidth();
             int childHeight = child.getMeasuredHeight();
-            //Log.d(LOG_TAG, "preMeasure:mColumnWidths: C" + i + " width = " + childWidth);
-            mColumnWidths.add(childWidth);
+            //Log.d(LOG_TAG, "preMeasure:mCellWidths: C" + i + " width = " + childWidth);
+            mCellWidths[i] = childWidth;
+            mCellHeights[i] = childHeight;
+            setCellLeft(child, myWidth);
             myWidth += childWidth;
-            maxChildHeight = Math.max(maxChildHeight, childHeight);
+            if (getCellRowSpan(i) == 1) {
+                // The height of a cell spanning rows is shared out between its rows when aligned
+                maxChildHeight = Math.max(maxChildHeight, childHeight);
+            }
 
         }
 
@@ -155,26 +805,46 @@ public class FixedHeaderTableRow extends LinearLayout {
         int heightMeasureSpec = MeasureSpec.makeMeasureSpec(maxChildHeight, MeasureSpec.EXACTLY);
 
         final int count = getChildCount();
+        // The next column along and where it starts
+        int nextColumn = 0;
+        int left = 0;
         for (int i = 0; i < count; ++i) {
-            //Log.d(LOG_TAG, "fixed:mColumnWidths: C" + i + " width = " + mColumnWidths.get(i));
-            int widthMeasureSpec = MeasureSpec.makeMeasureSpec(mColumnWidths.get(i), MeasureSpec.EXACTLY);
-            View child = getChildAt(i);
-            if (child == null) {
-                continue;
+            int cellColumn = getCellColumn(i);
+            // Move past the columns covered by cells spanning rows from above
+            for (; nextColumn < cellColumn; nextColumn++) {
+                left += getAlignedColumnWidth(nextColumn);
             }
-            if (child.getVisibility() == View.GONE) {
+            int columnWidth = getColumnWidth(i);
+            nextColumn = cellColumn + getCellColumnSpan(i);
+            //Log.d(LOG_TAG, "fixed:columnWidth: C" + i + " width = " + columnWidth);
+            int widthMeasureSpec = MeasureSpec.makeMeasureSpec(columnWidth, MeasureSpec.EXACTLY);
+            View child = getChildAt(i);
+            if (child == null || child.getVisibility() == View.GONE) {
+                if (hasSpans) {
+                    // Cells are placed by column so leave the gap
+                    left += columnWidth;
+                }
                 continue;
             }
 
-            // Ask the child to match the parent so it fills out the whole cell
-            LinearLayout.LayoutParams childLayoutParams = new LinearLayout.LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT);
-            child.setLayoutParams(childLayoutParams);
-
-            measureChildWithMargins(child, widthMeasureSpec, 0, heightMeasureSpec, 0);
+            // The cell's LayoutParams match the parent so it fills out the whole cell
+            int rowSpan = getCellRowSpan(i);
+            int cellHeight = rowSpan > 1 ? getRowSpanHeight(rowSpan) : maxChildHeight;
+            measureChildWithMargins(child, widthMeasureSpec, 0,
+                    rowSpan > 1 ? MeasureSpec.makeMeasureSpec(cellHeight, MeasureSpec.EXACTLY) : heightMeasureSpec, 0);
+            ViewGroup.LayoutParams layoutParams = child.getLayoutParams();
+            if (layoutParams instanceof LayoutParams) {
+                LayoutParams cellLayoutParams = (LayoutParams) layoutParams;
+                cellLayoutParams.column = firstColumn + cellColumn;
+                cellLayoutParams.cellLeft = left;
+                cellLayoutParams.fixedWidth = columnWidth;
+                cellLayoutParams.fixedHeight = cellHeight;
+            }
 
             // Calculate new row width using the width we have set each column to
-            myWidth += mColumnWidths.get(i);
+            left += columnWidth;
         }
+        myWidth = left;
 
         // Add my padding
         myWidth = myWidth + getPaddingLeft() + getPaddingRight();
@@ -188,6 +858,155 @@ public class FixedHeaderTableRow extends LinearLayout {
         //Log.d(LOG_TAG, "fixedMeasure:setMeasuredDimension:" + myWidth + "x" + myHeight);
     }
 
+    /**
+     * Measure the drawn cells, to their natural size the first time and to the aligned column widths after that
+     */
+    private void measureDrawnCells() {
+        final int count = mDrawnTexts.length;
+        if (!preMeasured) {
+            if (mCellWidths.length < count) {
+                mCellWidths = new int[count];
+                mCellHeights = new int[count];
+            }
+            mCellCount = count;
+            for (int i = 0; i < count; i++) {
+                mCellWidths[i] = measureDrawnCellWidth(i);
+                mCellHeights[i] = measureDrawnCellHeight(i, mCellWidths[i]);
+                maxChildHeight = Math.max(maxChildHeight, mCellHeights[i]);
+            }
+            preMeasured = true;
+        }
+        if (mDrawnCellLefts.length < count + 1) {
+            mDrawnCellLefts = new int[count + 1];
+        }
+        int left = 0;
+        for (int i = 0; i < count; i++) {
+            mDrawnCellLefts[i] = left;
+            // The natural width until the column widths are aligned
+            left += getColumnWidth(i);
+        }
+        mDrawnCellLefts[count] = left;
+
+        myWidth = left + getPaddingLeft() + getPaddingRight();
+        myHeight = maxChildHeight + getPaddingTop() + getPaddingBottom();
+        myWidth = Math.max(myWidth, getSuggestedMinimumWidth());
+        myHeight = Math.max(myHeight, getSuggestedMinimumHeight());
+        setMeasuredDimension(myWidth, myHeight);
+        //Log.d(LOG_TAG, "measureDrawnCells:setMeasuredDimension:" + myWidth + "x" + myHeight);
+    }
+
+    private void setCellColumn(View child, int index) {
+        ViewGroup.LayoutParams layoutParams = child.getLayoutParams();
+        if (layoutParams instanceof LayoutParams) {
+            ((LayoutParams) layoutParams).column = firstColumn + getCellColumn(index);
+        }
+    }
+
+    private void setCellLeft(View child, int left) {
+        ViewGroup.LayoutParams layoutParams = child.getLayoutParams();
+        if (layoutParams instanceof LayoutParams) {
+            ((LayoutParams) layoutParams).cellLeft = left;
+        }
+    }
+
+    /**
+     * @param index the cell index
+     * @return the aligned width of the columns the cell covers or the natural width if they are not aligned
+     */
+    private int getColumnWidth(int index) {
+        int column = getCellColumn(index);
+        if (mTableMetrics == null || firstColumn + column >= mTableMetrics.getColumnCount()) {
+            return index < mCellCount ? mCellWidths[index] : 0;
+        }
+        int width = 0;
+        final int lastColumn = column + getCellColumnSpan(index);
+        for (; column < lastColumn; column++) {
+            width += getAlignedColumnWidth(column);
+        }
+        return width;
+    }
+
+    /**
+     * @param column the column relative to the row's first column
+     * @return the aligned width of the column or 0 if it is not aligned
+     */
+    private int getAlignedColumnWidth(int column) {
+        column += firstColumn;
+        if (mTableMetrics != null && column < mTableMetrics.getColumnCount()) {
+            return mTableMetrics.getColumnWidth(column);
+        }
+        return 0;
+    }
+
+    /**
+     * @param rowSpan the number of rows from this row down
+     * @return the height of the rows as they are set in the table less this row's padding
+     */
+    private int getRowSpanHeight(int rowSpan) {
+        FixedHeaderSubTableLayout table = getTable();
+        if (table == null) {
+            return maxChildHeight;
+        }
+        int height = -getPaddingTop() - getPaddingBottom();
+        final int lastRow = Math.min(rowIndex + rowSpan, table.getChildCount());
+        for (int row = rowIndex; row < lastRow; row++) {
+            FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row);
+            height += tableRow.maxChildHeight + tableRow.getPaddingTop() + tableRow.getPaddingBottom();
+        }
+        return Math.max(height, maxChildHeight);
+    }
+
+    /**
+     * Rows with spanning cells place each cell at the start of its column,
+     * other rows lay the cells out one after the other
+     */
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        if (!hasSpans) {
+            rowSpanOverhang = 0;
+            super.onLayout(changed, l, t, r, b);
+            return;
+        }
+        int overhang = 0;
+        final int top = getPaddingTop();
+        final int count = getChildCount();
+        for (int i = 0; i < count; i++) {
+            View child = getChildAt(i);
+            if (child == null || child.getVisibility() == View.GONE) {
+                continue;
+            }
+            ViewGroup.LayoutParams layoutParams = child.getLayoutParams();
+            int left = getPaddingLeft() + (layoutParams instanceof LayoutParams ? ((LayoutParams) layoutParams).cellLeft : 0);
+            child.layout(left, top, left + child.getMeasuredWidth(), top + child.getMeasuredHeight());
+            overhang = Math.max(overhang, top + child.getMeasuredHeight() - (b - t));
+        }
+        rowSpanOverhang = overhang;
+    }
+
+    /**
+     * Cells always fill their column so they are given the row's own LayoutParams when added,
+     * this stops the measure having to replace them on every pass
+     */
+    @Override
+    protected LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams();
+    }
+
+    @Override
+    public LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new LayoutParams(getContext(), attrs);
+    }
+
+    @Override
+    protected LayoutParams generateLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof LayoutParams ? new LayoutParams((LayoutParams) p) : new LayoutParams();
+    }
+
+    @Override
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof LayoutParams;
+    }
+
     /**
      * Measure the row
      * A row is either measured to full size of all it's children (UNSPECIFIED)
@@ -198,7 +1017,9 @@ public class FixedHeaderTableRow extends LinearLayout {
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
-        if (preMeasured) {
+        if (mDrawnTexts != null) {
+            measureDrawnCells();
+        } else if (preMeasured) {
             //Log.d(LOG_TAG, "fixedMeasure: " + Integer.toHexString(System.identityHashCode(this)) );
             fixedMeasure();
         } else {
@@ -208,4 +1029,124 @@ public class FixedHeaderTableRow extends LinearLayout {
         }
 
     }
+
+    /**
+     * LayoutParams of a cell, the cell always matches the row so it fills out its column
+     * Created once when the cell is added to the row and updated in place by the measure.
+     * A cell can be given its column and span more than one column or row, set them before adding
+     * the cell to the row or in xml with layout_fhtl_column, layout_fhtl_column_span and layout_fhtl_row_span
+     */
+    public static class LayoutParams extends LinearLayout.LayoutParams {
+        // The column in the table's TableMetrics the cell was last measured in, -1 until measured
+        int column = -1;
+        // The column in the row's table the cell is in, -1 to follow the previous cell
+        private int cellColumn = -1;
+        // Number of columns and rows the cell covers
+        private int columnSpan = 1;
+        private int rowSpan = 1;
+        // Where the cell starts in the row and the size it was last measured to EXACTLY, set by the measure
+        int cellLeft = 0;
+        int fixedWidth = 0;
+        int fixedHeight = 0;
+
+        public LayoutParams() {
+            super(MATCH_PARENT, MATCH_PARENT);
+        }
+
+        /**
+         * @param columnSpan the number of columns the cell covers
+         * @param rowSpan the number of rows the cell covers, from its own row down
+         */
+        public LayoutParams(int columnSpan, int rowSpan) {
+            super(MATCH_PARENT, MATCH_PARENT);
+            setColumnSpan(columnSpan);
+            setRowSpan(rowSpan);
+        }
+
+        public LayoutParams(Context context, AttributeSet attrs) {
+            super(MATCH_PARENT, MATCH_PARENT);
+            TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.FixedHeaderTableRow_Layout);
+            try {
+                cellColumn = Math.max(-1, a.getInt(R.styleable.FixedHeaderTableRow_Layout_layout_fhtl_column, -1));
+                setColumnSpan(a.getInt(R.styleable.FixedHeaderTableRow_Layout_layout_fhtl_column_span, 1));
+                setRowSpan(a.getInt(R.styleable.FixedHeaderTableRow_Layout_layout_fhtl_row_span, 1));
+            } finally {
+                a.recycle();
+            }
+        }
+
+        public LayoutParams(LayoutParams source) {
+            super(MATCH_PARENT, MATCH_PARENT);
+            cellColumn = source.cellColumn;
+            columnSpan = source.columnSpan;
+            rowSpan = source.rowSpan;
+        }
+
+        @SuppressWarnings({"UnusedDeclaration"})
+        public int getColumn() {
+            return column;
+        }
+
+        @SuppressWarnings({"UnusedDeclaration"})
+        public int getCellColumn() {
+            return cellColumn;
+        }
+
+        /**
+         * Give the cell its column so the empty cells of a sparse row don't need to be added
+         * @param cellColumn the column in the row's table the cell is in, -1 to follow the previous cell
+         * @throws IllegalArgumentException if cellColumn is less than -1
+         */
+        @SuppressWarnings({"UnusedDeclaration"})
+        public void setCellColumn(int cellColumn) {
+            if (cellColumn < -1) {
+                throw new IllegalArgumentException("cellColumn must be -1 or more");
+            }
+            this.cellColumn = cellColumn;
+        }
+
+        @SuppressWarnings({"UnusedDeclaration"})
+        public int getColumnSpan() {
+            return columnSpan;
+        }
+
+        /**
+         * @param columnSpan the number of columns the cell covers
+         * @throws IllegalArgumentException if columnSpan is less than 1
+         */
+        @SuppressWarnings({"UnusedDeclaration"})
+        public void setColumnSpan(int columnSpan) {
+            if (columnSpan < 1) {
+                throw new IllegalArgumentException("columnSpan must be at least 1");
+            }
+            this.columnSpan = columnSpan;
+        }
+
+        @SuppressWarnings({"UnusedDeclaration"})
+        public int getRowSpan() {
+            return rowSpan;
+        }
+
+        /**
+         * @param rowSpan the number of rows the cell covers, from its own row down
+         * @throws IllegalArgumentException if rowSpan is less than 1
+         */
+        @SuppressWarnings({"UnusedDeclaration"})
+        public void setRowSpan(int rowSpan) {
+            if (rowSpan < 1) {
+                throw new IllegalArgumentException("rowSpan must be at least 1");
+            }
+            this.rowSpan = rowSpan;
+        }
+
+        @SuppressWarnings({"UnusedDeclaration"})
+        public int getFixedWidth() {
+            return fixedWidth;
+        }
+
+        @SuppressWarnings({"UnusedDeclaration"})
+        public int getFixedHeight() {
+            return fixedHeight;
+        }
+    }
 }
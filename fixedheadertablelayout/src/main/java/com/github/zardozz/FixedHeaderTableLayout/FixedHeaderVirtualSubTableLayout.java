@@ -0,0 +1,317 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.content.Context;
+import android.graphics.RectF;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * A Sub Table whose cells come from a FixedHeaderTableAdapter
+ * It measures to the full size of the table so pan and scale work as normal
+ * but only has FixedHeaderTableRow children for the rows and columns near the viewport
+ */
+final class FixedHeaderVirtualSubTableLayout extends FixedHeaderSubTableLayout {
+
+    // Number of extra rows and columns kept either side of the viewport
+    private static final int OFFSCREEN_MARGIN = 2;
+
+    private final FixedHeaderTableAdapter adapter;
+    private final CellViewPool cellViewPool;
+    private final ArrayList<FixedHeaderTableRow> scrapRows = new ArrayList<>();
+
+    // Number of this Sub Table's rows and columns in the TableMetrics
+    private int rowCount = 0;
+    private int columnCount = 0;
+
+    // Rows and columns currently bound, start inclusive and end exclusive
+    private int visibleFirstRow = 0;
+    private int visibleLastRow = 0;
+    private int visibleFirstColumn = 0;
+    private int visibleLastColumn = 0;
+
+    FixedHeaderVirtualSubTableLayout(Context context, FixedHeaderTableAdapter adapter, CellViewPool cellViewPool) {
+        super(context);
+        this.adapter = adapter;
+        this.cellViewPool = cellViewPool;
+    }
+
+    /**
+     * Set the aligned sizes of this Sub Table, any bound cells are recycled
+     * @param tableMetrics the aligned sizes
+     * @param firstRow the row in tableMetrics of this table's first row
+     * @param rowCount the number of rows in this table
+     * @param firstColumn the column in tableMetrics of this table's first column
+     * @param columnCount the number of columns in this table
+     */
+    void setTableMetrics(TableMetrics tableMetrics, int firstRow, int rowCount, int firstColumn, int columnCount) {
+        recycleAll();
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        setTableMetrics(tableMetrics, firstRow, firstColumn);
+    }
+
+    /**
+     * @param row a row of this table or rowCount for the total height
+     * @return the offset of the row from the top of this table
+     */
+    private int rowOffset(int row) {
+        TableMetrics tableMetrics = getTableMetrics();
+        return tableMetrics.getRowOffset(getFirstRow() + row) - tableMetrics.getRowOffset(getFirstRow());
+    }
+
+    /**
+     * @param column a column of this table or columnCount for the total width
+     * @return the offset of the column from the left of this table
+     */
+    private int columnOffset(int column) {
+        TableMetrics tableMetrics = getTableMetrics();
+        return tableMetrics.getColumnOffset(getFirstColumn() + column) - tableMetrics.getColumnOffset(getFirstColumn());
+    }
+
+    private int rowAt(float y) {
+        TableMetrics tableMetrics = getTableMetrics();
+        int row = tableMetrics.getRowAt(tableMetrics.getRowOffset(getFirstRow()) + y) - getFirstRow();
+        return Math.max(0, Math.min(row, rowCount - 1));
+    }
+
+    private int columnAt(float x) {
+        TableMetrics tableMetrics = getTableMetrics();
+        int column = tableMetrics.getColumnAt(tableMetrics.getColumnOffset(getFirstColumn()) + x) - getFirstColumn();
+        return Math.max(0, Math.min(column, columnCount - 1));
+    }
+
+    /**
+     * Bind the cells that intersect the viewport and recycle the rest
+     * @param viewport the visible area in this Sub Table's coordinates
+     */
+    @Override
+    void setViewport(@Nullable RectF viewport) {
+        if (viewport != null) {
+            bindViewport(viewport);
+        }
+        super.setViewport(viewport);
+    }
+
+    private void bindViewport(RectF viewport) {
+        int newFirstRow = 0;
+        int newLastRow = 0;
+        int newFirstColumn = 0;
+        int newLastColumn = 0;
+        if (rowCount > 0 && columnCount > 0
+                && viewport.right > 0 && viewport.bottom > 0
+                && viewport.left < columnOffset(columnCount) && viewport.top < rowOffset(rowCount)) {
+            newFirstRow = Math.max(0, rowAt(viewport.top) - OFFSCREEN_MARGIN);
+            newLastRow = Math.min(rowCount, rowAt(viewport.bottom) + 1 + OFFSCREEN_MARGIN);
+            newFirstColumn = Math.max(0, columnAt(viewport.left) - OFFSCREEN_MARGIN);
+            newLastColumn = Math.min(columnCount, columnAt(viewport.right) + 1 + OFFSCREEN_MARGIN);
+        }
+
+        if (newFirstRow == visibleFirstRow && newLastRow == visibleLastRow
+                && newFirstColumn == visibleFirstColumn && newLastColumn == visibleLastColumn) {
+            // Nothing has scrolled in or out of view
+            return;
+        }
+
+        if (newFirstRow >= newLastRow || newFirstColumn >= newLastColumn) {
+            recycleAll();
+            return;
+        }
+
+        // Remove the rows that are no longer in view
+        while (getChildCount() > 0 && visibleFirstRow < newFirstRow) {
+            recycleRow(0);
+            visibleFirstRow++;
+        }
+        while (getChildCount() > 0 && visibleLastRow > newLastRow) {
+            recycleRow(getChildCount() - 1);
+            visibleLastRow--;
+        }
+        if (getChildCount() == 0) {
+            // Jumped to a completely new set of rows
+            visibleFirstRow = newFirstRow;
+            visibleLastRow = newFirstRow;
+        }
+
+        // Update the columns of the rows that are staying
+        for (int i = 0; i < getChildCount(); i++) {
+            updateRowColumns((FixedHeaderTableRow) getChildAt(i), visibleFirstRow + i, newFirstColumn, newLastColumn);
+        }
+        visibleFirstColumn = newFirstColumn;
+        visibleLastColumn = newLastColumn;
+
+        // Add the rows that have come into view
+        for (int row = visibleFirstRow - 1; row >= newFirstRow; row--) {
+            addView(obtainRow(row), 0);
+        }
+        for (int row = visibleLastRow; row < newLastRow; row++) {
+            addView(obtainRow(row));
+        }
+        visibleFirstRow = newFirstRow;
+        visibleLastRow = newLastRow;
+    }
+
+    private void updateRowColumns(FixedHeaderTableRow tableRow, int row, int newFirstColumn, int newLastColumn) {
+        // Remove the cells that are no longer in view
+        int first = visibleFirstColumn;
+        int last = visibleLastColumn;
+        while (tableRow.getChildCount() > 0 && first < newFirstColumn) {
+            recycleCell(tableRow, 0);
+            first++;
+        }
+        while (tableRow.getChildCount() > 0 && last > newLastColumn) {
+            recycleCell(tableRow, tableRow.getChildCount() - 1);
+            last--;
+        }
+        if (tableRow.getChildCount() == 0) {
+            first = newFirstColumn;
+            last = newFirstColumn;
+        }
+
+        // Add the cells that have come into view
+        for (int column = first - 1; column >= newFirstColumn; column--) {
+            tableRow.addView(obtainCell(tableRow, row, column), 0);
+        }
+        for (int column = last; column < newLastColumn; column++) {
+            tableRow.addView(obtainCell(tableRow, row, column));
+        }
+    }
+
+    /**
+     * Bind a cell again if it is currently bound
+     * @param row the row in this table
+     * @param column the column in this table
+     */
+    void rebindCell(int row, int column) {
+        if (row < visibleFirstRow || row >= visibleLastRow || column < visibleFirstColumn || column >= visibleLastColumn) {
+            return;
+        }
+        FixedHeaderTableRow tableRow = (FixedHeaderTableRow) getChildAt(row - visibleFirstRow);
+        int index = column - visibleFirstColumn;
+        // The view type might have changed so swap the View
+        recycleCell(tableRow, index);
+        tableRow.addView(obtainCell(tableRow, row, column), index);
+    }
+
+    private FixedHeaderTableRow obtainRow(int row) {
+        FixedHeaderTableRow tableRow;
+        if (scrapRows.isEmpty()) {
+            tableRow = new FixedHeaderTableRow(getContext());
+        } else {
+            tableRow = scrapRows.remove(scrapRows.size() - 1);
+        }
+        for (int column = visibleFirstColumn; column < visibleLastColumn; column++) {
+            tableRow.addView(obtainCell(tableRow, row, column));
+        }
+        return tableRow;
+    }
+
+    private View obtainCell(FixedHeaderTableRow tableRow, int row, int column) {
+        int adapterRow = getFirstRow() + row;
+        int adapterColumn = getFirstColumn() + column;
+        View cell = cellViewPool.obtain(adapter, tableRow, adapter.getCellViewType(adapterRow, adapterColumn));
+        adapter.bindCell(adapterRow, adapterColumn, cell);
+        return cell;
+    }
+
+    private void recycleRow(int index) {
+        FixedHeaderTableRow tableRow = (FixedHeaderTableRow) getChildAt(index);
+        removeViewAt(index);
+        while (tableRow.getChildCount() > 0) {
+            recycleCell(tableRow, tableRow.getChildCount() - 1);
+        }
+        scrapRows.add(tableRow);
+    }
+
+    private void recycleCell(FixedHeaderTableRow tableRow, int index) {
+        View cell = tableRow.getChildAt(index);
+        tableRow.removeViewAt(index);
+        cellViewPool.recycle(cell);
+    }
+
+    /**
+     * Recycle all the bound rows and cells
+     */
+    void recycleAll() {
+        while (getChildCount() > 0) {
+            recycleRow(getChildCount() - 1);
+        }
+        visibleFirstRow = 0;
+        visibleLastRow = 0;
+        visibleFirstColumn = 0;
+        visibleLastColumn = 0;
+    }
+
+    /**
+     * Measure the Table
+     * The Table is always the full size of all the rows and columns even if they are not bound
+     * @param widthMeasureSpec Ignored
+     * @param heightMeasureSpec Ignored
+     */
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        TableMetrics tableMetrics = getTableMetrics();
+        if (tableMetrics == null) {
+            setMeasuredDimension(getSuggestedMinimumWidth(), getSuggestedMinimumHeight());
+            return;
+        }
+
+        int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+        final int count = getChildCount();
+        for (int i = 0; i < count; i++) {
+            FixedHeaderTableRow tableRow = (FixedHeaderTableRow) getChildAt(i);
+            // The row's first cell is the first bound column
+            tableRow.setTableMetrics(tableMetrics, getFirstColumn() + visibleFirstColumn);
+            tableRow.setMaxChildHeight(tableMetrics.getRowHeight(getFirstRow() + visibleFirstRow + i));
+            tableRow.setPreMeasured(true);
+            tableRow.measure(measureSpec, measureSpec);
+        }
+
+        int width = columnOffset(columnCount) + getPaddingLeft() + getPaddingRight();
+        int height = rowOffset(rowCount) + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(Math.max(width, getSuggestedMinimumWidth()), Math.max(height, getSuggestedMinimumHeight()));
+    }
+
+    /**
+     * Position each bound row at its offset in the full size table
+     */
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        if (getTableMetrics() == null) {
+            return;
+        }
+        final int left = getPaddingLeft() + columnOffset(visibleFirstColumn);
+        final int count = getChildCount();
+        for (int i = 0; i < count; i++) {
+            View tableRow = getChildAt(i);
+            int top = getPaddingTop() + rowOffset(visibleFirstRow + i);
+            tableRow.layout(left, top, left + tableRow.getMeasuredWidth(), top + tableRow.getMeasuredHeight());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.text.TextPaint;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Draws the main table from its TableMetrics instead of its cells when it is scaled too small to read
+ *
+ * Below the low detail scale each cell is drawn as a block, a heat map color or a few characters of large text.
+ * Below the summary scale whole tiles of SUMMARY_TILE_CELLS x SUMMARY_TILE_CELLS cells are drawn as one block.
+ * No cell Views are drawn either way so a zoomed out frame is a few rect fills.
+ */
+final class LowDetailRenderer {
+
+    // Cells along each side of a summary tile
+    static final int SUMMARY_TILE_CELLS = 8;
+    // Size of the text as a fraction of the row height
+    private static final float TEXT_HEIGHT = 0.6f;
+
+    private final Paint fillPaint = new Paint();
+    private final TextPaint textPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint.FontMetrics fontMetrics = new Paint.FontMetrics();
+    private final RectF cellRect = new RectF();
+    private LowDetailStyle style = LowDetailStyle.BLOCKS;
+    private int color = Color.LTGRAY;
+    private CellColorProvider cellColorProvider;
+
+    LowDetailRenderer() {
+        fillPaint.setStyle(Paint.Style.FILL);
+        textPaint.setColor(Color.BLACK);
+    }
+
+    LowDetailStyle getStyle() {
+        return style;
+    }
+
+    void setStyle(LowDetailStyle style) {
+        this.style = style;
+    }
+
+    int getColor() {
+        return color;
+    }
+
+    void setColor(int color) {
+        this.color = color;
+    }
+
+    @Nullable
+    CellColorProvider getCellColorProvider() {
+        return cellColorProvider;
+    }
+
+    void setCellColorProvider(@Nullable CellColorProvider cellColorProvider) {
+        this.cellColorProvider = cellColorProvider;
+    }
+
+    /**
+     * Draw the visible cells of a table
+     * @param canvas a canvas in the table's coordinates
+     * @param table the table the cells are in, gives the cell text
+     * @param tableMetrics the aligned sizes of the whole table
+     * @param firstRow the first row of the table in tableMetrics
+     * @param firstColumn the first column of the table in tableMetrics
+     * @param visible the visible area in the table's coordinates
+     * @param scale the scale the table is drawn at
+     * @param summary true to draw tiles of cells instead of each cell
+     * @return the number of cells or tiles drawn
+     */
+    int draw(Canvas canvas, FixedHeaderTableLayout table, TableMetrics tableMetrics, int firstRow, int firstColumn,
+             RectF visible, float scale, boolean summary) {
+        final int rowCount = tableMetrics.getRowCount();
+        final int columnCount = tableMetrics.getColumnCount();
+        if (firstRow >= rowCount || firstColumn >= columnCount) {
+            return 0;
+        }
+        final int originX = tableMetrics.getColumnOffset(firstColumn);
+        final int originY = tableMetrics.getRowOffset(firstRow);
+        final int step = summary ? SUMMARY_TILE_CELLS : 1;
+        // Start at the tile containing the first visible cell
+        int startRow = Math.max(firstRow, tableMetrics.getRowAt(originY + visible.top));
+        startRow = firstRow + (startRow - firstRow) / step * step;
+        int startColumn = Math.max(firstColumn, tableMetrics.getColumnAt(originX + visible.left));
+        startColumn = firstColumn + (startColumn - firstColumn) / step * step;
+        final int endRow = tableMetrics.getRowAt(originY + visible.bottom) + 1;
+        final int endColumn = tableMetrics.getColumnAt(originX + visible.right) + 1;
+        // Leave a line a pixel wide on screen between the cells
+        final float gap = 1 / scale;
+        final boolean heatMap = style == LowDetailStyle.HEAT_MAP && cellColorProvider != null;
+        final boolean text = style == LowDetailStyle.TRUNCATED_TEXT && !summary;
+        fillPaint.setColor(color);
+
+        int drawnCount = 0;
+        for (int row = startRow; row < endRow; row += step) {
+            float top = tableMetrics.getRowOffset(row) - originY;
+            float bottom = tableMetrics.getRowOffset(Math.min(row + step, rowCount)) - originY;
+            for (int column = startColumn; column < endColumn; column += step) {
+                float left = tableMetrics.getColumnOffset(column) - originX;
+                float right = tableMetrics.getColumnOffset(Math.min(column + step, columnCount)) - originX;
+                cellRect.set(left, top, right - Math.min(gap, (right - left) / 4), bottom - Math.min(gap, (bottom - top) / 4));
+                if (text) {
+                    drawText(canvas, table.getCellText(row, column));
+                } else {
+                    if (heatMap) {
+                        // A tile takes the color of its first cell
+                        fillPaint.setColor(cellColorProvider.getCellColor(row, column));
+                    }
+                    canvas.drawRect(cellRect, fillPaint);
+                }
+                drawnCount++;
+            }
+        }
+        return drawnCount;
+    }
+
+    /**
+     * Draw as much of the text as fits in cellRect, vertically centred
+     */
+    private void drawText(Canvas canvas, @Nullable CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return;
+        }
+        float padding = cellRect.height() * (1 - TEXT_HEIGHT) / 2;
+        textPaint.setTextSize(cellRect.height() * TEXT_HEIGHT);
+        int count = textPaint.breakText(text, 0, text.length(), true, cellRect.width() - 2 * padding, null);
+        if (count == 0) {
+            return;
+        }
+        textPaint.getFontMetrics(fontMetrics);
+        float baseline = cellRect.centerY() - (fontMetrics.ascent + fontMetrics.descent) / 2;
+        canvas.drawText(text, 0, count, cellRect.left + padding, baseline, textPaint);
+    }
+}
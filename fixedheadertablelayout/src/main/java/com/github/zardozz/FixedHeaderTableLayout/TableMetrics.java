@@ -0,0 +1,267 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import java.util.Arrays;
+
+/**
+ * Column widths and row heights shared by aligned tables
+ *
+ * Sizes are stored as primitives with cumulative offsets that are only recalculated
+ * after a size has changed, so looking up the position of a column or row
+ * or the column or row at a position does not need to walk all the sizes.
+ */
+public class TableMetrics {
+
+    private int columnCount = 0;
+    private int rowCount = 0;
+    private int[] columnWidths = new int[0];
+    private int[] rowHeights = new int[0];
+    // Cumulative offsets, one longer than the sizes so the last entry is the total size
+    private int[] columnOffsets = new int[1];
+    private int[] rowOffsets = new int[1];
+    private boolean columnOffsetsValid = true;
+    private boolean rowOffsetsValid = true;
+
+    /**
+     * Set the number of columns and rows, all sizes are reset to 0
+     * @param columnCount the number of columns
+     * @param rowCount the number of rows
+     */
+    public void reset(int columnCount, int rowCount) {
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+        // Reuse the existing arrays when they are big enough
+        if (columnWidths.length < columnCount) {
+            columnWidths = new int[columnCount];
+            columnOffsets = new int[columnCount + 1];
+        } else {
+            Arrays.fill(columnWidths, 0);
+        }
+        if (rowHeights.length < rowCount) {
+            rowHeights = new int[rowCount];
+            rowOffsets = new int[rowCount + 1];
+        } else {
+            Arrays.fill(rowHeights, 0);
+        }
+        columnOffsetsValid = false;
+        rowOffsetsValid = false;
+    }
+
+    /**
+     * Insert a column with a width of 0, the following columns move up one
+     * @param column the index of the new column
+     */
+    public void insertColumn(int column) {
+        checkIndex(column, columnCount + 1);
+        if (columnWidths.length == columnCount) {
+            columnWidths = Arrays.copyOf(columnWidths, Math.max(4, columnCount * 2));
+            columnOffsets = new int[columnWidths.length + 1];
+        }
+        System.arraycopy(columnWidths, column, columnWidths, column + 1, columnCount - column);
+        columnWidths[column] = 0;
+        columnCount++;
+        columnOffsetsValid = false;
+    }
+
+    /**
+     * Remove a column, the following columns move down one
+     * @param column the index of the column
+     */
+    public void removeColumn(int column) {
+        checkIndex(column, columnCount);
+        System.arraycopy(columnWidths, column + 1, columnWidths, column, columnCount - column - 1);
+        columnCount--;
+        columnWidths[columnCount] = 0;
+        columnOffsetsValid = false;
+    }
+
+    /**
+     * Insert a row with a height of 0, the following rows move up one
+     * @param row the index of the new row
+     */
+    public void insertRow(int row) {
+        checkIndex(row, rowCount + 1);
+        if (rowHeights.length == rowCount) {
+            rowHeights = Arrays.copyOf(rowHeights, Math.max(4, rowCount * 2));
+            rowOffsets = new int[rowHeights.length + 1];
+        }
+        System.arraycopy(rowHeights, row, rowHeights, row + 1, rowCount - row);
+        rowHeights[row] = 0;
+        rowCount++;
+        rowOffsetsValid = false;
+    }
+
+    /**
+     * Remove a row, the following rows move down one
+     * @param row the index of the row
+     */
+    public void removeRow(int row) {
+        checkIndex(row, rowCount);
+        System.arraycopy(rowHeights, row + 1, rowHeights, row, rowCount - row - 1);
+        rowCount--;
+        rowHeights[rowCount] = 0;
+        rowOffsetsValid = false;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnWidth(int column) {
+        checkIndex(column, columnCount);
+        return columnWidths[column];
+    }
+
+    public void setColumnWidth(int column, int width) {
+        checkIndex(column, columnCount);
+        if (columnWidths[column] != width) {
+            columnWidths[column] = width;
+            columnOffsetsValid = false;
+        }
+    }
+
+    /**
+     * Make the column at least as wide as the width
+     * @param column the column
+     * @param width the minimum width
+     */
+    public void ensureColumnWidth(int column, int width) {
+        checkIndex(column, columnCount);
+        if (columnWidths[column] < width) {
+            columnWidths[column] = width;
+            columnOffsetsValid = false;
+        }
+    }
+
+    public int getRowHeight(int row) {
+        checkIndex(row, rowCount);
+        return rowHeights[row];
+    }
+
+    public void setRowHeight(int row, int height) {
+        checkIndex(row, rowCount);
+        if (rowHeights[row] != height) {
+            rowHeights[row] = height;
+            rowOffsetsValid = false;
+        }
+    }
+
+    /**
+     * Make the row at least as high as the height
+     * @param row the row
+     * @param height the minimum height
+     */
+    public void ensureRowHeight(int row, int height) {
+        checkIndex(row, rowCount);
+        if (rowHeights[row] < height) {
+            rowHeights[row] = height;
+            rowOffsetsValid = false;
+        }
+    }
+
+    /**
+     * @param column the column, or the column count to get the total width
+     * @return the total width of all the columns before the column
+     */
+    public int getColumnOffset(int column) {
+        checkIndex(column, columnCount + 1);
+        if (!columnOffsetsValid) {
+            calculateOffsets(columnWidths, columnOffsets, columnCount);
+            columnOffsetsValid = true;
+        }
+        return columnOffsets[column];
+    }
+
+    /**
+     * @param row the row, or the row count to get the total height
+     * @return the total height of all the rows before the row
+     */
+    public int getRowOffset(int row) {
+        checkIndex(row, rowCount + 1);
+        if (!rowOffsetsValid) {
+            calculateOffsets(rowHeights, rowOffsets, rowCount);
+            rowOffsetsValid = true;
+        }
+        return rowOffsets[row];
+    }
+
+    /**
+     * Find the column at a horizontal offset
+     * Offsets before the first or after the last column give the first or last column
+     * @param x the offset from the start of the first column
+     * @return the column or -1 if there are no columns
+     */
+    public int getColumnAt(float x) {
+        getColumnOffset(0);
+        return indexAt(columnOffsets, columnCount, x);
+    }
+
+    /**
+     * Find the row at a vertical offset
+     * Offsets before the first or after the last row give the first or last row
+     * @param y the offset from the start of the first row
+     * @return the row or -1 if there are no rows
+     */
+    public int getRowAt(float y) {
+        getRowOffset(0);
+        return indexAt(rowOffsets, rowCount, y);
+    }
+
+    private static void calculateOffsets(int[] sizes, int[] offsets, int count) {
+        offsets[0] = 0;
+        for (int i = 0; i < count; i++) {
+            offsets[i + 1] = offsets[i] + sizes[i];
+        }
+    }
+
+    private static int indexAt(int[] offsets, int count, float offset) {
+        if (count == 0) {
+            return -1;
+        }
+        // Find the last offset that is not after the given offset
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static void checkIndex(int index, int count) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Count: " + count);
+        }
+    }
+}
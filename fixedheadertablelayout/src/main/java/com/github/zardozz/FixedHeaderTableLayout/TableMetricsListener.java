@@ -0,0 +1,87 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+/**
+ * Receives measurements of how a FixedHeaderTableLayout is measuring and drawing, set with setTableMetricsListener
+ * All methods are called on the main thread and do nothing by default, nothing is timed while no
+ * listener is set
+ */
+public interface TableMetricsListener {
+
+    // The Sub Tables in the order they are given to addViews
+    int MAIN_TABLE = 0;
+    int COLUMN_HEADER_TABLE = 1;
+    int ROW_HEADER_TABLE = 2;
+    int CORNER_TABLE = 3;
+
+    /**
+     * All the cells were measured and aligned, either by addViews or after an adapter changed
+     * With an adapter the cells are measured and aligned in one pass so the align time is part of
+     * the preMeasure time, and cells measured in the background are not timed
+     * @param preMeasureNanos time to measure every cell to its natural size
+     * @param alignNanos time to work out the aligned column widths and row heights
+     * @param fixedMeasureNanos time to measure the Sub Tables to the aligned sizes
+     */
+    default void onTableMeasured(long preMeasureNanos, long alignNanos, long fixedMeasureNanos) {
+    }
+
+    /**
+     * A Sub Table was drawn
+     * When hardware accelerated only the rows and cells that have changed are drawn again,
+     * none are drawn when the main table is drawn from tiles
+     * @param subTable which Sub Table, one of MAIN_TABLE, COLUMN_HEADER_TABLE, ROW_HEADER_TABLE or CORNER_TABLE
+     * @param drawNanos time to draw the Sub Table
+     * @param rowsDrawn the number of rows drawn
+     * @param cellsDrawn the number of cells drawn
+     */
+    default void onSubTableDrawn(int subTable, long drawNanos, int rowsDrawn, int cellsDrawn) {
+    }
+
+    /**
+     * A frame of the table was drawn
+     * @param drawNanos time to draw all the Sub Tables
+     * @param tableMeasureCount total times all the cells have been measured and aligned
+     * @param cellMeasureCount total single cells measured again after the adapter notified a change
+     * @param reusedCellViewCount total adapter cell Views reused instead of being created
+     */
+    default void onFrameDrawn(long drawNanos, long tableMeasureCount, long cellMeasureCount, long reusedCellViewCount) {
+    }
+
+    /**
+     * A touch event panned or scaled the table and it was invalidated
+     * @param latencyMillis time from the touch event happening to the table being invalidated
+     */
+    default void onTouchInvalidated(long latencyMillis) {
+    }
+
+    /**
+     * The Sub Tables were given hardware layers at the start of a gesture or had them removed at the end
+     * @param layerBytes the estimated memory used by the layers, 0 when they are removed
+     * @param mainTableTiled true if the main table was too big for a layer so is drawn from tiles instead
+     */
+    default void onGestureLayersChanged(long layerBytes, boolean mainTableTiled) {
+    }
+}
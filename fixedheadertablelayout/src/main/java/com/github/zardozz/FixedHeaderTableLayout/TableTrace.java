@@ -0,0 +1,69 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Debug logging and systrace sections for profiling the table in Perfetto or Android Studio
+ * Both are compiled out of release builds
+ */
+final class TableTrace {
+
+    // Set to true to log the pan and scale calculations, this is too slow to leave on
+    static final boolean LOGGING = false;
+    // Trace sections are only added in debug builds of the library
+    static final boolean TRACING = BuildConfig.DEBUG;
+
+    static final String PRE_MEASURE = "FixedHeaderTable:preMeasure";
+    static final String ALIGN = "FixedHeaderTable:align";
+    static final String FIXED_MEASURE = "FixedHeaderTable:fixedMeasure";
+    static final String MEASURE_ADAPTER_CELLS = "FixedHeaderTable:measureAdapterCells";
+    static final String LAYOUT = "FixedHeaderTable:layout";
+    static final String DRAW = "FixedHeaderTable:draw";
+    static final String DRAW_TILES = "FixedHeaderTable:drawTiles";
+    static final String TOUCH = "FixedHeaderTable:touch";
+    static final String PAN_SCALE = "FixedHeaderTable:panScale";
+
+    private TableTrace() {
+    }
+
+    /**
+     * Start a section, must be ended on the same thread with endSection
+     * @param sectionName one of the section names
+     */
+    static void beginSection(String sectionName) {
+        if (TRACING && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    static void endSection() {
+        if (TRACING && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+}
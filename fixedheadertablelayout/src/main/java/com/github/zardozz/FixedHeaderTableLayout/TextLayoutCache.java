@@ -0,0 +1,208 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.graphics.Typeface;
+import android.os.Build;
+import android.text.BoringLayout;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * The text Layouts of drawn cells keyed by their text, paint and width so that cells with the same
+ * text in the same column share a Layout, and redrawing a cell doesn't lay out its text again
+ *
+ * Kept in a least recently used cache with a size limit in bytes. Layouts don't report their size
+ * so it is estimated from the length of the text and the number of lines.
+ * Only used on the main thread
+ */
+final class TextLayoutCache {
+
+    // Estimated sizes of a Layout and its key, each line and each character of the text
+    private static final int LAYOUT_BYTES = 160;
+    private static final int LINE_BYTES = 48;
+    private static final int CHAR_BYTES = 2;
+
+    private static final class Key {
+        CharSequence text;
+        int width;
+        // The paint the Layout draws with and the parts of it that change how the text is laid out
+        TextPaint paint;
+        float textSize;
+        Typeface typeface;
+        Layout.Alignment alignment;
+
+        void set(CharSequence text, int width, TextPaint paint, Layout.Alignment alignment) {
+            this.text = text;
+            this.width = width;
+            this.paint = paint;
+            this.textSize = paint.getTextSize();
+            this.typeface = paint.getTypeface();
+            this.alignment = alignment;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return width == key.width && paint == key.paint && textSize == key.textSize
+                    && typeface == key.typeface && alignment == key.alignment && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * text.hashCode() + width) + Float.floatToIntBits(textSize);
+        }
+    }
+
+    private static final class Entry {
+        final Layout layout;
+        final int bytes;
+
+        Entry(Layout layout, int bytes) {
+            this.layout = layout;
+            this.bytes = bytes;
+        }
+    }
+
+    // Access ordered so the first entry is the least recently used
+    private final LinkedHashMap<Key, Entry> layouts = new LinkedHashMap<>(16, 0.75f, true);
+    // Re-used to look up Layouts without allocating
+    private final Key lookupKey = new Key();
+    private long maxBytes;
+    private long bytes = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    TextLayoutCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    long getMaxBytes() {
+        return maxBytes;
+    }
+
+    void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        trimToSize(maxBytes);
+    }
+
+    /**
+     * @return the estimated size in bytes of the cached Layouts
+     */
+    long getBytes() {
+        return bytes;
+    }
+
+    int getLayoutCount() {
+        return layouts.size();
+    }
+
+    long getHitCount() {
+        return hitCount;
+    }
+
+    long getMissCount() {
+        return missCount;
+    }
+
+    long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @param text the text
+     * @param paint the paint the text is drawn with
+     * @param width the width to lay the text out in
+     * @param alignment the alignment of the lines within the width
+     * @return the cached or a new Layout of the text
+     */
+    Layout getLayout(CharSequence text, TextPaint paint, int width, Layout.Alignment alignment) {
+        lookupKey.set(text, width, paint, alignment);
+        Entry entry = layouts.get(lookupKey);
+        lookupKey.text = null;
+        lookupKey.paint = null;
+        lookupKey.typeface = null;
+        if (entry != null) {
+            hitCount++;
+            return entry.layout;
+        }
+        missCount++;
+        Layout layout = createLayout(text, paint, width, alignment);
+        int layoutBytes = LAYOUT_BYTES + layout.getLineCount() * LINE_BYTES + text.length() * CHAR_BYTES;
+        // Make space first so the new Layout is never the one removed
+        trimToSize(maxBytes - layoutBytes);
+        if (layoutBytes <= maxBytes) {
+            Key key = new Key();
+            key.set(text, width, paint, alignment);
+            layouts.put(key, new Entry(layout, layoutBytes));
+            bytes += layoutBytes;
+        }
+        return layout;
+    }
+
+    void clear() {
+        layouts.clear();
+        bytes = 0;
+    }
+
+    private void trimToSize(long size) {
+        Iterator<Entry> iterator = layouts.values().iterator();
+        while (bytes > size && iterator.hasNext()) {
+            bytes -= iterator.next().bytes;
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * @return the width of the text's longest line
+     */
+    static int getDesiredWidth(CharSequence text, TextPaint paint) {
+        return (int) Math.ceil(Layout.getDesiredWidth(text, paint));
+    }
+
+    @SuppressWarnings("deprecation")
+    static Layout createLayout(CharSequence text, TextPaint paint, int width, Layout.Alignment alignment) {
+        // Single line text without spans can use the cheaper BoringLayout
+        BoringLayout.Metrics boring = BoringLayout.isBoring(text, paint);
+        if (boring != null && boring.width <= width) {
+            return BoringLayout.make(text, paint, width, alignment, 1f, 0f, boring, true);
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return StaticLayout.Builder.obtain(text, 0, text.length(), paint, width)
+                    .setAlignment(alignment)
+                    .build();
+        }
+        return new StaticLayout(text, paint, width, alignment, 1f, 0f, true);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bitmap tiles of a Sub Table at a few zoom levels
+ *
+ * Drawing the tiles costs the same however complex the cells are, so they are drawn instead of the
+ * table while it is being panned and scaled. Tiles are drawn at the power of two scale at or above
+ * the current scale and kept in a least recently used cache with a size limit in bytes.
+ */
+final class TileCache {
+
+    // Size of a tile's Bitmap in pixels
+    static final int TILE_SIZE = 256;
+    private static final int LEVEL_OFFSET = 128;
+    private static final int INDEX_BITS = 28;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    // Access ordered so the first entry is the least recently used
+    private final LinkedHashMap<Long, Bitmap> tiles = new LinkedHashMap<>(16, 0.75f, true);
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final RectF destination = new RectF();
+    private final RectF tileRect = new RectF();
+    private long maxBytes;
+    private long bytes = 0;
+
+    TileCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    long getMaxBytes() {
+        return maxBytes;
+    }
+
+    void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        trimToSize(maxBytes);
+    }
+
+    /**
+     * @return the zoom level whose scale is the power of two at or above the scale
+     */
+    static int getZoomLevel(float scale) {
+        return (int) Math.ceil(Math.log(scale) / Math.log(2));
+    }
+
+    static float getZoomScale(int zoomLevel) {
+        return (float) Math.pow(2, zoomLevel);
+    }
+
+    /**
+     * Draw the tiles that cover the visible part of the table, drawing any missing tiles first
+     * @param canvas a canvas in the table's coordinates
+     * @param table the table
+     * @param visible the visible area in the table's coordinates
+     * @param scale the scale the table is drawn at
+     */
+    void draw(Canvas canvas, FixedHeaderSubTableLayout table, RectF visible, float scale) {
+        int zoomLevel = getZoomLevel(scale);
+        // Size of a tile in the table's coordinates
+        float tileSize = TILE_SIZE / getZoomScale(zoomLevel);
+        int firstX = Math.max(0, (int) Math.floor(visible.left / tileSize));
+        int lastX = Math.min((int) Math.ceil(table.getWidth() / tileSize), (int) Math.ceil(visible.right / tileSize));
+        int firstY = Math.max(0, (int) Math.floor(visible.top / tileSize));
+        int lastY = Math.min((int) Math.ceil(table.getHeight() / tileSize), (int) Math.ceil(visible.bottom / tileSize));
+
+        for (int y = firstY; y < lastY; y++) {
+            for (int x = firstX; x < lastX; x++) {
+                Bitmap tile = getTile(table, zoomLevel, x, y);
+                destination.set(x * tileSize, y * tileSize, (x + 1) * tileSize, (y + 1) * tileSize);
+                canvas.drawBitmap(tile, null, destination, paint);
+            }
+        }
+    }
+
+    /**
+     * Remove the tiles that show any part of an area that has changed
+     * @param dirty the changed area in the table's coordinates
+     */
+    void invalidate(RectF dirty) {
+        Iterator<Map.Entry<Long, Bitmap>> iterator = tiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Bitmap> entry = iterator.next();
+            getTileRect(entry.getKey(), tileRect);
+            if (RectF.intersects(tileRect, dirty)) {
+                bytes -= entry.getValue().getByteCount();
+                iterator.remove();
+            }
+        }
+    }
+
+    void clear() {
+        tiles.clear();
+        bytes = 0;
+    }
+
+    private Bitmap getTile(FixedHeaderSubTableLayout table, int zoomLevel, int x, int y) {
+        long key = getKey(zoomLevel, x, y);
+        Bitmap tile = tiles.get(key);
+        if (tile == null) {
+            tile = Bitmap.createBitmap(TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888);
+            Canvas tileCanvas = new Canvas(tile);
+            float zoomScale = getZoomScale(zoomLevel);
+            tileCanvas.scale(zoomScale, zoomScale);
+            tileCanvas.translate(-x * TILE_SIZE / zoomScale, -y * TILE_SIZE / zoomScale);
+            table.drawUnclipped(tileCanvas);
+
+            int tileBytes = tile.getByteCount();
+            // Make space first so the new tile is never the one removed
+            trimToSize(maxBytes - tileBytes);
+            tiles.put(key, tile);
+            bytes += tileBytes;
+        }
+        return tile;
+    }
+
+    private void trimToSize(long size) {
+        // Evicted Bitmaps are not recycled as a hardware Canvas might still be drawing them
+        Iterator<Bitmap> iterator = tiles.values().iterator();
+        while (bytes > size && iterator.hasNext()) {
+            bytes -= iterator.next().getByteCount();
+            iterator.remove();
+        }
+    }
+
+    private static long getKey(int zoomLevel, int x, int y) {
+        return ((long) (zoomLevel + LEVEL_OFFSET) << (2 * INDEX_BITS)) | ((y & INDEX_MASK) << INDEX_BITS) | (x & INDEX_MASK);
+    }
+
+    private static void getTileRect(long key, RectF rect) {
+        int zoomLevel = (int) (key >>> (2 * INDEX_BITS)) - LEVEL_OFFSET;
+        int y = (int) ((key >>> INDEX_BITS) & INDEX_MASK);
+        int x = (int) (key & INDEX_MASK);
+        float tileSize = TILE_SIZE / getZoomScale(zoomLevel);
+        rect.set(x * tileSize, y * tileSize, (x + 1) * tileSize, (y + 1) * tileSize);
+    }
+}
@@ -24,10 +24,119 @@
 
 package com.github.zardozz.FixedHeaderTableLayout;
 
+import android.view.View;
+import android.view.ViewGroup;
+
 import java.util.ArrayList;
 
 public class Utils {
 
+    /**
+     * @param table the table
+     * @return the number of columns in the table's longest row, counting the columns spanned by cells
+     */
+    public static int getMaxColumnCount(FixedHeaderSubTableLayout table) {
+        return table.updateCellColumns();
+    }
+
+    /**
+     * Make each row in the metrics at least as high as the matching preMeasured row of the table
+     * @param tableMetrics the metrics to update
+     * @param firstRow the row in tableMetrics of the table's first row
+     * @param table the preMeasured table
+     */
+    public static void calculateMaxRowHeight(TableMetrics tableMetrics, int firstRow, FixedHeaderSubTableLayout table) {
+        for (int row = 0; row < table.getChildCount(); row++) {
+            FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row);
+            tableMetrics.ensureRowHeight(firstRow + row, tableRow.getMaxChildHeight());
+        }
+    }
+
+    /**
+     * Make each column in the metrics at least as wide as the matching preMeasured cells of the table
+     * @param tableMetrics the metrics to update
+     * @param firstColumn the column in tableMetrics of the table's first column
+     * @param table the preMeasured table
+     */
+    public static void calculateMaxColumnWidth(TableMetrics tableMetrics, int firstColumn, FixedHeaderSubTableLayout table) {
+        for (int row = 0; row < table.getChildCount(); row++) {
+            FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row);
+            final int cellCount = tableRow.getCellCount();
+            for (int index = 0; index < cellCount; index++) {
+                if (tableRow.getCellColumnSpan(index) == 1) {
+                    // Cells spanning columns are fitted by calculateSpannedCellSizes
+                    tableMetrics.ensureColumnWidth(firstColumn + tableRow.getCellColumn(index), tableRow.getCellWidth(index));
+                }
+            }
+        }
+    }
+
+    /**
+     * Make the columns and rows under each cell spanning more than one column or row big enough for the cell
+     * Call after calculateMaxColumnWidth and calculateMaxRowHeight for all the tables sharing the metrics,
+     * the extra size a cell needs is shared out evenly between the columns or rows it covers
+     * @param tableMetrics the metrics to update
+     * @param firstRow the row in tableMetrics of the table's first row
+     * @param firstColumn the column in tableMetrics of the table's first column
+     * @param table the preMeasured table
+     */
+    public static void calculateSpannedCellSizes(TableMetrics tableMetrics, int firstRow, int firstColumn, FixedHeaderSubTableLayout table) {
+        for (int row = 0; row < table.getChildCount(); row++) {
+            FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row);
+            if (!tableRow.hasSpans()) {
+                continue;
+            }
+            final int cellCount = tableRow.getCellCount();
+            for (int index = 0; index < cellCount; index++) {
+                int column = firstColumn + tableRow.getCellColumn(index);
+                int columnSpan = Math.min(tableRow.getCellColumnSpan(index), tableMetrics.getColumnCount() - column);
+                if (columnSpan > 1) {
+                    int width = 0;
+                    for (int i = column; i < column + columnSpan; i++) {
+                        width += tableMetrics.getColumnWidth(i);
+                    }
+                    int extraWidth = tableRow.getCellWidth(index) - width;
+                    for (int i = 0; i < columnSpan && extraWidth > 0; i++) {
+                        tableMetrics.setColumnWidth(column + i, tableMetrics.getColumnWidth(column + i) + shareOf(extraWidth, columnSpan, i));
+                    }
+                }
+                int rowSpan = Math.min(tableRow.getCellRowSpan(index), tableMetrics.getRowCount() - (firstRow + row));
+                if (rowSpan > 1) {
+                    int height = 0;
+                    for (int i = firstRow + row; i < firstRow + row + rowSpan; i++) {
+                        height += tableMetrics.getRowHeight(i);
+                    }
+                    int extraHeight = tableRow.getCellHeight(index) - height;
+                    for (int i = 0; i < rowSpan && extraHeight > 0; i++) {
+                        tableMetrics.setRowHeight(firstRow + row + i, tableMetrics.getRowHeight(firstRow + row + i) + shareOf(extraHeight, rowSpan, i));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the part of the extra size for one of the spanned columns or rows, the first ones take the remainder
+     */
+    private static int shareOf(int extra, int span, int index) {
+        return extra / span + (index < extra % span ? 1 : 0);
+    }
+
+    /**
+     * Measure the table to the aligned sizes in the metrics
+     * @param tableMetrics the aligned sizes
+     * @param firstRow the row in tableMetrics of the table's first row
+     * @param firstColumn the column in tableMetrics of the table's first column
+     * @param table the table
+     */
+    public static void setTableMetrics(TableMetrics tableMetrics, int firstRow, int firstColumn, FixedHeaderSubTableLayout table) {
+        table.setTableMetrics(tableMetrics, firstRow, firstColumn);
+    }
+
+    /**
+     * @deprecated Boxes every height, use calculateMaxRowHeight with a TableMetrics
+     */
+    @Deprecated
     public static ArrayList<Integer> calculateMaxRowHeight(ArrayList<Integer> existHeights, FixedHeaderSubTableLayout table) {
         for (int row = 0; row < table.getChildCount(); row++) {
             FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row);
@@ -42,6 +151,10 @@ public class Utils {
         return existHeights;
     }
 
+    /**
+     * @deprecated Use setTableMetrics
+     */
+    @Deprecated
     public static void setMaxRowHeight(ArrayList<Integer> newHeights, FixedHeaderSubTableLayout table){
         for (int row = 0; row < table.getChildCount(); row++) {
             FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row);
@@ -49,27 +162,87 @@ public class Utils {
         }
     }
 
+    /**
+     * @deprecated Boxes every width, use calculateMaxColumnWidth with a TableMetrics
+     */
+    @Deprecated
     public static ArrayList<Integer> calculateMaxColumnWidth(ArrayList<Integer> existWidths, FixedHeaderSubTableLayout table) {
         for (int row = 0; row < table.getChildCount(); row++) {
             FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row);
-            ArrayList<Integer> rowColumnWidth = tableRow.getColumnWidths();
-            for (int column = 0; column < rowColumnWidth.size(); column++) {
+            final int cellCount = tableRow.getCellCount();
+            for (int column = 0; column < cellCount; column++) {
                 if (existWidths.size() <= column) {
                     // Not seen this column number before so add
-                    existWidths.add(rowColumnWidth.get(column));
+                    existWidths.add(tableRow.getCellWidth(column));
                 } else {
                     // Take the max of existing value and new value
-                    existWidths.set(column, Math.max(existWidths.get(column), rowColumnWidth.get(column)));
+                    existWidths.set(column, Math.max(existWidths.get(column), tableRow.getCellWidth(column)));
                 }
             }
         }
         return  existWidths;
     }
 
+    /**
+     * @deprecated Use setTableMetrics
+     */
+    @Deprecated
     public static void setMaxColumnWidth(ArrayList<Integer> newWidths, FixedHeaderSubTableLayout table){
+        // Only the column widths are set, the row heights are left as they are
+        TableMetrics tableMetrics = columnWidthsToTableMetrics(newWidths);
         for (int row = 0; row < table.getChildCount(); row++) {
             FixedHeaderTableRow tableRow = (FixedHeaderTableRow) table.getChildAt(row);
-            tableRow.setColumnWidths(newWidths);
+            tableRow.setTableMetrics(tableMetrics, 0);
+        }
+    }
+
+    static TableMetrics columnWidthsToTableMetrics(ArrayList<Integer> columnWidths) {
+        TableMetrics tableMetrics = new TableMetrics();
+        tableMetrics.reset(columnWidths.size(), 0);
+        for (int column = 0; column < columnWidths.size(); column++) {
+            tableMetrics.setColumnWidth(column, columnWidths.get(column));
+        }
+        return tableMetrics;
+    }
+
+    /**
+     * Binary search the children of a table or row, which are laid out one after another
+     * @param parent the table or row
+     * @param position a position in the parent's coordinates
+     * @param vertical true to compare the children's top and bottom, false their left and right
+     * @return the index of the first child that ends after the position
+     */
+    static int findFirstChildEndingAfter(ViewGroup parent, float position, boolean vertical) {
+        int low = 0;
+        int high = parent.getChildCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            View child = parent.getChildAt(mid);
+            if ((vertical ? child.getBottom() : child.getRight()) <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @see #findFirstChildEndingAfter
+     * @return the index of the first child that starts at or after the position
+     */
+    static int findFirstChildStartingFrom(ViewGroup parent, float position, boolean vertical) {
+        int low = 0;
+        int high = parent.getChildCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            View child = parent.getChildAt(mid);
+            if ((vertical ? child.getTop() : child.getLeft()) < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return low;
     }
 }
@@ -0,0 +1,109 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CellSizeStoreTest {
+
+    // 3 rows of 2 columns where each cell's width is 10 * row + column and height is width + 100
+    private CellSizeStore createStore() {
+        CellSizeStore cellSizeStore = new CellSizeStore();
+        cellSizeStore.reset(2, 3);
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 2; column++) {
+                cellSizeStore.set(row, column, 10 * row + column, 10 * row + column + 100);
+            }
+        }
+        return cellSizeStore;
+    }
+
+    @Test
+    public void storesWidthAndHeight() {
+        CellSizeStore cellSizeStore = createStore();
+        assertEquals(21, cellSizeStore.getWidth(2, 1));
+        assertEquals(121, cellSizeStore.getHeight(2, 1));
+        assertEquals(21, cellSizeStore.getMaxWidth(1));
+        assertEquals(111, cellSizeStore.getMaxHeight(1));
+        assertFalse(cellSizeStore.isClamped());
+        // Sizes that don't fit are clamped
+        cellSizeStore.set(0, 0, 100000, 70000);
+        assertTrue(cellSizeStore.isClamped());
+        assertEquals(0xFFFF, cellSizeStore.getWidth(0, 0));
+        assertEquals(0xFFFF, cellSizeStore.getHeight(0, 0));
+    }
+
+    @Test
+    public void insertAndRemoveRows() {
+        CellSizeStore cellSizeStore = createStore();
+        cellSizeStore.insertRow(1);
+        assertEquals(4, cellSizeStore.getRowCount());
+        assertEquals(0, cellSizeStore.getWidth(1, 1));
+        assertEquals(11, cellSizeStore.getWidth(2, 1));
+        cellSizeStore.removeRow(0);
+        assertEquals(0, cellSizeStore.getWidth(0, 0));
+        assertEquals(20, cellSizeStore.getWidth(2, 0));
+    }
+
+    @Test
+    public void insertAndRemoveColumns() {
+        CellSizeStore cellSizeStore = createStore();
+        cellSizeStore.insertColumn(2);
+        assertEquals(3, cellSizeStore.getColumnCount());
+        assertEquals(0, cellSizeStore.getWidth(1, 2));
+        assertEquals(20, cellSizeStore.getWidth(2, 0));
+        cellSizeStore.removeColumn(0);
+        assertEquals(2, cellSizeStore.getColumnCount());
+        assertEquals(11, cellSizeStore.getWidth(1, 0));
+        assertEquals(121, cellSizeStore.getHeight(2, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> cellSizeStore.getWidth(0, 2));
+    }
+
+    @Test
+    public void insertPastSpareSpace() {
+        CellSizeStore cellSizeStore = createStore();
+        // More than the spare rows and columns so the cells are copied to a bigger array
+        for (int i = 0; i < 10; i++) {
+            cellSizeStore.insertRow(0);
+            cellSizeStore.insertColumn(0);
+        }
+        assertEquals(13, cellSizeStore.getRowCount());
+        assertEquals(12, cellSizeStore.getColumnCount());
+        assertEquals(0, cellSizeStore.getWidth(0, 0));
+        assertEquals(0, cellSizeStore.getWidth(12, 9));
+        assertEquals(21, cellSizeStore.getWidth(12, 11));
+        assertEquals(21, cellSizeStore.getMaxWidth(11));
+        // Space left by a removed row or column is empty when inserted again
+        cellSizeStore.removeRow(12);
+        cellSizeStore.removeColumn(11);
+        cellSizeStore.insertRow(12);
+        cellSizeStore.insertColumn(11);
+        assertEquals(0, cellSizeStore.getWidth(12, 10));
+        assertEquals(0, cellSizeStore.getWidth(11, 11));
+        assertEquals(10, cellSizeStore.getWidth(11, 10));
+    }
+}
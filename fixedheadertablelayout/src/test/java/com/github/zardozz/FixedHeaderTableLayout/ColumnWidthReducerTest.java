@@ -0,0 +1,100 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class ColumnWidthReducerTest {
+
+    private CellSizeStore createStore(int columnCount, int rowCount) {
+        Random random = new Random(42);
+        CellSizeStore cellSizeStore = new CellSizeStore();
+        cellSizeStore.reset(columnCount, rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                cellSizeStore.set(row, column, random.nextInt(1000), random.nextInt(200));
+            }
+        }
+        return cellSizeStore;
+    }
+
+    @Test
+    public void chunksMatchOneThread() throws InterruptedException {
+        CellSizeStore cellSizeStore = createStore(317, 401);
+        int[] expected = new int[317];
+        for (int column = 0; column < expected.length; column++) {
+            expected[column] = cellSizeStore.getMaxWidth(column);
+        }
+        assertArrayEquals(expected, ColumnWidthReducer.getMaxColumnWidths(cellSizeStore, null, 1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int chunkCount = 2; chunkCount <= 7; chunkCount++) {
+                assertArrayEquals(expected, ColumnWidthReducer.getMaxColumnWidths(cellSizeStore, executor, chunkCount));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void busyExecutorDoesNotBlock() throws InterruptedException {
+        CellSizeStore cellSizeStore = createStore(317, 401);
+        int[] expected = ColumnWidthReducer.getMaxColumnWidths(cellSizeStore, null, 1);
+
+        // The only thread is busy with other work until the widths have been worked out
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch released = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            assertArrayEquals(expected, ColumnWidthReducer.getMaxColumnWidths(cellSizeStore, executor, 4));
+        } finally {
+            released.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void onlyBigTablesAreChunked() {
+        assertEquals(1, ColumnWidthReducer.getChunkCount(createStore(99, 1000), 8));
+        assertEquals(4, ColumnWidthReducer.getChunkCount(createStore(100, 1000), 8));
+        assertEquals(2, ColumnWidthReducer.getChunkCount(createStore(1000, 1000), 2));
+        // Never more chunks than rows
+        assertEquals(3, ColumnWidthReducer.getChunkCount(createStore(100000, 3), 8));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *  MIT License
+ *
+ * Copyright (c) 2022 Andrew Beck
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.zardozz.FixedHeaderTableLayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TableMetricsTest {
+
+    private TableMetrics createMetrics() {
+        TableMetrics tableMetrics = new TableMetrics();
+        tableMetrics.reset(4, 3);
+        tableMetrics.setColumnWidth(0, 10);
+        tableMetrics.setColumnWidth(1, 20);
+        tableMetrics.setColumnWidth(2, 0);
+        tableMetrics.setColumnWidth(3, 30);
+        tableMetrics.setRowHeight(0, 5);
+        tableMetrics.setRowHeight(1, 15);
+        tableMetrics.setRowHeight(2, 25);
+        return tableMetrics;
+    }
+
+    @Test
+    public void offsetsAreCumulative() {
+        TableMetrics tableMetrics = createMetrics();
+        assertEquals(0, tableMetrics.getColumnOffset(0));
+        assertEquals(10, tableMetrics.getColumnOffset(1));
+        assertEquals(30, tableMetrics.getColumnOffset(3));
+        assertEquals(60, tableMetrics.getColumnOffset(4));
+        assertEquals(45, tableMetrics.getRowOffset(3));
+    }
+
+    @Test
+    public void offsetsFollowSizeChanges() {
+        TableMetrics tableMetrics = createMetrics();
+        assertEquals(60, tableMetrics.getColumnOffset(4));
+        tableMetrics.ensureColumnWidth(1, 25);
+        tableMetrics.ensureColumnWidth(0, 5);
+        assertEquals(10, tableMetrics.getColumnWidth(0));
+        assertEquals(65, tableMetrics.getColumnOffset(4));
+        tableMetrics.ensureRowHeight(0, 10);
+        assertEquals(50, tableMetrics.getRowOffset(3));
+    }
+
+    @Test
+    public void findsColumnAndRowAtOffset() {
+        TableMetrics tableMetrics = createMetrics();
+        assertEquals(0, tableMetrics.getColumnAt(-5));
+        assertEquals(0, tableMetrics.getColumnAt(9.5f));
+        assertEquals(1, tableMetrics.getColumnAt(10));
+        // Zero width columns are skipped
+        assertEquals(3, tableMetrics.getColumnAt(30));
+        assertEquals(3, tableMetrics.getColumnAt(1000));
+        assertEquals(1, tableMetrics.getRowAt(5));
+        assertEquals(2, tableMetrics.getRowAt(44));
+    }
+
+    @Test
+    public void resetClearsSizes() {
+        TableMetrics tableMetrics = createMetrics();
+        tableMetrics.reset(2, 1);
+        assertEquals(2, tableMetrics.getColumnCount());
+        assertEquals(0, tableMetrics.getColumnWidth(1));
+        assertEquals(0, tableMetrics.getColumnOffset(2));
+        tableMetrics.reset(0, 0);
+        assertEquals(-1, tableMetrics.getColumnAt(0));
+    }
+
+    @Test
+    public void insertAndRemoveShiftSizes() {
+        TableMetrics tableMetrics = createMetrics();
+        tableMetrics.insertColumn(1);
+        assertEquals(5, tableMetrics.getColumnCount());
+        assertEquals(0, tableMetrics.getColumnWidth(1));
+        assertEquals(20, tableMetrics.getColumnWidth(2));
+        tableMetrics.setColumnWidth(1, 7);
+        assertEquals(67, tableMetrics.getColumnOffset(5));
+        tableMetrics.removeColumn(0);
+        assertEquals(7, tableMetrics.getColumnWidth(0));
+        assertEquals(57, tableMetrics.getColumnOffset(4));
+
+        // Grows past the original size
+        for (int i = 0; i < 10; i++) {
+            tableMetrics.insertRow(tableMetrics.getRowCount());
+            tableMetrics.setRowHeight(tableMetrics.getRowCount() - 1, 1);
+        }
+        assertEquals(55, tableMetrics.getRowOffset(13));
+        tableMetrics.removeRow(2);
+        assertEquals(12, tableMetrics.getRowCount());
+        assertEquals(30, tableMetrics.getRowOffset(12));
+    }
+
+    @Test
+    public void rejectsIndexOutOfRange() {
+        TableMetrics tableMetrics = createMetrics();
+        assertThrows(IndexOutOfBoundsException.class, () -> tableMetrics.getColumnWidth(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> tableMetrics.getRowOffset(4));
+    }
+}